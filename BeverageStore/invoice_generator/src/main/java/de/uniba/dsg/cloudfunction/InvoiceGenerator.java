@@ -2,52 +2,148 @@ package de.uniba.dsg.cloudfunction;
 
 import com.lowagie.text.DocumentException;
 import de.uniba.dsg.models.Invoice;
+import de.uniba.dsg.models.InvoiceAddress;
+import de.uniba.dsg.models.InvoiceItem;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.templatemode.TemplateMode;
 import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.xhtmlrenderer.pdf.ITextOutputDevice;
 import org.xhtmlrenderer.pdf.ITextRenderer;
+import org.xhtmlrenderer.pdf.ITextUserAgent;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
 
+// shared by all invocations of a function instance, the template is parsed once and each renderer keeps its fonts and stylesheets
 public class InvoiceGenerator {
-    private final Invoice invoice;
+    private static final Logger logger = Logger.getLogger(InvoiceGenerator.class.getName());
+
     private final String templateName;
-    private final ByteArrayOutputStream outputStream;
+    private final TemplateEngine templateEngine;
+    private final Map<String, byte[]> resources;
+    private final BlockingQueue<ITextRenderer> renderers;
 
-    public InvoiceGenerator(Invoice invoice, String templateName) {
-        this.invoice = invoice;
+    public InvoiceGenerator(String templateName, int rendererCount) {
         this.templateName = templateName;
-        outputStream = new ByteArrayOutputStream();
+
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(true);
+
+        templateEngine = new TemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        resources = new ConcurrentHashMap<>();
+        renderers = new ArrayBlockingQueue<>(rendererCount);
+
+        for (int i = 0; i < rendererCount; i++) {
+            renderers.add(createRenderer());
+        }
     }
 
-    public byte[] generate() throws DocumentException {
-        String html = parseThymeleafTemplate();
+    // the PDF is written to the stream while it is created, it is never held in memory as a whole
+    public void generate(Invoice invoice, OutputStream outputStream) throws DocumentException, InterruptedException {
+        String html = parseThymeleafTemplate(invoice);
+
+        ITextRenderer renderer = renderers.take();
+        boolean rendered = false;
+
+        try {
+            render(renderer, html, outputStream);
+
+            rendered = true;
+        } finally {
+            // a renderer that failed half way is not trusted with the next document, and even an error must not shrink the pool
+            renderers.add(rendered ? renderer : createRenderer());
+        }
+    }
+
+    // renders a sample invoice on every pooled renderer, so the first real request finds everything parsed and loaded
+    public void warmUp() {
+        String html = parseThymeleafTemplate(createSampleInvoice());
+
+        List<ITextRenderer> idleRenderers = new ArrayList<>();
+        renderers.drainTo(idleRenderers);
+
+        for (ITextRenderer renderer : idleRenderers) {
+            boolean rendered = false;
+
+            try {
+                render(renderer, html, OutputStream.nullOutputStream());
+
+                rendered = true;
+            } catch (DocumentException | RuntimeException ex) {
+                logger.warning("Warming up invoice renderer failed: " + ex);
+            } finally {
+                renderers.add(rendered ? renderer : createRenderer());
+            }
+        }
+    }
 
-        ITextRenderer renderer = new ITextRenderer();
+    private void render(ITextRenderer renderer, String html, OutputStream outputStream) throws DocumentException {
         renderer.setDocumentFromString(html);
         renderer.layout();
         renderer.createPDF(outputStream);
+    }
 
-        return outputStream.toByteArray();
+    private String parseThymeleafTemplate(Invoice invoice) {
+        Context context = new Context();
+        context.setVariable("invoice", invoice);
+
+        return templateEngine.process(templateName, context);
     }
 
-    public void dispose() throws IOException {
-        outputStream.close();
+    private ITextRenderer createRenderer() {
+        ITextOutputDevice outputDevice = new ITextOutputDevice(ITextRenderer.DEFAULT_DOTS_PER_POINT);
+
+        return new ITextRenderer(ITextRenderer.DEFAULT_DOTS_PER_POINT, ITextRenderer.DEFAULT_DOTS_PER_PIXEL, outputDevice, new CachingUserAgent(outputDevice, resources));
     }
 
-    private String parseThymeleafTemplate() {
-        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
-        templateResolver.setSuffix(".html");
-        templateResolver.setTemplateMode(TemplateMode.HTML);
+    private static Invoice createSampleInvoice() {
+        InvoiceAddress address = new InvoiceAddress("Street", "1", "96047");
 
-        TemplateEngine templateEngine = new TemplateEngine();
-        templateEngine.setTemplateResolver(templateResolver);
+        return new Invoice("ORD000000", LocalDate.now(), "Customer", "customer@email.com", address, address, List.of(
+                new InvoiceItem(1, "Beverage", "BOTTLE", 1, 1.0)
+        ));
+    }
 
-        Context context = new Context();
-        context.setVariable("invoice", invoice);
+    // stylesheets and images referenced by the template are fetched once per instance instead of once per renderer
+    private static class CachingUserAgent extends ITextUserAgent {
+        private final Map<String, byte[]> resources;
 
-        return templateEngine.process(templateName, context);
+        public CachingUserAgent(ITextOutputDevice outputDevice, Map<String, byte[]> resources) {
+            super(outputDevice);
+
+            this.resources = resources;
+        }
+
+        @Override
+        protected InputStream resolveAndOpenStream(String uri) {
+            byte[] resource = resources.computeIfAbsent(uri, this::readResource);
+
+            return resource == null ? null : new ByteArrayInputStream(resource);
+        }
+
+        private byte[] readResource(String uri) {
+            try (InputStream inputStream = super.resolveAndOpenStream(uri)) {
+                return inputStream == null ? null : inputStream.readAllBytes();
+            } catch (IOException ex) {
+                logger.warning("Reading resource " + uri + " failed: " + ex);
+
+                return null;
+            }
+        }
     }
 }
@@ -1,31 +1,69 @@
 package de.uniba.dsg.cloudfunction;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.functions.HttpFunction;
 import com.google.cloud.functions.HttpRequest;
 import com.google.cloud.functions.HttpResponse;
-import de.uniba.dsg.helper.GoogleCloudStorageHelper;
 import de.uniba.dsg.models.Invoice;
 import de.uniba.dsg.models.InvoiceItem;
+import de.uniba.dsg.storage.GoogleCloudStorageWriter;
+import de.uniba.dsg.storage.LocalFileStorageWriter;
+import de.uniba.dsg.storage.StorageUpload;
+import de.uniba.dsg.storage.StorageWriter;
 
 import javax.naming.directory.InvalidAttributesException;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
+import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class InvoiceGeneratorFunction implements HttpFunction {
 
-    private final String BUCKET_NAME = System.getenv("BUCKET_NAME");
-
     private static final Logger logger = Logger.getLogger(InvoiceGeneratorFunction.class.getName());
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    private static final int RENDERER_COUNT = getRendererCount();
+
+    private static final InvoiceGenerator invoiceGenerator = createInvoiceGenerator();
+
+    // one render thread per pooled renderer, uploads are finished on their own threads so the next invoice is laid out while the previous one is written
+    private static final ExecutorService renderExecutor = createExecutor("invoice-render");
+    private static final ExecutorService uploadExecutor = createExecutor("invoice-upload");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final String bucketName;
+    private final StorageWriter storageWriter;
+
+    public InvoiceGeneratorFunction() {
+        this(System.getenv("BUCKET_NAME"), createStorageWriter());
+    }
+
+    InvoiceGeneratorFunction(String bucketName, StorageWriter storageWriter) {
+        this.bucketName = bucketName;
+        this.storageWriter = storageWriter;
+    }
+
     @Override
     public void service(HttpRequest request, HttpResponse response)
             throws Exception {
@@ -38,23 +76,28 @@ public class InvoiceGeneratorFunction implements HttpFunction {
         }
 
         try {
-            Invoice invoice = new ObjectMapper()
-                    .readValue(request.getReader(), Invoice.class);
+            if (request.getContentType().orElse("").startsWith(NDJSON_CONTENT_TYPE)) {
+                serviceBatch(objectMapper.readerFor(Invoice.class).readValues(request.getReader()), response);
 
-            validateOrder(invoice);
+                return;
+            }
+
+            JsonParser parser = objectMapper.getFactory().createParser(request.getReader());
 
-            Map<String, String> metadata = Map.ofEntries(
-                    new AbstractMap.SimpleEntry<>("email", invoice.getCustomerEmailId()),
-                    new AbstractMap.SimpleEntry<>("order_number", invoice.getOrderNumber()),
-                    new AbstractMap.SimpleEntry<>("customer_name", invoice.getCustomerName())
-            );
+            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                // the iterator then reads the array elements one by one instead of the array as a whole
+                parser.clearCurrentToken();
 
-            InvoiceGenerator invoiceGenerator = new InvoiceGenerator(invoice, "invoice_template");
+                serviceBatch(objectMapper.readerFor(Invoice.class).readValues(parser), response);
 
-            GoogleCloudStorageHelper.createFile(BUCKET_NAME, invoice.getOrderNumber() +  ".pdf", invoiceGenerator.generate(), metadata);
+                return;
+            }
 
-            invoiceGenerator.dispose();
+            Invoice invoice = objectMapper.readValue(parser, Invoice.class);
+
+            validateOrder(invoice);
 
+            renderInvoice(invoice).commit();
 
             response.getWriter().write("Invoice successfully generated");
             response.setStatusCode(HttpURLConnection.HTTP_OK);
@@ -68,6 +111,147 @@ public class InvoiceGeneratorFunction implements HttpFunction {
         }
     }
 
+    // invoices are read from the request while earlier ones render, the permits keep a long stream from piling up parsed invoices and open uploads
+    private void serviceBatch(MappingIterator<Invoice> invoices, HttpResponse response)
+            throws IOException, InterruptedException {
+
+        List<CompletableFuture<InvoiceResult>> results = new ArrayList<>();
+        Semaphore permits = new Semaphore(RENDERER_COUNT * 2);
+
+        while (true) {
+            Invoice invoice;
+
+            try {
+                if (!invoices.hasNextValue()) {
+                    break;
+                }
+
+                invoice = invoices.nextValue();
+            } catch (IOException ex) {
+                // the reader cannot find the start of the next invoice after malformed input, so the remaining ones are not attempted
+                results.add(CompletableFuture.completedFuture(InvoiceResult.failed(null, ex.getMessage())));
+
+                break;
+            }
+
+            permits.acquire();
+
+            results.add(processInvoice(invoice)
+                    .whenComplete((result, ex) -> permits.release()));
+        }
+
+        List<InvoiceResult> invoiceResults = new ArrayList<>();
+
+        for (CompletableFuture<InvoiceResult> result : results) {
+            invoiceResults.add(result.join());
+        }
+
+        long failedCount = invoiceResults.stream()
+                .filter(x -> x.getStatus().equals(InvoiceResult.FAILED))
+                .count();
+
+        response.setStatusCode(HttpURLConnection.HTTP_OK);
+        response.setContentType("application/json");
+        response.getWriter().write(objectMapper.writeValueAsString(invoiceResults));
+
+        logger.info("Generated " + (invoiceResults.size() - failedCount) + " of " + invoiceResults.size() + " invoices in batch");
+    }
+
+    private CompletableFuture<InvoiceResult> processInvoice(Invoice invoice) {
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        validateOrder(invoice);
+
+                        return renderInvoice(invoice);
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, renderExecutor)
+                .thenApplyAsync(upload -> {
+                    try {
+                        upload.commit();
+                    } catch (IOException ex) {
+                        throw new CompletionException(ex);
+                    }
+
+                    logger.info("Generated invoice for Order: " + invoice.getOrderNumber());
+
+                    return InvoiceResult.generated(invoice.getOrderNumber());
+                }, uploadExecutor)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                            ? ex.getCause()
+                            : ex;
+
+                    logger.info("Exception for Order: " + invoice.getOrderNumber() + ": " + cause.toString());
+
+                    return InvoiceResult.failed(invoice.getOrderNumber(), cause.getMessage());
+                });
+    }
+
+    private StorageUpload renderInvoice(Invoice invoice) throws Exception {
+        StorageUpload upload = storageWriter.create(bucketName, invoice.getOrderNumber() + ".pdf", createMetadata(invoice));
+        boolean rendered = false;
+
+        try {
+            invoiceGenerator.generate(invoice, upload.getOutputStream());
+
+            rendered = true;
+
+            return upload;
+        } finally {
+            if (!rendered) {
+                upload.abort();
+            }
+        }
+    }
+
+    private Map<String, String> createMetadata(Invoice invoice) {
+        return Map.ofEntries(
+                new AbstractMap.SimpleEntry<>("email", invoice.getCustomerEmailId()),
+                new AbstractMap.SimpleEntry<>("order_number", invoice.getOrderNumber()),
+                new AbstractMap.SimpleEntry<>("customer_name", invoice.getCustomerName())
+        );
+    }
+
+    private static int getRendererCount() {
+        String rendererCount = System.getenv("RENDERER_COUNT");
+
+        return rendererCount == null
+                ? Runtime.getRuntime().availableProcessors()
+                : Integer.parseInt(rendererCount);
+    }
+
+    // built and warmed when the function instance starts, so warm invocations only lay out and write the PDF
+    private static InvoiceGenerator createInvoiceGenerator() {
+        InvoiceGenerator invoiceGenerator = new InvoiceGenerator("invoice_template", RENDERER_COUNT);
+
+        invoiceGenerator.warmUp();
+
+        return invoiceGenerator;
+    }
+
+    // STORAGE_DIRECTORY writes the invoices to the local file system instead, e.g. when running the function locally
+    private static StorageWriter createStorageWriter() {
+        String storageDirectory = System.getenv("STORAGE_DIRECTORY");
+
+        return storageDirectory == null
+                ? new GoogleCloudStorageWriter()
+                : new LocalFileStorageWriter(Path.of(storageDirectory));
+    }
+
+    private static ExecutorService createExecutor(String threadName) {
+        AtomicInteger threadCount = new AtomicInteger(0);
+
+        return Executors.newFixedThreadPool(RENDERER_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, threadName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
     private void validateOrder(Invoice invoice)
             throws InvalidAttributesException {
 
@@ -88,8 +272,6 @@ public class InvoiceGeneratorFunction implements HttpFunction {
     }
 
     private <T> List<String> validate(T obj) {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-
         return validator.validate(obj)
                 .stream()
                 .map(ConstraintViolation::getMessage)
@@ -0,0 +1,36 @@
+package de.uniba.dsg.cloudfunction;
+
+public class InvoiceResult {
+    public static final String GENERATED = "GENERATED";
+    public static final String FAILED = "FAILED";
+
+    private final String orderNumber;
+    private final String status;
+    private final String message;
+
+    public InvoiceResult(String orderNumber, String status, String message) {
+        this.orderNumber = orderNumber;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static InvoiceResult generated(String orderNumber) {
+        return new InvoiceResult(orderNumber, GENERATED, null);
+    }
+
+    public static InvoiceResult failed(String orderNumber, String message) {
+        return new InvoiceResult(orderNumber, FAILED, message);
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
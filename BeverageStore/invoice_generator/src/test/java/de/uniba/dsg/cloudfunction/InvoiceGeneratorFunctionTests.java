@@ -0,0 +1,225 @@
+package de.uniba.dsg.cloudfunction;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.functions.HttpRequest;
+import com.google.cloud.functions.HttpResponse;
+import de.uniba.dsg.models.Invoice;
+import de.uniba.dsg.models.InvoiceAddress;
+import de.uniba.dsg.models.InvoiceItem;
+import de.uniba.dsg.storage.LocalFileStorageWriter;
+import de.uniba.dsg.storage.StorageUpload;
+import de.uniba.dsg.storage.StorageWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InvoiceGeneratorFunctionTests {
+
+    private static final String BUCKET_NAME = "invoices";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path storageDirectory;
+
+    @Test
+    public void service_success() throws Exception {
+        InvoiceGeneratorFunction function = new InvoiceGeneratorFunction(BUCKET_NAME, new LocalFileStorageWriter(storageDirectory));
+
+        HttpResponse response = mock(HttpResponse.class);
+        StringWriter responseBody = mockResponseBody(response);
+
+        function.service(mockRequest("application/json", objectMapper.writeValueAsString(getInvoice("ORD000001", "96047"))), response);
+
+        verify(response).setStatusCode(HttpURLConnection.HTTP_OK);
+        assertEquals("Invoice successfully generated", responseBody.toString());
+
+        assertEquals(List.of("ORD000001.pdf", "ORD000001.pdf.metadata"), getStoredFileNames());
+        assertTrue(new String(Files.readAllBytes(getStoredFile("ORD000001.pdf")), StandardCharsets.ISO_8859_1).startsWith("%PDF"));
+
+        Properties metadata = new Properties();
+
+        try (InputStream inputStream = Files.newInputStream(getStoredFile("ORD000001.pdf.metadata"))) {
+            metadata.load(inputStream);
+        }
+
+        assertEquals("ORD000001", metadata.getProperty("order_number"));
+        assertEquals("customer@email.com", metadata.getProperty("email"));
+        assertEquals("Customer", metadata.getProperty("customer_name"));
+    }
+
+    @Test
+    public void service_renderFailure() throws Exception {
+        LocalFileStorageWriter localFileStorageWriter = new LocalFileStorageWriter(storageDirectory);
+
+        // the upload breaks off while the PDF is being written into it
+        StorageWriter failingStorageWriter = (bucketName, fileName, metadata) -> {
+            StorageUpload upload = localFileStorageWriter.create(bucketName, fileName, metadata);
+
+            return new StorageUpload() {
+                @Override
+                public OutputStream getOutputStream() {
+                    return new FilterOutputStream(upload.getOutputStream()) {
+                        @Override
+                        public void write(int b) throws IOException {
+                            throw new IOException("Storage is full");
+                        }
+                    };
+                }
+
+                @Override
+                public void commit() throws IOException {
+                    upload.commit();
+                }
+
+                @Override
+                public void abort() {
+                    upload.abort();
+                }
+            };
+        };
+
+        InvoiceGeneratorFunction function = new InvoiceGeneratorFunction(BUCKET_NAME, failingStorageWriter);
+
+        HttpResponse response = mock(HttpResponse.class);
+        mockResponseBody(response);
+
+        function.service(mockRequest("application/json", objectMapper.writeValueAsString(getInvoice("ORD000002", "96047"))), response);
+
+        verify(response).setStatusCode(HttpURLConnection.HTTP_INTERNAL_ERROR);
+
+        // neither the invoice nor the partially written file is left behind
+        assertEquals(List.of(), getStoredFileNames());
+    }
+
+    @Test
+    public void service_jsonArrayBatch() throws Exception {
+        InvoiceGeneratorFunction function = new InvoiceGeneratorFunction(BUCKET_NAME, new LocalFileStorageWriter(storageDirectory));
+
+        HttpResponse response = mock(HttpResponse.class);
+        StringWriter responseBody = mockResponseBody(response);
+
+        String invoices = objectMapper.writeValueAsString(List.of(
+                getInvoice("ORD000003", "96047"),
+                getInvoice("ORD000004", "invalid"),
+                getInvoice("ORD000005", "96047")
+        ));
+
+        function.service(mockRequest("application/json", invoices), response);
+
+        verify(response).setStatusCode(HttpURLConnection.HTTP_OK);
+
+        List<Map<String, Object>> results = readResults(responseBody);
+
+        assertEquals(Arrays.asList("ORD000003", "ORD000004", "ORD000005"), getValues(results, "orderNumber"));
+        assertEquals(List.of(InvoiceResult.GENERATED, InvoiceResult.FAILED, InvoiceResult.GENERATED), getValues(results, "status"));
+        assertTrue(results.get(1).get("message").toString().contains("Valid Postal Code is required."));
+
+        assertEquals(List.of("ORD000003.pdf", "ORD000003.pdf.metadata", "ORD000005.pdf", "ORD000005.pdf.metadata"), getStoredFileNames());
+    }
+
+    @Test
+    public void service_ndjsonBatch() throws Exception {
+        InvoiceGeneratorFunction function = new InvoiceGeneratorFunction(BUCKET_NAME, new LocalFileStorageWriter(storageDirectory));
+
+        HttpResponse response = mock(HttpResponse.class);
+        StringWriter responseBody = mockResponseBody(response);
+
+        String invoices = objectMapper.writeValueAsString(getInvoice("ORD000006", "96047")) + "\n" +
+                objectMapper.writeValueAsString(getInvoice("ORD000007", "invalid")) + "\n" +
+                objectMapper.writeValueAsString(getInvoice("ORD000008", "96047")) + "\n" +
+                "{\"orderNumber\":\n";
+
+        function.service(mockRequest("application/x-ndjson", invoices), response);
+
+        verify(response).setStatusCode(HttpURLConnection.HTTP_OK);
+
+        List<Map<String, Object>> results = readResults(responseBody);
+
+        // the malformed line cannot be attributed to an order
+        assertEquals(Arrays.asList("ORD000006", "ORD000007", "ORD000008", null), getValues(results, "orderNumber"));
+        assertEquals(List.of(InvoiceResult.GENERATED, InvoiceResult.FAILED, InvoiceResult.GENERATED, InvoiceResult.FAILED), getValues(results, "status"));
+
+        assertEquals(List.of("ORD000006.pdf", "ORD000006.pdf.metadata", "ORD000008.pdf", "ORD000008.pdf.metadata"), getStoredFileNames());
+    }
+
+    private HttpRequest mockRequest(String contentType, String body) throws IOException {
+        HttpRequest request = mock(HttpRequest.class);
+
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getContentType()).thenReturn(Optional.of(contentType));
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader(body)));
+
+        return request;
+    }
+
+    // written straight through, so the body can be read once the function returned
+    private StringWriter mockResponseBody(HttpResponse response) throws IOException {
+        StringWriter responseBody = new StringWriter();
+
+        when(response.getWriter()).thenReturn(new BufferedWriter(responseBody, 1));
+
+        return responseBody;
+    }
+
+    private List<Map<String, Object>> readResults(StringWriter responseBody) throws IOException {
+        return objectMapper.readValue(responseBody.toString(), new TypeReference<List<Map<String, Object>>>() {});
+    }
+
+    private List<Object> getValues(List<Map<String, Object>> results, String key) {
+        return results.stream()
+                .map(x -> x.get(key))
+                .collect(Collectors.toList());
+    }
+
+    private List<String> getStoredFileNames() throws IOException {
+        Path bucketDirectory = storageDirectory.resolve(BUCKET_NAME);
+
+        if (!Files.exists(bucketDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(bucketDirectory)) {
+            return files.map(x -> x.getFileName().toString())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path getStoredFile(String fileName) {
+        return storageDirectory.resolve(BUCKET_NAME)
+                .resolve(fileName);
+    }
+
+    private Invoice getInvoice(String orderNumber, String postalCode) {
+        InvoiceAddress address = new InvoiceAddress("Street", "1", postalCode);
+
+        return new Invoice(orderNumber, LocalDate.now(), "Customer", "customer@email.com", address, address, List.of(
+                new InvoiceItem(1, "Beverage", "BOTTLE", 2, 1.5)
+        ));
+    }
+}
@@ -0,0 +1,57 @@
+package de.uniba.dsg.cloudfunction;
+
+import de.uniba.dsg.models.Invoice;
+import de.uniba.dsg.models.InvoiceAddress;
+import de.uniba.dsg.models.InvoiceItem;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvoiceGeneratorTests {
+
+    @Test
+    public void generate_success() throws Exception {
+        InvoiceGenerator invoiceGenerator = new InvoiceGenerator("invoice_template", 1);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        invoiceGenerator.generate(getInvoice("ORD000001"), outputStream);
+
+        assertTrue(outputStream.toString(StandardCharsets.ISO_8859_1).startsWith("%PDF"));
+    }
+
+    @Test
+    public void generate_errorKeepsRendererPool() throws Exception {
+        InvoiceGenerator invoiceGenerator = new InvoiceGenerator("invoice_template", 1);
+
+        OutputStream failingStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                throw new StackOverflowError();
+            }
+        };
+
+        assertThrows(StackOverflowError.class, () -> invoiceGenerator.generate(getInvoice("ORD000002"), failingStream));
+
+        // the only renderer was lost with the error, the next invoice would otherwise wait for one forever
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> invoiceGenerator.generate(getInvoice("ORD000003"), outputStream));
+        assertTrue(outputStream.toString(StandardCharsets.ISO_8859_1).startsWith("%PDF"));
+    }
+
+    private Invoice getInvoice(String orderNumber) {
+        InvoiceAddress address = new InvoiceAddress("Street", "1", "96047");
+
+        return new Invoice(orderNumber, LocalDate.now(), "Customer", "customer@email.com", address, address, List.of(
+                new InvoiceItem(1, "Beverage", "BOTTLE", 2, 1.5)
+        ));
+    }
+}
@@ -0,0 +1,63 @@
+package de.uniba.dsg.storage;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageOptions;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.Map;
+
+public class GoogleCloudStorageWriter implements StorageWriter {
+    // the smallest chunk a resumable upload accepts, so an upload never buffers more than this
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private final Storage storage;
+
+    public GoogleCloudStorageWriter() {
+        storage = StorageOptions.getDefaultInstance()
+                .getService();
+    }
+
+    @Override
+    public StorageUpload create(String bucketName, String fileName, Map<String, String> metadata) {
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, fileName))
+                .setMetadata(metadata)
+                .build();
+
+        WriteChannel channel = storage.writer(blobInfo);
+        channel.setChunkSize(CHUNK_SIZE);
+
+        return new GoogleCloudStorageUpload(channel);
+    }
+
+    private static class GoogleCloudStorageUpload implements StorageUpload {
+        private final WriteChannel channel;
+        private final OutputStream outputStream;
+
+        public GoogleCloudStorageUpload(WriteChannel channel) {
+            this.channel = channel;
+
+            outputStream = new UncloseableOutputStream(Channels.newOutputStream(channel));
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        // closing the channel uploads the last chunk and finalizes the object
+        @Override
+        public void commit() throws IOException {
+            channel.close();
+        }
+
+        // a resumable upload that is never finalized creates no object and expires on its own
+        @Override
+        public void abort() {
+        }
+    }
+}
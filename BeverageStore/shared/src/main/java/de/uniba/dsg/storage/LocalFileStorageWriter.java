@@ -0,0 +1,82 @@
+package de.uniba.dsg.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+
+// stores every bucket as a directory below the root, the metadata is written next to the file as <file name>.metadata
+public class LocalFileStorageWriter implements StorageWriter {
+
+    private final Path rootDirectory;
+
+    public LocalFileStorageWriter(Path rootDirectory) {
+        this.rootDirectory = rootDirectory;
+    }
+
+    @Override
+    public StorageUpload create(String bucketName, String fileName, Map<String, String> metadata) throws IOException {
+        Path bucketDirectory = Files.createDirectories(rootDirectory.resolve(bucketName));
+
+        return new LocalFileUpload(bucketDirectory.resolve(fileName), Files.createTempFile(bucketDirectory, fileName, ".part"), metadata);
+    }
+
+    private static class LocalFileUpload implements StorageUpload {
+        private final Path file;
+        private final Path partFile;
+        private final Map<String, String> metadata;
+        private final OutputStream fileStream;
+        private final OutputStream outputStream;
+
+        public LocalFileUpload(Path file, Path partFile, Map<String, String> metadata) throws IOException {
+            this.file = file;
+            this.partFile = partFile;
+            this.metadata = metadata;
+
+            fileStream = new BufferedOutputStream(Files.newOutputStream(partFile));
+            outputStream = new UncloseableOutputStream(fileStream);
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public void commit() throws IOException {
+            try {
+                fileStream.close();
+
+                Properties properties = new Properties();
+                properties.putAll(metadata);
+
+                try (OutputStream metadataStream = Files.newOutputStream(file.resolveSibling(file.getFileName() + ".metadata"))) {
+                    properties.store(metadataStream, null);
+                }
+
+                Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                abort();
+
+                throw ex;
+            }
+        }
+
+        @Override
+        public void abort() {
+            try {
+                fileStream.close();
+            } catch (IOException ignored) {
+            }
+
+            try {
+                Files.deleteIfExists(partFile);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package de.uniba.dsg.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// the file only becomes visible on commit, an aborted upload never leaves a partial file behind
+public interface StorageUpload {
+    OutputStream getOutputStream();
+
+    void commit() throws IOException;
+
+    void abort();
+}
@@ -0,0 +1,8 @@
+package de.uniba.dsg.storage;
+
+import java.io.IOException;
+import java.util.Map;
+
+public interface StorageWriter {
+    StorageUpload create(String bucketName, String fileName, Map<String, String> metadata) throws IOException;
+}
@@ -0,0 +1,23 @@
+package de.uniba.dsg.storage;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// writers such as the PDF renderer close the stream they are given, closing is left to commit instead
+class UncloseableOutputStream extends FilterOutputStream {
+
+    UncloseableOutputStream(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
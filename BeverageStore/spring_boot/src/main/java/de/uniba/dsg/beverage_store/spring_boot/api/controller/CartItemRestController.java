@@ -12,6 +12,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.annotation.Resource;
 import javax.validation.Valid;
@@ -25,7 +26,13 @@ public class CartItemRestController {
     CartService cartService;
 
     @GetMapping(value = "/count")
-    public ResponseEntity<Integer> getCount() {
+    public ResponseEntity<Integer> getCount(ServletWebRequest request) {
+        if (Helper.isNotModified(request, "cart-count", cartService.getReservationHolderId(), cartService.getRevision())) {
+            log.info("Retrieving cart item count - completed, not modified");
+
+            return null;
+        }
+
         log.info("Retrieving cart item count - start");
 
         int cartItemCount = cartService.getCartItemCount();
@@ -36,7 +43,13 @@ public class CartItemRestController {
     }
 
     @GetMapping(value = "/total-price")
-    public ResponseEntity<Double> getTotalPrice() {
+    public ResponseEntity<Double> getTotalPrice(ServletWebRequest request) {
+        if (Helper.isNotModified(request, "cart-total", cartService.getReservationHolderId(), cartService.getRevision())) {
+            log.info("Retrieving cart item total - completed, not modified");
+
+            return null;
+        }
+
         log.info("Retrieving cart item total - start");
 
         double cartTotal = cartService.getCartTotal();
@@ -0,0 +1,97 @@
+package de.uniba.dsg.beverage_store.spring_boot.api.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogImportResult;
+import de.uniba.dsg.beverage_store.spring_boot.model.ImportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/catalog/import")
+public class CatalogImportRestController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final CatalogImportService catalogImportService;
+
+    @Autowired
+    public CatalogImportRestController(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    @PostMapping(value = "/bottles", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importBottles(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream inputStream) {
+        log.info("Importing bottles - start");
+
+        try {
+            CatalogImportResult result = catalogImportService.importBottles(inputStream, getImportFormat(contentType));
+
+            log.info("Importing bottles - completed, " + result.getFailedRows() + " of " + result.getTotalRows() + " rows failed");
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(result);
+        } catch (IOException e) {
+            log.info("Importing bottles - failed, found unreadable upload");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Upload could not be read.");
+        }
+    }
+
+    @PostMapping(value = "/crates", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importCrates(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream inputStream) {
+        log.info("Importing crates - start");
+
+        try {
+            CatalogImportResult result = catalogImportService.importCrates(inputStream, getImportFormat(contentType));
+
+            log.info("Importing crates - completed, " + result.getFailedRows() + " of " + result.getTotalRows() + " rows failed");
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(result);
+        } catch (IOException e) {
+            log.info("Importing crates - failed, found unreadable upload");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Upload could not be read.");
+        }
+    }
+
+    @PostMapping(value = "/stock", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importStock(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream inputStream) {
+        log.info("Importing stock - start");
+
+        try {
+            CatalogImportResult result = catalogImportService.importStock(inputStream, getImportFormat(contentType));
+
+            log.info("Importing stock - completed, " + result.getFailedRows() + " of " + result.getTotalRows() + " rows failed");
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(result);
+        } catch (IOException e) {
+            log.info("Importing stock - failed, found unreadable upload");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Upload could not be read.");
+        }
+    }
+
+    private ImportFormat getImportFormat(String contentType) {
+        return MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                ? ImportFormat.NDJSON
+                : ImportFormat.CSV;
+    }
+}
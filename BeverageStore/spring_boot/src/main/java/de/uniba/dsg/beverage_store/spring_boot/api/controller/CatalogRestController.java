@@ -0,0 +1,74 @@
+package de.uniba.dsg.beverage_store.spring_boot.api.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSearchHit;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSuggestion;
+import de.uniba.dsg.beverage_store.spring_boot.properties.SearchProperties;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogAutocompleteService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/catalog")
+public class CatalogRestController {
+
+    private final CatalogSearchService catalogSearchService;
+    private final CatalogAutocompleteService catalogAutocompleteService;
+
+    private final SearchProperties searchProperties;
+
+    @Autowired
+    public CatalogRestController(CatalogSearchService catalogSearchService,
+                                 CatalogAutocompleteService catalogAutocompleteService,
+                                 SearchProperties searchProperties) {
+        this.catalogSearchService = catalogSearchService;
+        this.catalogAutocompleteService = catalogAutocompleteService;
+
+        this.searchProperties = searchProperties;
+    }
+
+    @GetMapping(value = "/search")
+    public ResponseEntity<?> search(@RequestParam(defaultValue = "") String q, @RequestParam(required = false) BeverageType type, @RequestParam(required = false) Integer limit) {
+        log.info("Searching catalog with query: " + q + " - start");
+
+        if (q.isBlank()) {
+            log.info("Searching catalog with query: " + q + " - failed, found empty query");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Search query is required.");
+        }
+
+        int resultLimit = limit == null || limit <= 0
+                ? searchProperties.getResultLimit()
+                : Math.min(limit, searchProperties.getResultLimit());
+
+        List<CatalogSearchHit> hits = catalogSearchService.search(q, type, resultLimit);
+
+        log.info("Searching catalog with query: " + q + " - completed");
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(hits);
+    }
+
+    @GetMapping(value = "/autocomplete")
+    public ResponseEntity<?> autocomplete(@RequestParam(defaultValue = "") String q, @RequestParam(required = false) BeverageType type, @RequestParam(required = false) Integer limit) {
+        int suggestionLimit = limit == null || limit <= 0
+                ? searchProperties.getSuggestionLimit()
+                : Math.min(limit, searchProperties.getSuggestionLimit());
+
+        List<CatalogSuggestion> suggestions = catalogAutocompleteService.suggest(q, type, suggestionLimit);
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(suggestions);
+    }
+}
@@ -0,0 +1,52 @@
+package de.uniba.dsg.beverage_store.spring_boot.api.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
+import de.uniba.dsg.beverage_store.spring_boot.properties.CustomerProperties;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/customers")
+public class CustomerOrderRestController {
+
+    private final OrderService orderService;
+
+    private final CustomerProperties customerProperties;
+
+    @Autowired
+    public CustomerOrderRestController(OrderService orderService,
+                                       CustomerProperties customerProperties) {
+        this.orderService = orderService;
+
+        this.customerProperties = customerProperties;
+    }
+
+    @GetMapping(value = "/{username}/orders")
+    public ResponseEntity<?> getOrderHistory(@PathVariable("username") String username, @RequestParam(required = false) String cursor) {
+        log.info("Retrieving order history of customer: " + username + " with cursor: " + cursor + " - start");
+
+        try {
+            CursorPage<OrderSummary> orderPage = orderService.getOrderHistoryByUsername(username, cursor, customerProperties.getOrderHistoryPageSize());
+
+            log.info("Retrieving order history of customer: " + username + " with cursor: " + cursor + " - completed");
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(orderPage);
+        } catch (IllegalArgumentException ex) {
+            log.info("Retrieving order history of customer: " + username + " with cursor: " + cursor + " - failed, found invalid cursor");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid cursor.");
+        }
+    }
+}
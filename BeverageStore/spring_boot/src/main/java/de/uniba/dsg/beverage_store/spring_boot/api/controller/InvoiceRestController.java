@@ -2,8 +2,8 @@ package de.uniba.dsg.beverage_store.spring_boot.api.controller;
 
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
 import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderAggregate;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
-import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrderItem;
 import de.uniba.dsg.beverage_store.spring_boot.service.InvoiceService;
 import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
 import de.uniba.dsg.models.Invoice;
@@ -16,7 +16,6 @@ import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @Slf4j
 @RestController
@@ -62,10 +61,10 @@ public class InvoiceRestController {
         log.info("Generating invoice of the Order with with Order number: " + orderNumber + " - start");
 
         try {
-            BeverageOrder order = orderService.getOrderByOrderNumber(orderNumber);
-            List<BeverageOrderItem> orderItems = orderService.getOrderItemsByOrderNumber(orderNumber);
+            OrderAggregate orderAggregate = orderService.getOrderAggregate(orderNumber);
+            BeverageOrder order = orderAggregate.getOrder();
 
-            Invoice invoice = Helper.constructOrderInvoice(order, order.getUser(), order.getDeliveryAddress(), order.getBillingAddress(), orderItems);
+            Invoice invoice = Helper.constructOrderInvoice(order, order.getUser(), order.getDeliveryAddress(), order.getBillingAddress(), orderAggregate.getOrderItems());
 
             invoiceService.generateInvoice(invoice);
 
@@ -0,0 +1,61 @@
+package de.uniba.dsg.beverage_store.spring_boot.api.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.ExportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/orders")
+public class OrderExportRestController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final OrderExportService orderExportService;
+
+    @Autowired
+    public OrderExportRestController(OrderExportService orderExportService) {
+        this.orderExportService = orderExportService;
+    }
+
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        if (from.isAfter(to)) {
+            log.info("Exporting orders from " + from + " to " + to + " - failed, found invalid date range");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(outputStream -> outputStream.write("Start date must not be after the end date.".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            log.info("Exporting orders from " + from + " to " + to + " - start");
+
+            long rowCount = orderExportService.exportOrders(from, to, format, outputStream);
+
+            log.info("Exporting orders from " + from + " to " + to + " - completed, " + rowCount + " rows written");
+        };
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(format == ExportFormat.CSV ? TEXT_CSV_VALUE : APPLICATION_NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders-" + from + "-" + to + "." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,35 @@
+package de.uniba.dsg.beverage_store.spring_boot.api.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.service.SalesRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/reports")
+public class ReportRestController {
+
+    private final SalesRollupService salesRollupService;
+
+    @Autowired
+    public ReportRestController(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    @PostMapping(value = "/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups() {
+        log.info("Rebuilding sales rollups - start");
+
+        salesRollupService.rebuild();
+
+        log.info("Rebuilding sales rollups - completed");
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .body("Sales rollups successfully rebuilt.");
+    }
+}
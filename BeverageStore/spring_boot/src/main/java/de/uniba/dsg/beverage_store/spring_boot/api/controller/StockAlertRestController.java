@@ -0,0 +1,47 @@
+package de.uniba.dsg.beverage_store.spring_boot.api.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.StockAlert;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockAlertService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/stock/alerts")
+public class StockAlertRestController {
+
+    private final StockAlertService stockAlertService;
+
+    @Autowired
+    public StockAlertRestController(StockAlertService stockAlertService) {
+        this.stockAlertService = stockAlertService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StockAlert>> getAlerts() {
+        log.info("Retrieving stock alerts - start");
+
+        List<StockAlert> alerts = stockAlertService.getRecentAlerts();
+
+        log.info("Retrieving stock alerts - completed");
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(alerts);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        log.info("Subscribing to stock alerts - completed");
+
+        return stockAlertService.subscribe();
+    }
+}
@@ -0,0 +1,65 @@
+package de.uniba.dsg.beverage_store.spring_boot.api.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BatchStockAdjustmentDTO;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/stock")
+public class StockRestController {
+
+    private final StockService stockService;
+
+    @Autowired
+    public StockRestController(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    @PatchMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> adjustStock(@RequestBody @Valid BatchStockAdjustmentDTO request, Errors errors) {
+        log.info("Adjusting stock in batch - start");
+
+        if (errors.hasErrors()) {
+            log.info("Adjusting stock in batch - failed, found model error");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Helper.constructErrorMessage(errors.getAllErrors()));
+        }
+
+        try {
+            List<StockLevel> stockLevels = stockService.adjustStock(request.getAdjustments());
+
+            log.info("Adjusting stock in batch - completed");
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(stockLevels);
+        } catch (NotFoundException e) {
+            log.info("Adjusting stock in batch - failed, found not found exception");
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(e.getMessage());
+        } catch (InsufficientStockException e) {
+            log.info("Adjusting stock in batch - failed, found insufficient stock exception");
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+}
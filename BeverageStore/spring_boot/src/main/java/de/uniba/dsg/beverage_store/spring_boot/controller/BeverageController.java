@@ -1,11 +1,14 @@
 package de.uniba.dsg.beverage_store.spring_boot.controller;
 
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
 import de.uniba.dsg.beverage_store.spring_boot.model.DropdownListItem;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.*;
 import de.uniba.dsg.beverage_store.spring_boot.properties.BottleProperties;
 import de.uniba.dsg.beverage_store.spring_boot.properties.CrateProperties;
+import de.uniba.dsg.beverage_store.spring_boot.properties.SearchProperties;
 import de.uniba.dsg.beverage_store.spring_boot.service.BeverageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +17,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -28,20 +32,37 @@ public class BeverageController {
 
     private final CrateProperties crateProperties;
     private final BottleProperties bottleProperties;
+    private final SearchProperties searchProperties;
 
     @Autowired
     public BeverageController(
             BeverageService beverageService,
             CrateProperties crateProperties,
-            BottleProperties bottleProperties) {
+            BottleProperties bottleProperties,
+            SearchProperties searchProperties) {
         this.beverageService = beverageService;
 
         this.crateProperties = crateProperties;
         this.bottleProperties = bottleProperties;
+        this.searchProperties = searchProperties;
     }
 
     @GetMapping(value = "/bottle")
-    public String getBottles(@RequestParam(defaultValue = "1") int page, Model model) {
+    public String getBottles(@RequestParam(defaultValue = "1") int page, @RequestParam(required = false) String cursor, @RequestParam(required = false) String q, Model model, ServletWebRequest request) {
+        if (Helper.isNotModified(request, "bottle", page, cursor, q, beverageService.getAllowedStockVersion())) {
+            log.info("Retrieving bottle page: " + page + " - completed, not modified");
+
+            return null;
+        }
+
+        if (q != null && !q.isBlank()) {
+            return getBottlesBySearch(q, model);
+        }
+
+        if (cursor != null) {
+            return getBottlesByCursor(cursor, model);
+        }
+
         log.info("Retrieving bottle page: " + page + " - start");
 
         Page<Bottle> bottlePage = beverageService.getPagedBottlesWithAllowedStock(page, bottleProperties.getPageSize());
@@ -152,7 +173,21 @@ public class BeverageController {
     }
 
     @GetMapping(value = "/crate")
-    public String getCrates(@RequestParam(defaultValue = "1") int page, Model model) {
+    public String getCrates(@RequestParam(defaultValue = "1") int page, @RequestParam(required = false) String cursor, @RequestParam(required = false) String q, Model model, ServletWebRequest request) {
+        if (Helper.isNotModified(request, "crate", page, cursor, q, beverageService.getAllowedStockVersion())) {
+            log.info("Retrieving crate page: " + page + " - completed, not modified");
+
+            return null;
+        }
+
+        if (q != null && !q.isBlank()) {
+            return getCratesBySearch(q, model);
+        }
+
+        if (cursor != null) {
+            return getCratesByCursor(cursor, model);
+        }
+
         log.info("Retrieving crate page: " + page + " - start");
 
         Page<Crate> cratePage = beverageService.getPagedCratesWithAllowedStock(page, crateProperties.getPageSize());
@@ -267,6 +302,80 @@ public class BeverageController {
         return "redirect:/beverage/crate";
     }
 
+    private String getBottlesBySearch(String query, Model model) {
+        log.info("Searching bottles with query: " + query + " - start");
+
+        List<Bottle> bottles = beverageService.searchBottlesWithAllowedStock(query, searchProperties.getResultLimit());
+
+        model.addAttribute("bottles", bottles);
+        model.addAttribute("isSearchMode", true);
+        model.addAttribute("searchQuery", query);
+
+        log.info("Searching bottles with query: " + query + " - completed");
+
+        return "beverage/bottle/list";
+    }
+
+    private String getBottlesByCursor(String cursor, Model model) {
+        log.info("Retrieving bottle page with cursor: " + cursor + " - start");
+
+        CursorPage<Bottle> bottlePage;
+
+        try {
+            bottlePage = beverageService.getBottleCursorPageWithAllowedStock(cursor, bottleProperties.getPageSize());
+        } catch (IllegalArgumentException ex) {
+            log.info("Retrieving bottle page with cursor: " + cursor + " - invalid cursor, retrieving first page");
+
+            bottlePage = beverageService.getBottleCursorPageWithAllowedStock(null, bottleProperties.getPageSize());
+        }
+
+        model.addAttribute("bottles", bottlePage.getContent());
+        model.addAttribute("isCursorMode", true);
+        model.addAttribute("previousCursor", bottlePage.getPreviousCursor());
+        model.addAttribute("nextCursor", bottlePage.getNextCursor());
+
+        log.info("Retrieving bottle page with cursor: " + cursor + " - completed");
+
+        return "beverage/bottle/list";
+    }
+
+    private String getCratesBySearch(String query, Model model) {
+        log.info("Searching crates with query: " + query + " - start");
+
+        List<Crate> crates = beverageService.searchCratesWithAllowedStock(query, searchProperties.getResultLimit());
+
+        model.addAttribute("crates", crates);
+        model.addAttribute("isSearchMode", true);
+        model.addAttribute("searchQuery", query);
+
+        log.info("Searching crates with query: " + query + " - completed");
+
+        return "beverage/crate/list";
+    }
+
+    private String getCratesByCursor(String cursor, Model model) {
+        log.info("Retrieving crate page with cursor: " + cursor + " - start");
+
+        CursorPage<Crate> cratePage;
+
+        try {
+            cratePage = beverageService.getCrateCursorPageWithAllowedStock(cursor, crateProperties.getPageSize());
+        } catch (IllegalArgumentException ex) {
+            log.info("Retrieving crate page with cursor: " + cursor + " - invalid cursor, retrieving first page");
+
+            cratePage = beverageService.getCrateCursorPageWithAllowedStock(null, crateProperties.getPageSize());
+        }
+
+        model.addAttribute("crates", cratePage.getContent());
+        model.addAttribute("isCursorMode", true);
+        model.addAttribute("previousCursor", cratePage.getPreviousCursor());
+        model.addAttribute("nextCursor", cratePage.getNextCursor());
+
+        log.info("Retrieving crate page with cursor: " + cursor + " - completed");
+
+        return "beverage/crate/list";
+    }
+
     private List<DropdownListItem<Long>> getBottleDropdownList() {
         return beverageService.getBottles()
                 .stream()
@@ -1,13 +1,16 @@
 package de.uniba.dsg.beverage_store.spring_boot.controller;
 
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.InvalidOperationException;
 import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
 import de.uniba.dsg.beverage_store.spring_boot.model.DropdownListItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockShortage;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Address;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.SubmitOrderDTO;
 import de.uniba.dsg.beverage_store.spring_boot.service.AddressService;
 import de.uniba.dsg.beverage_store.spring_boot.service.CartService;
-import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CheckoutService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -19,7 +22,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import javax.annotation.Resource;
 import javax.validation.Valid;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,20 +33,22 @@ import java.util.stream.Collectors;
 public class CartController {
 
     private final AddressService addressService;
-    private final OrderService orderService;
+    private final CheckoutService checkoutService;
 
     @Resource(name = "sessionScopedCartService")
     private CartService cartService;
 
-    public CartController(AddressService addressService, OrderService orderService) {
+    public CartController(AddressService addressService, CheckoutService checkoutService) {
         this.addressService = addressService;
-        this.orderService = orderService;
+        this.checkoutService = checkoutService;
     }
 
     @GetMapping
     public String getCart(Model model) {
         log.info("Retrieving cart items - start");
 
+        cartService.refreshReservations();
+
         model.addAttribute("cartItems", cartService.getCartItems());
         model.addAttribute("cartTotal", cartService.getCartTotal());
         model.addAttribute("cartItemCount", cartService.getCartItemCount());
@@ -55,6 +62,8 @@ public class CartController {
     public String getCheckout(Model model, Principal principal) {
         log.info("Retrieving cart details - start");
 
+        cartService.refreshReservations();
+
         model.addAttribute("cartTotal", cartService.getCartTotal());
         model.addAttribute("cartItemCount", cartService.getCartItemCount());
         model.addAttribute("isEmptyCart", (cartService.getCartItemCount() == 0));
@@ -62,7 +71,11 @@ public class CartController {
 
         log.info("Retrieving cart details - completed");
 
-        model.addAttribute("submitOrderDTO", new SubmitOrderDTO());
+        // a fresh key per rendered form, so resubmitting it replays the order instead of placing another one
+        SubmitOrderDTO submitOrderDTO = new SubmitOrderDTO();
+        submitOrderDTO.setIdempotencyKey(UUID.randomUUID().toString());
+
+        model.addAttribute("submitOrderDTO", submitOrderDTO);
 
         return "cart/checkout";
     }
@@ -72,6 +85,8 @@ public class CartController {
         log.info("Creating order - start");
 
         boolean hasModelError = false, hasServerError = false;
+        String operationError = null;
+        List<CartItem> shortCartItems = new ArrayList<>();
 
         if (errors.hasErrors()) {
             hasModelError = true;
@@ -81,11 +96,19 @@ public class CartController {
 
         if (!hasModelError) {
             try {
-                BeverageOrder order = orderService.createOrder(principal.getName(), submitOrderDTO.getDeliveryAddressId(), submitOrderDTO.getBillingAddressId());
+                BeverageOrder order = checkoutService.checkout(principal.getName(), submitOrderDTO.getDeliveryAddressId(), submitOrderDTO.getBillingAddressId(), submitOrderDTO.getIdempotencyKey());
 
                 log.info("Creating order - completed");
 
                 return "redirect:/order/" + order.getOrderNumber();
+            } catch (InsufficientStockException ex) {
+                shortCartItems = getShortCartItems(ex.getShortages());
+
+                log.info("Creating order - failed, found insufficient stock exception");
+            } catch (InvalidOperationException ex) {
+                operationError = ex.getMessage();
+
+                log.info("Creating order - failed, found invalid operation exception");
             } catch (Exception ex) {
                 hasServerError = true;
 
@@ -101,12 +124,21 @@ public class CartController {
         model.addAttribute("addressesDropdownListItems", getAddressDropdownListByUserName(principal.getName()));
 
         model.addAttribute("hasServerError", hasServerError);
+        model.addAttribute("shortCartItems", shortCartItems);
+        model.addAttribute("operationError", operationError);
 
         log.info("Retrieving cart details - completed");
 
         return "cart/checkout";
     }
 
+    private List<CartItem> getShortCartItems(List<StockShortage> shortages) {
+        return cartService.getCartItems()
+                .stream()
+                .filter(x -> shortages.stream().anyMatch(y -> y.getBeverageType() == x.getBeverageType() && y.getBeverageId() == x.getBeverageId()))
+                .collect(Collectors.toList());
+    }
+
     private List<DropdownListItem<Long>> getAddressDropdownListByUserName(String username) {
         return addressService.getAllByUsername(username)
                 .stream()
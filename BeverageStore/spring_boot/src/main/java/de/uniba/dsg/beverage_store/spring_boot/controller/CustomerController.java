@@ -1,9 +1,11 @@
 package de.uniba.dsg.beverage_store.spring_boot.controller;
 
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Address;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
-import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.CustomerSummary;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
 import de.uniba.dsg.beverage_store.spring_boot.properties.CustomerProperties;
 import de.uniba.dsg.beverage_store.spring_boot.service.AddressService;
 import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
@@ -47,7 +49,7 @@ public class CustomerController {
     public String getCustomer(@RequestParam(defaultValue = "1") int page, Model model) {
         log.info("Retrieving customer page: " + page + " - start");
 
-        Page<ApplicationUser> customerPage = userService.getPagedCustomers(page, customerProperties.getPageSize());
+        Page<CustomerSummary> customerPage = userService.getPagedCustomers(page, customerProperties.getPageSize());
 
         model.addAttribute("customers", customerPage.getContent());
         model.addAttribute("currentPage", page);
@@ -64,11 +66,12 @@ public class CustomerController {
 
         try {
             ApplicationUser customer = userService.getUserByUserName(username);
-            List<BeverageOrder> orders = orderService.getOrdersByUsername(username);
+            CursorPage<OrderSummary> orderPage = orderService.getOrderHistoryByUsername(username, null, customerProperties.getOrderHistoryPageSize());
             List<Address> addresses = addressService.getAllByUsername(username);
 
             model.addAttribute("customer", customer);
-            model.addAttribute("orders", orders);
+            model.addAttribute("orders", orderPage.getContent());
+            model.addAttribute("nextOrderCursor", orderPage.getNextCursor());
             model.addAttribute("addresses", addresses);
             model.addAttribute("customerNotFound", false);
 
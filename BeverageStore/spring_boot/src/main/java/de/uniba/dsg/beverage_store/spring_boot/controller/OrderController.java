@@ -1,9 +1,10 @@
 package de.uniba.dsg.beverage_store.spring_boot.controller;
 
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
-import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
-import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrderItem;
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderAggregate;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Role;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
 import de.uniba.dsg.beverage_store.spring_boot.properties.OrderProperties;
 import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
 import lombok.extern.slf4j.Slf4j;
@@ -17,9 +18,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.security.Principal;
-import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -42,7 +43,7 @@ public class OrderController {
 
     @GetMapping
     public String getCustomerOrders(@RequestParam(defaultValue = "1") int page, Model model, Principal principal) {
-        Page<BeverageOrder> orderPage = Page.empty();
+        Page<OrderSummary> orderPage = Page.empty();
 
         Optional<? extends GrantedAuthority> grantedAuthority = SecurityContextHolder.getContext()
                 .getAuthentication()
@@ -73,15 +74,20 @@ public class OrderController {
     }
 
     @GetMapping(value = "/{orderNumber}")
-    public String getOrder(@PathVariable("orderNumber") String orderNumber, Model model) {
+    public String getOrder(@PathVariable("orderNumber") String orderNumber, Model model, ServletWebRequest request) {
+        if (Helper.isNotModified(request, "order", orderNumber)) {
+            log.info("Retrieving order with order number: " + orderNumber + " - completed, not modified");
+
+            return null;
+        }
+
         log.info("Retrieving order with order number: " + orderNumber + " - start");
 
         try {
-            BeverageOrder order = orderService.getOrderByOrderNumber(orderNumber);
-            List<BeverageOrderItem> orderItems = orderService.getOrderItemsByOrderNumber(orderNumber);
+            OrderAggregate orderAggregate = orderService.getOrderAggregate(orderNumber);
 
-            model.addAttribute("order", order);
-            model.addAttribute("orderItems", orderItems);
+            model.addAttribute("order", orderAggregate.getOrder());
+            model.addAttribute("orderItems", orderAggregate.getOrderItems());
             model.addAttribute("orderNotFound", false);
 
             log.info("Retrieving order with order number: " + orderNumber + " - completed");
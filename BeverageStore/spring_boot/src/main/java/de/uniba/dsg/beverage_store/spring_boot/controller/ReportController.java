@@ -0,0 +1,57 @@
+package de.uniba.dsg.beverage_store.spring_boot.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.DailySalesRollup;
+import de.uniba.dsg.beverage_store.spring_boot.properties.ReportProperties;
+import de.uniba.dsg.beverage_store.spring_boot.service.SalesRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Controller
+@RequestMapping(value = "/report")
+public class ReportController {
+
+    private final SalesRollupService salesRollupService;
+
+    private final ReportProperties reportProperties;
+
+    @Autowired
+    public ReportController(SalesRollupService salesRollupService,
+                            ReportProperties reportProperties) {
+        this.salesRollupService = salesRollupService;
+
+        this.reportProperties = reportProperties;
+    }
+
+    @GetMapping
+    public String getDashboard(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               Model model) {
+        LocalDate toDate = to == null ? LocalDate.now() : to;
+        LocalDate fromDate = from == null || from.isAfter(toDate) ? toDate.minusDays(reportProperties.getDefaultRangeDays() - 1) : from;
+
+        log.info("Retrieving sales dashboard from " + fromDate + " to " + toDate + " - start");
+
+        List<DailySalesRollup> dailySales = salesRollupService.getDailySales(fromDate, toDate);
+
+        model.addAttribute("from", fromDate);
+        model.addAttribute("to", toDate);
+        model.addAttribute("dailySales", dailySales);
+        model.addAttribute("kpis", salesRollupService.getKpis(dailySales));
+        model.addAttribute("topBeverages", salesRollupService.getTopBeverages(fromDate, toDate, reportProperties.getTopLimit()));
+        model.addAttribute("topCustomers", salesRollupService.getTopCustomers(reportProperties.getTopLimit()));
+
+        log.info("Retrieving sales dashboard from " + fromDate + " to " + toDate + " - completed");
+
+        return "report/dashboard";
+    }
+}
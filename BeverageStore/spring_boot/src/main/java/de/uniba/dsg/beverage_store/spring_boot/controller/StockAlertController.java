@@ -0,0 +1,33 @@
+package de.uniba.dsg.beverage_store.spring_boot.controller;
+
+import de.uniba.dsg.beverage_store.spring_boot.service.StockAlertService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+@Slf4j
+@Controller
+@RequestMapping(value = "/alert")
+public class StockAlertController {
+
+    private final StockAlertService stockAlertService;
+
+    @Autowired
+    public StockAlertController(StockAlertService stockAlertService) {
+        this.stockAlertService = stockAlertService;
+    }
+
+    @GetMapping
+    public String getAlerts(Model model) {
+        log.info("Retrieving stock alerts - start");
+
+        model.addAttribute("alerts", stockAlertService.getRecentAlerts());
+
+        log.info("Retrieving stock alerts - completed");
+
+        return "alert/list";
+    }
+}
@@ -2,9 +2,10 @@ package de.uniba.dsg.beverage_store.spring_boot.demo;
 
 import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
 import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageType;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.*;
 import de.uniba.dsg.beverage_store.spring_boot.repository.*;
-import de.uniba.dsg.beverage_store.spring_boot.service.FireStoreService;
+import de.uniba.dsg.beverage_store.spring_boot.service.OutboxService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -21,7 +22,7 @@ import java.util.List;
 @Component
 public class DemoData {
 
-    private final FireStoreService fireStoreService;
+    private final OutboxService outboxService;
 
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
@@ -40,14 +41,14 @@ public class DemoData {
     public static List<ApplicationUser> applicationUsers = new ArrayList<>();
 
     @Autowired
-    public DemoData(FireStoreService fireStoreService,
+    public DemoData(OutboxService outboxService,
                     UserRepository userRepository,
                     OrderRepository orderRepository,
                     CrateRepository crateRepository,
                     BottleRepository bottleRepository,
                     AddressRepository addressRepository,
                     OrderItemRepository orderItemRepository) {
-        this.fireStoreService = fireStoreService;
+        this.outboxService = outboxService;
 
         this.userRepository = userRepository;
         this.orderRepository = orderRepository;
@@ -132,15 +133,16 @@ public class DemoData {
         int quantity = 2;
         double total = (bottle1.getPrice() + bottle2.getPrice() + crate1.getPrice() + crate2.getPrice()) * quantity;
 
-        BeverageOrder order = new BeverageOrder(null, null, LocalDate.now(), total, customer, deliveryAddress, billingAddress, null);
+        BeverageOrder order = new BeverageOrder(null, null, null, LocalDate.now(), total, customer, deliveryAddress, billingAddress, null, false);
         orderRepository.save(order);
+
         order.setOrderNumber(Helper.generateOrderNumber(order.getId()));
         orderRepository.save(order);
 
-        BeverageOrderItem orderItem1 = new BeverageOrderItem(null, BeverageType.BOTTLE, quantity, 1, bottle1, null, order);
-        BeverageOrderItem orderItem2 = new BeverageOrderItem(null, BeverageType.BOTTLE, quantity, 2, bottle2, null, order);
-        BeverageOrderItem orderItem3 = new BeverageOrderItem(null, BeverageType.CRATE, quantity, 3, null, crate1, order);
-        BeverageOrderItem orderItem4 = new BeverageOrderItem(null, BeverageType.CRATE, quantity, 4, null, crate2, order);
+        BeverageOrderItem orderItem1 = new BeverageOrderItem(null, BeverageType.BOTTLE, quantity, 1, bottle1.getName(), bottle1.getPrice(), bottle1, null, order);
+        BeverageOrderItem orderItem2 = new BeverageOrderItem(null, BeverageType.BOTTLE, quantity, 2, bottle2.getName(), bottle2.getPrice(), bottle2, null, order);
+        BeverageOrderItem orderItem3 = new BeverageOrderItem(null, BeverageType.CRATE, quantity, 3, crate1.getName(), crate1.getPrice(), null, crate1, order);
+        BeverageOrderItem orderItem4 = new BeverageOrderItem(null, BeverageType.CRATE, quantity, 4, crate2.getName(), crate2.getPrice(), null, crate2, order);
 
         orderItemRepository.saveAll(Arrays.asList(orderItem1, orderItem2, orderItem3, orderItem4));
 
@@ -149,6 +151,7 @@ public class DemoData {
         orders.add(order);
         orderItems.addAll(Arrays.asList(orderItem1, orderItem2, orderItem3, orderItem4));
 
-        fireStoreService.storeOrder(Helper.constructOrderInvoice(order, customer, deliveryAddress, billingAddress, Arrays.asList(orderItem1, orderItem2, orderItem3, orderItem4)));
+        outboxService.enqueue(OutboxMessageType.FIRESTORE_ORDER, order.getOrderNumber(), Helper.constructOrderInvoice(order, customer, deliveryAddress, billingAddress, Arrays.asList(orderItem1, orderItem2, orderItem3, orderItem4)));
+        outboxService.enqueue(OutboxMessageType.SALES_ROLLUP, order.getOrderNumber(), order.getOrderNumber());
     }
 }
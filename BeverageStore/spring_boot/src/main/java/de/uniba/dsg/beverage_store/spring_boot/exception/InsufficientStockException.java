@@ -1,7 +1,24 @@
 package de.uniba.dsg.beverage_store.spring_boot.exception;
 
+import de.uniba.dsg.beverage_store.spring_boot.model.StockShortage;
+
+import java.util.Collections;
+import java.util.List;
+
 public class InsufficientStockException extends Exception {
+    private final List<StockShortage> shortages;
+
     public InsufficientStockException(String msg) {
+        this(msg, Collections.emptyList());
+    }
+
+    public InsufficientStockException(String msg, List<StockShortage> shortages) {
         super(msg);
+
+        this.shortages = shortages;
+    }
+
+    public List<StockShortage> getShortages() {
+        return shortages;
     }
 }
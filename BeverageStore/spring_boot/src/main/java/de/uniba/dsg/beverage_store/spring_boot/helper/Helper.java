@@ -8,12 +8,22 @@ import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrderItem;
 import de.uniba.dsg.models.Invoice;
 import de.uniba.dsg.models.InvoiceAddress;
 import de.uniba.dsg.models.InvoiceItem;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.ObjectError;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import javax.servlet.http.HttpSession;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Helper {
     public static String generateOrderNumber(Long orderId) {
@@ -26,6 +36,25 @@ public class Helper {
         return new BCryptPasswordEncoder().encode(password);
     }
 
+    // sets a weak ETag built from the given version parts, the user and the session, true when the client copy is still current
+    public static boolean isNotModified(ServletWebRequest request, Object... versionParts) {
+        HttpSession session = request.getRequest().getSession(false);
+        Principal principal = request.getUserPrincipal();
+
+        String version = Stream.concat(Arrays.stream(versionParts), Stream.of(
+                principal == null ? null : principal.getName(),
+                session == null ? null : session.getId()
+        ))
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+
+        return request.checkNotModified("W/\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"");
+    }
+
     public static String constructErrorMessage(List<ObjectError> errors) {
         return errors
                 .stream()
@@ -52,17 +81,56 @@ public class Helper {
                 orderItems.stream()
                         .map(x -> new InvoiceItem(
                                 x.getPosition(),
-                                x.getBeverageType() == BeverageType.BOTTLE
-                                        ? x.getBottle().getName()
-                                        : x.getCrate().getName(),
+                                x.getName(),
                                 x.getBeverageType().name(),
                                 x.getQuantity(),
-                                x.getBeverageType() == BeverageType.BOTTLE
-                                        ? x.getBottle().getPrice()
-                                        : x.getCrate().getPrice()
-
+                                x.getPrice()
                         ))
                         .collect(Collectors.toList())
         );
     }
+
+    public static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean isQuoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char character = line.charAt(i);
+
+            if (isQuoted) {
+                if (character == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (character == '"') {
+                    isQuoted = false;
+                } else {
+                    value.append(character);
+                }
+            } else if (character == '"') {
+                isQuoted = true;
+            } else if (character == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(character);
+            }
+        }
+
+        values.add(value.toString().trim());
+
+        return values;
+    }
+
+    public static String formatCsvLine(List<?> values) {
+        return values.stream()
+                .map(x -> {
+                    String value = x == null ? "" : x.toString();
+
+                    return value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")
+                            ? "\"" + value.replace("\"", "\"\"") + "\""
+                            : value;
+                })
+                .collect(Collectors.joining(","));
+    }
 }
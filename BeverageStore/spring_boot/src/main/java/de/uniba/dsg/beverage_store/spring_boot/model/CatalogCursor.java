@@ -0,0 +1,51 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Beverage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class CatalogCursor {
+    private final boolean before;
+    private final String name;
+    private final long id;
+
+    public static CatalogCursor after(Beverage beverage) {
+        return new CatalogCursor(false, beverage.getName(), beverage.getId());
+    }
+
+    public static CatalogCursor before(Beverage beverage) {
+        return new CatalogCursor(true, beverage.getName(), beverage.getId());
+    }
+
+    public static CatalogCursor decode(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(":", 3);
+
+        if (parts.length != 3 || !(parts[0].equals("a") || parts[0].equals("b"))) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        return new CatalogCursor(parts[0].equals("b"), parts[2], Long.parseLong(parts[1]));
+    }
+
+    public String encode() {
+        String value = (before ? "b" : "a") + ":" + id + ":" + name;
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int compareTo(Beverage beverage) {
+        int result = name.compareTo(beverage.getName());
+
+        return result != 0
+                ? result
+                : Long.compare(id, beverage.getId());
+    }
+}
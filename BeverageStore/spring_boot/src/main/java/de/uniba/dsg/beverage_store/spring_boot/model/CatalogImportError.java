@@ -0,0 +1,11 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CatalogImportError {
+    private final long line;
+    private final String message;
+}
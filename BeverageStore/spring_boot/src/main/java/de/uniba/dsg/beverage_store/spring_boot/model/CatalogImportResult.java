@@ -0,0 +1,58 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class CatalogImportResult {
+    private long totalRows;
+    private long insertedRows;
+    private long updatedRows;
+    private long skippedRows;
+    private long failedRows;
+    private final List<CatalogImportError> errors;
+
+    @JsonIgnore
+    private final int maxReportedErrors;
+
+    public CatalogImportResult(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+
+        errors = new ArrayList<>();
+    }
+
+    public void addRow() {
+        totalRows++;
+    }
+
+    public void addInserted() {
+        insertedRows++;
+    }
+
+    public void addUpdated() {
+        updatedRows++;
+    }
+
+    public void addSkipped() {
+        skippedRows++;
+    }
+
+    public void addError(long line, String message) {
+        failedRows++;
+
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new CatalogImportError(line, message));
+        }
+    }
+
+    public void merge(CatalogImportResult chunkResult) {
+        insertedRows += chunkResult.insertedRows;
+        updatedRows += chunkResult.updatedRows;
+        skippedRows += chunkResult.skippedRows;
+
+        chunkResult.errors.forEach(x -> addError(x.getLine(), x.getMessage()));
+    }
+}
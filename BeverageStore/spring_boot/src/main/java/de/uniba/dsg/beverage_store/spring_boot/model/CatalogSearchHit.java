@@ -0,0 +1,16 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CatalogSearchHit {
+    private final BeverageType beverageType;
+    private final long beverageId;
+    private final String name;
+    private final String picUrl;
+    private final double price;
+    private final int inStock;
+    private final double score;
+}
@@ -0,0 +1,43 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Getter
+public class CatalogSnapshot {
+    private final long revision;
+    // only changes when the catalog is reloaded, stock patches keep it, so indexes over names can be reused
+    private final long contentRevision;
+    private final List<Bottle> bottles;
+    private final List<Crate> crates;
+    private final Map<Long, Bottle> bottlesById;
+    private final Map<Long, Crate> cratesById;
+    private final Map<Long, Integer> bottlePositions;
+    private final Map<Long, Integer> cratePositions;
+
+    public CatalogSnapshot(long revision, long contentRevision, List<Bottle> bottles, List<Crate> crates) {
+        this.revision = revision;
+        this.contentRevision = contentRevision;
+        this.bottles = bottles;
+        this.crates = crates;
+
+        bottlesById = bottles.stream()
+                .collect(Collectors.toUnmodifiableMap(Bottle::getId, Function.identity()));
+        cratesById = crates.stream()
+                .collect(Collectors.toUnmodifiableMap(Crate::getId, Function.identity()));
+
+        bottlePositions = IntStream.range(0, bottles.size())
+                .boxed()
+                .collect(Collectors.toUnmodifiableMap(x -> bottles.get(x).getId(), Function.identity()));
+        cratePositions = IntStream.range(0, crates.size())
+                .boxed()
+                .collect(Collectors.toUnmodifiableMap(x -> crates.get(x).getId(), Function.identity()));
+    }
+}
@@ -0,0 +1,14 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CatalogSuggestion {
+    private final BeverageType beverageType;
+    private final long beverageId;
+    private final String name;
+    private final int inStock;
+    private final long popularity;
+}
@@ -0,0 +1,14 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String previousCursor;
+    private final String nextCursor;
+}
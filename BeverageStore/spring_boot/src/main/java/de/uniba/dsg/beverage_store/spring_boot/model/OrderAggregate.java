@@ -0,0 +1,18 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrderItem;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class OrderAggregate {
+    private final BeverageOrder order;
+    private final List<BeverageOrderItem> orderItems;
+
+    public OrderAggregate(BeverageOrder order, List<BeverageOrderItem> orderItems) {
+        this.order = order;
+        this.orderItems = List.copyOf(orderItems);
+    }
+}
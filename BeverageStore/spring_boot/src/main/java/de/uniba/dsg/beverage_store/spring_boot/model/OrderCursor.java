@@ -0,0 +1,45 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// order numbers stop sorting by age once the id outgrows its five digits, so the cursor seeks on date and id instead
+@Getter
+@AllArgsConstructor
+public class OrderCursor {
+    private final LocalDate date;
+    private final long id;
+
+    public static OrderCursor after(OrderSummary order) {
+        return new OrderCursor(order.getDate(), order.getId());
+    }
+
+    public static OrderCursor decode(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(":", 3);
+
+        if (parts.length != 3 || !parts[0].equals("o")) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        try {
+            return new OrderCursor(LocalDate.parse(parts[2]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    public String encode() {
+        String value = "o:" + id + ":" + date;
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
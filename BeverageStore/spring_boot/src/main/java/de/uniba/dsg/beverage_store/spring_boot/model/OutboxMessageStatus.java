@@ -0,0 +1,5 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+public enum OutboxMessageStatus {
+    PENDING, DELIVERED, FAILED
+}
@@ -0,0 +1,18 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SalesKpis {
+    private final long orderCount;
+    private final long unitCount;
+    private final double revenue;
+
+    public double getAverageOrderValue() {
+        return orderCount == 0
+                ? 0
+                : revenue / orderCount;
+    }
+}
@@ -0,0 +1,17 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class StockAlert {
+    private final StockAlertLevel level;
+    private final BeverageType beverageType;
+    private final long beverageId;
+    private final String name;
+    private final int inStock;
+    private final LocalDateTime raisedAt;
+}
@@ -0,0 +1,13 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StockLevel {
+    private final BeverageType beverageType;
+    private final long beverageId;
+    private final String name;
+    private final int inStock;
+}
@@ -0,0 +1,13 @@
+package de.uniba.dsg.beverage_store.spring_boot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StockShortage {
+    private final BeverageType beverageType;
+    private final long beverageId;
+    private final int requestedQuantity;
+    private final int inStock;
+}
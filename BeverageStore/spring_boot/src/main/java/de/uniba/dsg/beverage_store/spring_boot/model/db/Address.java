@@ -5,6 +5,7 @@ import de.uniba.dsg.beverage_store.spring_boot.model.DropdownListItem;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
@@ -18,7 +19,8 @@ import java.util.Set;
 @Entity
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_sequence")
+    @GenericGenerator(name = "address_sequence", strategy = PooledSequenceGenerator.NAME)
     private Long id;
 
     @NotNull(message = "Name is required.")
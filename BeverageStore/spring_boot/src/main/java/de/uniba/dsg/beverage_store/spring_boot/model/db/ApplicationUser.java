@@ -5,6 +5,7 @@ import de.uniba.dsg.validation.annotation.LaterThanOrEqualTo;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -29,7 +30,8 @@ import java.util.Set;
 })
 public class ApplicationUser implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "application_user_sequence")
+    @GenericGenerator(name = "application_user_sequence", strategy = PooledSequenceGenerator.NAME)
     private Long id;
 
     @NotNull(message = "Username is required.")
@@ -0,0 +1,38 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(columnList = "orderNumber", unique = true),
+        @Index(columnList = "username, orderNumber"),
+        @Index(columnList = "username, date, id"),
+        @Index(columnList = "date, orderNumber")
+})
+public class ArchivedOrder {
+    @Id
+    private Long id;
+
+    private String orderNumber;
+
+    private LocalDate date;
+
+    private double price;
+
+    private String username;
+
+    private Long deliveryAddressId;
+
+    private Long billingAddressId;
+}
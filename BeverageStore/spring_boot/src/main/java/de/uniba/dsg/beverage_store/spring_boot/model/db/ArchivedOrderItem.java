@@ -0,0 +1,40 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(columnList = "orderNumber, position")
+})
+public class ArchivedOrderItem {
+    @Id
+    private Long id;
+
+    private String orderNumber;
+
+    private int position;
+
+    @Enumerated(EnumType.STRING)
+    private BeverageType beverageType;
+
+    private Long beverageId;
+
+    private String name;
+
+    private int quantity;
+
+    private double price;
+}
@@ -4,6 +4,7 @@ import de.uniba.dsg.validation.annotation.MoreThanZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.Min;
@@ -16,8 +17,10 @@ import javax.validation.constraints.Pattern;
 @AllArgsConstructor
 @MappedSuperclass
 public class Beverage {
+    // bottles and crates each get a sequence of their own
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beverage_sequence")
+    @GenericGenerator(name = "beverage_sequence", strategy = PooledSequenceGenerator.NAME)
     private Long id;
 
     @NotNull(message = "Name is required.")
@@ -1,11 +1,13 @@
 package de.uniba.dsg.beverage_store.spring_boot.model.db;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import de.uniba.dsg.validation.annotation.MoreThanZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -16,6 +18,13 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "idempotencyKey"})
+}, indexes = {
+        @Index(columnList = "user_id, orderNumber"),
+        @Index(columnList = "user_id, date, id"),
+        @Index(columnList = "date, orderNumber")
+})
 @NamedEntityGraph(
         name = "Order.orders",
         attributeNodes = {
@@ -26,11 +35,14 @@ import java.util.Set;
 )
 public class BeverageOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beverage_order_sequence")
+    @GenericGenerator(name = "beverage_order_sequence", strategy = PooledSequenceGenerator.NAME)
     private Long id;
 
     private String orderNumber;
 
+    private String idempotencyKey;
+
     @NotNull(message = "Date is required.")
     private LocalDate date;
 
@@ -53,4 +65,8 @@ public class BeverageOrder {
     @OneToMany(mappedBy = "order", cascade = CascadeType.REMOVE)
     @JsonBackReference
     private Set<BeverageOrderItem> orderItems;
+
+    // set once the order has been counted into the sales rollups
+    @JsonIgnore
+    private boolean salesRolledUp;
 }
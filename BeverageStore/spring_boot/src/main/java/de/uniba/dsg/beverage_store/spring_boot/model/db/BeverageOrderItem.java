@@ -1,11 +1,13 @@
 package de.uniba.dsg.beverage_store.spring_boot.model.db;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
 import de.uniba.dsg.validation.annotation.MoreThanZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import javax.validation.ValidationException;
@@ -16,16 +18,10 @@ import javax.validation.constraints.NotNull;
 @AllArgsConstructor
 @Entity
 @Table
-@NamedEntityGraph(
-        name = "OrderItem.orderItems",
-        attributeNodes = {
-                @NamedAttributeNode(value = "bottle"),
-                @NamedAttributeNode(value = "crate")
-        }
-)
 public class BeverageOrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beverage_order_item_sequence")
+    @GenericGenerator(name = "beverage_order_item_sequence", strategy = PooledSequenceGenerator.NAME)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -38,11 +34,19 @@ public class BeverageOrderItem {
     @MoreThanZero(message = "Position must be greater than zero.")
     private int position;
 
+    // captured at checkout, so invoices and order details show what was paid without touching the catalog
+    @NotNull(message = "Name is required.")
+    private String name;
+
+    private double price;
+
     //Entity Relations
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
     private Bottle bottle;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
     private Crate crate;
 
     @ManyToOne(cascade = CascadeType.MERGE)
@@ -0,0 +1,38 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"salesDate", "beverageType", "beverageId"})
+})
+public class BeverageSalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beverage_sales_rollup_sequence")
+    @GenericGenerator(name = "beverage_sales_rollup_sequence", strategy = PooledSequenceGenerator.NAME)
+    private Long id;
+
+    @NotNull(message = "Sales Date is required.")
+    private LocalDate salesDate;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Beverage Type is required.")
+    private BeverageType beverageType;
+
+    private long beverageId;
+
+    private long unitCount;
+
+    private double revenue;
+}
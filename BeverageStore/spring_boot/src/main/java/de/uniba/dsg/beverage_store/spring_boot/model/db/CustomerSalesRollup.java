@@ -0,0 +1,28 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(columnList = "revenue")
+})
+public class CustomerSalesRollup {
+    @Id
+    private String username;
+
+    private long orderCount;
+
+    private long unitCount;
+
+    private double revenue;
+}
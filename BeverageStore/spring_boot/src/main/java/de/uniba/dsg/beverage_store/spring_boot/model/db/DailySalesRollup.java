@@ -0,0 +1,24 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class DailySalesRollup {
+    @Id
+    private LocalDate salesDate;
+
+    private long orderCount;
+
+    private long unitCount;
+
+    private double revenue;
+}
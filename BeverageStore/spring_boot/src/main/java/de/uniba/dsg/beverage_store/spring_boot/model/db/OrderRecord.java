@@ -0,0 +1,41 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDate;
+
+// live and archived orders as one read only view, so the order lists page across both without knowing where an order lives
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Subselect("SELECT o.id, o.order_number, o.date, o.price, u.username, u.first_name, u.last_name " +
+        "FROM beverage_order o JOIN application_user u ON u.id = o.user_id " +
+        "UNION ALL " +
+        "SELECT a.id, a.order_number, a.date, a.price, u.username, u.first_name, u.last_name " +
+        "FROM archived_order a JOIN application_user u ON u.username = a.username")
+@Synchronize({"beverage_order", "archived_order", "application_user"})
+public class OrderRecord {
+    @Id
+    private Long id;
+
+    private String orderNumber;
+
+    private LocalDate date;
+
+    private double price;
+
+    private String username;
+
+    private String firstName;
+
+    private String lastName;
+}
@@ -0,0 +1,56 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageStatus;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(columnList = "status, availableAt"),
+        @Index(columnList = "status, deliveredAt")
+})
+public class OutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_message_sequence")
+    @GenericGenerator(name = "outbox_message_sequence", strategy = PooledSequenceGenerator.NAME)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Type is required.")
+    private OutboxMessageType type;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Status is required.")
+    private OutboxMessageStatus status;
+
+    @NotNull(message = "Aggregate ID is required.")
+    private String aggregateId;
+
+    @NotNull(message = "Payload is required.")
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    private int attempts;
+
+    // when the next delivery attempt is due, a claimed message is pushed out by the lease so no other worker picks it up
+    @NotNull(message = "Available At is required.")
+    private LocalDateTime availableAt;
+
+    @NotNull(message = "Created At is required.")
+    private LocalDateTime createdAt;
+
+    private LocalDateTime deliveredAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
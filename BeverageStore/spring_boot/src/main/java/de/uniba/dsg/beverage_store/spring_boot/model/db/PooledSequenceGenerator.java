@@ -0,0 +1,35 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.db;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// sequence keys are known before the insert, so Hibernate can batch inserts, and pooled-lo only hits the sequence once per allocation
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String NAME = "de.uniba.dsg.beverage_store.spring_boot.model.db.PooledSequenceGenerator";
+
+    public static final String ALLOCATION_SIZE_SETTING = "beverage_store.id.allocation_size";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSettings()
+                .get(ALLOCATION_SIZE_SETTING);
+
+        if (allocationSize != null) {
+            params.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        }
+
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        params.setProperty(CONFIG_PREFER_SEQUENCE_PER_ENTITY, Boolean.TRUE.toString());
+        params.setProperty(CONFIG_SEQUENCE_PER_ENTITY_SUFFIX, "_sequence");
+
+        super.configure(type, params, serviceRegistry);
+    }
+}
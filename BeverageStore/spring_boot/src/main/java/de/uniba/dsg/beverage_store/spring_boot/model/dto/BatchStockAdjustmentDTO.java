@@ -0,0 +1,18 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockAdjustmentDTO {
+    @Valid
+    @NotEmpty(message = "At least one Stock Adjustment is required.")
+    private List<StockAdjustmentDTO> adjustments;
+}
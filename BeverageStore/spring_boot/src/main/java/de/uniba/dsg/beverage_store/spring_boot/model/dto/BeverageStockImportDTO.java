@@ -0,0 +1,24 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.dto;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.validation.annotation.MoreThanZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeverageStockImportDTO {
+    @NotNull(message = "Beverage Type is required.")
+    private BeverageType beverageType;
+
+    @MoreThanZero(message = "Beverage is required.")
+    private long beverageId;
+
+    @Min(value = 1, message = "Least quantity addition must be 1.")
+    private int quantity;
+}
@@ -0,0 +1,22 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.dto;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.validation.annotation.MoreThanZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDTO {
+    @NotNull(message = "Beverage Type is required.")
+    private BeverageType beverageType;
+
+    @MoreThanZero(message = "Beverage is required.")
+    private long beverageId;
+
+    private int delta;
+}
@@ -14,4 +14,6 @@ public class SubmitOrderDTO {
 
     @MoreThanZero(message = "Billing Address is required.")
     private long billingAddressId;
+
+    private String idempotencyKey;
 }
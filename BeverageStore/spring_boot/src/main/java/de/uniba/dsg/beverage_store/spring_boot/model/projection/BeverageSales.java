@@ -0,0 +1,11 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.projection;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+
+public interface BeverageSales {
+    BeverageType getBeverageType();
+
+    Long getBeverageId();
+
+    Long getQuantity();
+}
@@ -0,0 +1,15 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class CustomerSummary {
+    private String username;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthday;
+}
@@ -0,0 +1,58 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.projection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderExportRow {
+    public static final List<String> CSV_HEADER = Arrays.asList(
+            "orderNumber", "date", "orderPrice",
+            "username", "firstName", "lastName", "email",
+            "deliveryName", "deliveryStreet", "deliveryHouseNumber", "deliveryPostalCode",
+            "billingName", "billingStreet", "billingHouseNumber", "billingPostalCode",
+            "position", "beverageType", "beverageName", "quantity", "price"
+    );
+
+    private String orderNumber;
+    private LocalDate date;
+    private double orderPrice;
+
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    private String deliveryName;
+    private String deliveryStreet;
+    private String deliveryHouseNumber;
+    private String deliveryPostalCode;
+
+    private String billingName;
+    private String billingStreet;
+    private String billingHouseNumber;
+    private String billingPostalCode;
+
+    private int position;
+    private BeverageType beverageType;
+    private String beverageName;
+    private int quantity;
+    private double price;
+
+    @JsonIgnore
+    public List<Object> getCsvValues() {
+        return Arrays.asList(
+                orderNumber, date, orderPrice,
+                username, firstName, lastName, email,
+                deliveryName, deliveryStreet, deliveryHouseNumber, deliveryPostalCode,
+                billingName, billingStreet, billingHouseNumber, billingPostalCode,
+                position, beverageType, beverageName, quantity, price
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.projection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class OrderSummary {
+    @JsonIgnore
+    private Long id;
+
+    private String orderNumber;
+    private LocalDate date;
+    private double price;
+    private String username;
+    private String firstName;
+    private String lastName;
+}
@@ -0,0 +1,22 @@
+package de.uniba.dsg.beverage_store.spring_boot.model.projection;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+
+import java.time.LocalDate;
+
+// one grouped row of the rollup rebuild queries, only the grouping columns of the query at hand are set
+public interface SalesTotal {
+    LocalDate getSalesDate();
+
+    String getUsername();
+
+    BeverageType getBeverageType();
+
+    Long getBeverageId();
+
+    Long getOrderCount();
+
+    Long getUnitCount();
+
+    Double getRevenue();
+}
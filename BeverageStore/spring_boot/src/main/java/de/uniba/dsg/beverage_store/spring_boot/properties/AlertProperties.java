@@ -0,0 +1,15 @@
+package de.uniba.dsg.beverage_store.spring_boot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "alert")
+public class AlertProperties {
+    private Integer lowStockThreshold;
+    private Integer queueCapacity;
+    private Integer recentAlertLimit;
+    private Long streamTimeoutSeconds;
+}
@@ -0,0 +1,14 @@
+package de.uniba.dsg.beverage_store.spring_boot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveProperties {
+    private Boolean enabled;
+    private Integer hotMonths;
+    private Long intervalMinutes;
+}
@@ -9,4 +9,5 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "customer")
 public class CustomerProperties {
     private Integer pageSize;
+    private Integer orderHistoryPageSize;
 }
@@ -0,0 +1,13 @@
+package de.uniba.dsg.beverage_store.spring_boot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "import")
+public class ImportProperties {
+    private Integer chunkSize;
+    private Integer maxReportedErrors;
+}
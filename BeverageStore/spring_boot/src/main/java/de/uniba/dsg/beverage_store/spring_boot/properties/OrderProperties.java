@@ -9,4 +9,7 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "order")
 public class OrderProperties {
     private Integer pageSize;
+    private Integer idempotencyCacheSize;
+    private Integer idempotencyTtlSeconds;
+    private Integer cacheSize;
 }
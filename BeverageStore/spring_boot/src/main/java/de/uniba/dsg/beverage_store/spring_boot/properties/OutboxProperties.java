@@ -0,0 +1,22 @@
+package de.uniba.dsg.beverage_store.spring_boot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+    private Boolean relayEnabled;
+    private Long pollIntervalMillis;
+    private Integer batchSize;
+    private Integer workerCount;
+    private Long leaseSeconds;
+    private Long deliveryTimeoutSeconds;
+    private Integer maxAttempts;
+    private Long retryBackoffSeconds;
+    private Long maxRetryBackoffSeconds;
+    private Long deliveredRetentionHours;
+    private Long purgeIntervalMinutes;
+}
@@ -0,0 +1,54 @@
+package de.uniba.dsg.beverage_store.spring_boot.repository;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.ArchivedOrderItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.BeverageSales;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderExportRow;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.SalesTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+    List<ArchivedOrderItem> findAllByOrderNumberOrderByPosition(String orderNumber);
+
+    @Modifying
+    @Query("INSERT INTO ArchivedOrderItem (id, orderNumber, position, beverageType, beverageId, name, quantity, price) " +
+            "SELECT i.id, o.orderNumber, i.position, i.beverageType, COALESCE(b.id, c.id), i.name, i.quantity, i.price " +
+            "FROM BeverageOrderItem i JOIN i.order o LEFT JOIN i.bottle b LEFT JOIN i.crate c " +
+            "WHERE o.date >= :from AND o.date < :to")
+    int archive(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT i.beverageType AS beverageType, i.beverageId AS beverageId, SUM(i.quantity) AS quantity " +
+            "FROM ArchivedOrderItem i GROUP BY i.beverageType, i.beverageId")
+    List<BeverageSales> findAllBeverageSales();
+
+    @Query("SELECT o.date AS salesDate, i.beverageType AS beverageType, i.beverageId AS beverageId, " +
+            "SUM(i.quantity) AS unitCount, SUM(i.quantity * i.price) AS revenue " +
+            "FROM ArchivedOrderItem i, ArchivedOrder o WHERE i.orderNumber = o.orderNumber " +
+            "GROUP BY o.date, i.beverageType, i.beverageId")
+    List<SalesTotal> findBeverageSalesTotals();
+
+    @Query("SELECT o.username AS username, SUM(i.quantity) AS unitCount " +
+            "FROM ArchivedOrderItem i, ArchivedOrder o WHERE i.orderNumber = o.orderNumber GROUP BY o.username")
+    List<SalesTotal> findCustomerUnitTotals();
+
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderExportRow(" +
+            "o.orderNumber, o.date, o.price, u.username, u.firstName, u.lastName, u.email, " +
+            "d.name, d.street, d.houseNumber, d.postalCode, ba.name, ba.street, ba.houseNumber, ba.postalCode, " +
+            "i.position, i.beverageType, i.name, i.quantity, i.price) " +
+            "FROM ArchivedOrderItem i, ArchivedOrder o, ApplicationUser u, Address d, Address ba " +
+            "WHERE i.orderNumber = o.orderNumber AND u.username = o.username AND d.id = o.deliveryAddressId AND ba.id = o.billingAddressId " +
+            "AND o.date BETWEEN :from AND :to ORDER BY o.date, o.orderNumber, i.position")
+    Stream<OrderExportRow> streamOrderExportRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
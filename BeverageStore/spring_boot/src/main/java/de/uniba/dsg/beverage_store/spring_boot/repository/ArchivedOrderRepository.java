@@ -0,0 +1,39 @@
+package de.uniba.dsg.beverage_store.spring_boot.repository;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.ArchivedOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.SalesTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    Optional<ArchivedOrder> findByOrderNumber(String orderNumber);
+
+    @Modifying
+    @Query("INSERT INTO ArchivedOrder (id, orderNumber, date, price, username, deliveryAddressId, billingAddressId) " +
+            "SELECT o.id, o.orderNumber, o.date, o.price, u.username, d.id, b.id " +
+            "FROM BeverageOrder o JOIN o.user u JOIN o.deliveryAddress d JOIN o.billingAddress b " +
+            "WHERE o.date >= :from AND o.date < :to")
+    int archive(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary(o.id, o.orderNumber, o.date, o.price, u.username, u.firstName, u.lastName) " +
+            "FROM ArchivedOrder o, ApplicationUser u WHERE u.username = o.username AND o.username = :username ORDER BY o.date DESC, o.id DESC")
+    List<OrderSummary> findLatestOrderSummariesByUsername(@Param("username") String username, Pageable pageable);
+
+    @Query("SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary(o.id, o.orderNumber, o.date, o.price, u.username, u.firstName, u.lastName) " +
+            "FROM ArchivedOrder o, ApplicationUser u WHERE u.username = o.username AND o.username = :username AND (o.date < :date OR (o.date = :date AND o.id < :id)) ORDER BY o.date DESC, o.id DESC")
+    List<OrderSummary> findLatestOrderSummariesByUsernameBefore(@Param("username") String username, @Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    @Query("SELECT o.date AS salesDate, COUNT(o) AS orderCount, SUM(o.price) AS revenue FROM ArchivedOrder o GROUP BY o.date")
+    List<SalesTotal> findDailySalesTotals();
+
+    @Query("SELECT o.username AS username, COUNT(o) AS orderCount, SUM(o.price) AS revenue FROM ArchivedOrder o GROUP BY o.username")
+    List<SalesTotal> findCustomerSalesTotals();
+}
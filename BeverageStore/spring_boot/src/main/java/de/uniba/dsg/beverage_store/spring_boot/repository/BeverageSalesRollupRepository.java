@@ -0,0 +1,25 @@
+package de.uniba.dsg.beverage_store.spring_boot.repository;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageSalesRollup;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.SalesTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BeverageSalesRollupRepository extends JpaRepository<BeverageSalesRollup, Long> {
+    @Query("SELECT r.beverageType AS beverageType, r.beverageId AS beverageId, SUM(r.unitCount) AS unitCount, SUM(r.revenue) AS revenue " +
+            "FROM BeverageSalesRollup r WHERE r.salesDate BETWEEN :from AND :to " +
+            "GROUP BY r.beverageType, r.beverageId ORDER BY SUM(r.revenue) DESC, r.beverageType, r.beverageId")
+    List<SalesTotal> findTopBeverages(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE BeverageSalesRollup r SET r.unitCount = r.unitCount + :unitCount, r.revenue = r.revenue + :revenue " +
+            "WHERE r.salesDate = :salesDate AND r.beverageType = :beverageType AND r.beverageId = :beverageId")
+    int increment(@Param("salesDate") LocalDate salesDate, @Param("beverageType") BeverageType beverageType, @Param("beverageId") long beverageId, @Param("unitCount") long unitCount, @Param("revenue") double revenue);
+}
@@ -1,17 +1,20 @@
 package de.uniba.dsg.beverage_store.spring_boot.repository;
 
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+
 public interface BottleRepository extends JpaRepository<Bottle, Long> {
-    Page<Bottle> findByOrderByNameAsc(Pageable pageable);
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Bottle> findAllByOrderByNameAscIdAsc();
 
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Bottle b set b.inStock = (b.inStock - :quantity) where b.id = :id")
-    void decreaseQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+    @Query("UPDATE Bottle b SET b.inStock = (b.inStock + :quantity) WHERE b.id = :id")
+    int increaseQuantity(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,19 @@
+package de.uniba.dsg.beverage_store.spring_boot.repository;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.CustomerSalesRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CustomerSalesRollupRepository extends JpaRepository<CustomerSalesRollup, String> {
+    List<CustomerSalesRollup> findAllByOrderByRevenueDescUsername(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE CustomerSalesRollup r SET r.orderCount = r.orderCount + :orderCount, r.unitCount = r.unitCount + :unitCount, r.revenue = r.revenue + :revenue " +
+            "WHERE r.username = :username")
+    int increment(@Param("username") String username, @Param("orderCount") long orderCount, @Param("unitCount") long unitCount, @Param("revenue") double revenue);
+}
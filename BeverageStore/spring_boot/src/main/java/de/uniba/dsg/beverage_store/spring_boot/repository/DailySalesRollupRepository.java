@@ -0,0 +1,19 @@
+package de.uniba.dsg.beverage_store.spring_boot.repository;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, LocalDate> {
+    List<DailySalesRollup> findAllBySalesDateBetweenOrderBySalesDate(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("UPDATE DailySalesRollup r SET r.orderCount = r.orderCount + :orderCount, r.unitCount = r.unitCount + :unitCount, r.revenue = r.revenue + :revenue " +
+            "WHERE r.salesDate = :salesDate")
+    int increment(@Param("salesDate") LocalDate salesDate, @Param("orderCount") long orderCount, @Param("unitCount") long unitCount, @Param("revenue") double revenue);
+}
@@ -1,12 +1,61 @@
 package de.uniba.dsg.beverage_store.spring_boot.repository;
 
 import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrderItem;
-import org.springframework.data.jpa.repository.EntityGraph;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.BeverageSales;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderExportRow;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.SalesTotal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderItemRepository extends JpaRepository<BeverageOrderItem, Long> {
-    @EntityGraph(value = "OrderItem.orderItems")
     List<BeverageOrderItem> findAllByOrderOrderNumber(String orderNumber);
+
+    @Query("SELECT i FROM BeverageOrderItem i JOIN FETCH i.order o JOIN FETCH o.user JOIN FETCH o.deliveryAddress JOIN FETCH o.billingAddress " +
+            "WHERE o.orderNumber = :orderNumber ORDER BY i.position")
+    List<BeverageOrderItem> findAllWithOrderByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    @Query("SELECT i.beverageType AS beverageType, COALESCE(b.id, c.id) AS beverageId, SUM(i.quantity) AS quantity " +
+            "FROM BeverageOrderItem i LEFT JOIN i.bottle b LEFT JOIN i.crate c " +
+            "GROUP BY i.beverageType, b.id, c.id")
+    List<BeverageSales> findAllBeverageSales();
+
+    @Query("SELECT o.date AS salesDate, i.beverageType AS beverageType, COALESCE(b.id, c.id) AS beverageId, " +
+            "SUM(i.quantity) AS unitCount, SUM(i.quantity * i.price) AS revenue " +
+            "FROM BeverageOrderItem i JOIN i.order o LEFT JOIN i.bottle b LEFT JOIN i.crate c " +
+            "WHERE o.salesRolledUp = true GROUP BY o.date, i.beverageType, b.id, c.id")
+    List<SalesTotal> findRolledUpBeverageSalesTotals();
+
+    @Query("SELECT u.username AS username, SUM(i.quantity) AS unitCount FROM BeverageOrderItem i JOIN i.order o JOIN o.user u " +
+            "WHERE o.salesRolledUp = true GROUP BY u.username")
+    List<SalesTotal> findRolledUpCustomerUnitTotals();
+
+    @Query("SELECT i.beverageType AS beverageType, COALESCE(b.id, c.id) AS beverageId, SUM(i.quantity) AS unitCount, SUM(i.quantity * i.price) AS revenue " +
+            "FROM BeverageOrderItem i JOIN i.order o LEFT JOIN i.bottle b LEFT JOIN i.crate c " +
+            "WHERE o.orderNumber = :orderNumber GROUP BY i.beverageType, b.id, c.id")
+    List<SalesTotal> findBeverageSalesTotalsByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    // forward only and fetched in chunks, the rows are plain projections so nothing piles up in the persistence context
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderExportRow(" +
+            "o.orderNumber, o.date, o.price, u.username, u.firstName, u.lastName, u.email, " +
+            "d.name, d.street, d.houseNumber, d.postalCode, ba.name, ba.street, ba.houseNumber, ba.postalCode, " +
+            "i.position, i.beverageType, i.name, i.quantity, i.price) " +
+            "FROM BeverageOrderItem i JOIN i.order o JOIN o.user u JOIN o.deliveryAddress d JOIN o.billingAddress ba " +
+            "WHERE o.date BETWEEN :from AND :to ORDER BY o.date, o.orderNumber, i.position")
+    Stream<OrderExportRow> streamOrderExportRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM BeverageOrderItem i WHERE i.order.id IN (SELECT o.id FROM BeverageOrder o WHERE o.date >= :from AND o.date < :to)")
+    int deleteAllByOrderDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,21 @@
+package de.uniba.dsg.beverage_store.spring_boot.repository;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.db.OrderRecord;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderRecordRepository extends JpaRepository<OrderRecord, Long> {
+    @Query(value = "SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary(o.id, o.orderNumber, o.date, o.price, o.username, o.firstName, o.lastName) " +
+            "FROM OrderRecord o ORDER BY o.orderNumber",
+            countQuery = "SELECT COUNT(o) FROM OrderRecord o")
+    Page<OrderSummary> findAllOrderSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary(o.id, o.orderNumber, o.date, o.price, o.username, o.firstName, o.lastName) " +
+            "FROM OrderRecord o WHERE o.username = :username ORDER BY o.orderNumber",
+            countQuery = "SELECT COUNT(o) FROM OrderRecord o WHERE o.username = :username")
+    Page<OrderSummary> findAllOrderSummariesByUsername(@Param("username") String username, Pageable pageable);
+}
@@ -1,24 +1,54 @@
 package de.uniba.dsg.beverage_store.spring_boot.repository;
 
 import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
-import org.springframework.data.domain.Page;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.SalesTotal;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<BeverageOrder, Long> {
     @EntityGraph(value = "Order.orders")
-    Page<BeverageOrder> findAllByOrderByOrderNumber(Pageable pageable);
+    Optional<BeverageOrder> findByOrderNumber(String orderNumber);
 
     @EntityGraph(value = "Order.orders")
-    List<BeverageOrder> findAllByUserUsernameOrderByOrderNumber(String userName);
+    Optional<BeverageOrder> findByUserUsernameAndIdempotencyKey(String userName, String idempotencyKey);
 
-    @EntityGraph(value = "Order.orders")
-    Page<BeverageOrder> findAllByUserUsernameOrderByOrderNumber(String userName, Pageable pageable);
+    @Query("SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary(o.id, o.orderNumber, o.date, o.price, u.username, u.firstName, u.lastName) " +
+            "FROM BeverageOrder o JOIN o.user u WHERE u.username = :username ORDER BY o.date DESC, o.id DESC")
+    List<OrderSummary> findLatestOrderSummariesByUsername(@Param("username") String username, Pageable pageable);
 
-    @EntityGraph(value = "Order.orders")
-    Optional<BeverageOrder> findByOrderNumber(String orderNumber);
+    @Query("SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary(o.id, o.orderNumber, o.date, o.price, u.username, u.firstName, u.lastName) " +
+            "FROM BeverageOrder o JOIN o.user u WHERE u.username = :username AND (o.date < :date OR (o.date = :date AND o.id < :id)) ORDER BY o.date DESC, o.id DESC")
+    List<OrderSummary> findLatestOrderSummariesByUsernameBefore(@Param("username") String username, @Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    @Query("SELECT o.date AS salesDate, COUNT(o) AS orderCount, SUM(o.price) AS revenue FROM BeverageOrder o WHERE o.salesRolledUp = true GROUP BY o.date")
+    List<SalesTotal> findRolledUpDailySalesTotals();
+
+    @Query("SELECT u.username AS username, COUNT(o) AS orderCount, SUM(o.price) AS revenue FROM BeverageOrder o JOIN o.user u WHERE o.salesRolledUp = true GROUP BY u.username")
+    List<SalesTotal> findRolledUpCustomerSalesTotals();
+
+    @Modifying
+    @Query("UPDATE BeverageOrder o SET o.salesRolledUp = true WHERE o.orderNumber = :orderNumber AND o.salesRolledUp = false")
+    int markSalesRolledUp(@Param("orderNumber") String orderNumber);
+
+    @Modifying
+    @Query("UPDATE BeverageOrder o SET o.salesRolledUp = true WHERE o.salesRolledUp = false")
+    int markAllSalesRolledUp();
+
+    boolean existsByDateGreaterThanEqualAndDateLessThanAndSalesRolledUpFalse(LocalDate from, LocalDate to);
+
+    @Query("SELECT MIN(o.date) FROM BeverageOrder o")
+    Optional<LocalDate> findOldestOrderDate();
+
+    @Modifying
+    @Query("DELETE FROM BeverageOrder o WHERE o.date >= :from AND o.date < :to")
+    int deleteAllByDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
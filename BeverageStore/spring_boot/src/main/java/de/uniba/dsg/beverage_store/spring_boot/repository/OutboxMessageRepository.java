@@ -0,0 +1,43 @@
+package de.uniba.dsg.beverage_store.spring_boot.repository;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageStatus;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    List<OutboxMessage> findAllByAggregateIdOrderById(String aggregateId);
+
+    @Query("SELECT m.id FROM OutboxMessage m WHERE m.status = :status AND m.availableAt <= :now ORDER BY m.id")
+    List<Long> findDueIds(@Param("status") OutboxMessageStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.availableAt = :leaseEnd " +
+            "WHERE m.id = :id AND m.status = :status AND m.availableAt <= :now")
+    int claim(@Param("id") Long id, @Param("status") OutboxMessageStatus status, @Param("now") LocalDateTime now, @Param("leaseEnd") LocalDateTime leaseEnd);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.attempts = m.attempts + 1, m.deliveredAt = :deliveredAt, m.lastError = NULL " +
+            "WHERE m.id = :id")
+    int markDelivered(@Param("id") Long id, @Param("status") OutboxMessageStatus status, @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.attempts = m.attempts + 1, m.availableAt = :availableAt, m.lastError = :lastError " +
+            "WHERE m.id = :id")
+    int markAttemptFailed(@Param("id") Long id, @Param("status") OutboxMessageStatus status, @Param("availableAt") LocalDateTime availableAt, @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = :status AND m.deliveredAt < :deliveredBefore")
+    int deleteDelivered(@Param("status") OutboxMessageStatus status, @Param("deliveredBefore") LocalDateTime deliveredBefore);
+}
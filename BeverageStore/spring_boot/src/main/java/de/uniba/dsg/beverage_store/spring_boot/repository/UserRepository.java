@@ -2,9 +2,12 @@ package de.uniba.dsg.beverage_store.spring_boot.repository;
 
 import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Role;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.CustomerSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +20,9 @@ public interface UserRepository extends JpaRepository<ApplicationUser, Long> {
     Optional<ApplicationUser> findByUsername(String username);
 
     Optional<ApplicationUser> findByEmailIgnoreCase(String email);
+
+    @Query(value = "SELECT new de.uniba.dsg.beverage_store.spring_boot.model.projection.CustomerSummary(u.username, u.firstName, u.lastName, u.birthday) " +
+            "FROM ApplicationUser u WHERE u.role = :role",
+            countQuery = "SELECT COUNT(u) FROM ApplicationUser u WHERE u.role = :role")
+    Page<CustomerSummary> findAllSummariesByRole(Pageable page, @Param("role") Role role);
 }
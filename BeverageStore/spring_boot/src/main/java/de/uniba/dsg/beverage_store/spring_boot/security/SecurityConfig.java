@@ -47,7 +47,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter implements WebM
             "/beverage/bottle",
             "/beverage/crate",
             "/order/**",
-            "/api/invoice/order/**"
+            "/api/invoice/order/**",
+            "/api/catalog/search",
+            "/api/catalog/autocomplete"
     };
 
     private final String[] customerPages = {
@@ -63,8 +65,16 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter implements WebM
             "/beverage/crate/add",
             "/beverage/crate/edit/**",
             "/customer/**",
+            "/api/customers/**",
+            "/api/orders/export",
+            "/alert",
+            "/report",
             "/api/bottles/{\\\\d+}/stock",
-            "/api/crates/{\\\\d+}/stock"
+            "/api/crates/{\\\\d+}/stock",
+            "/api/stock",
+            "/api/stock/alerts/**",
+            "/api/reports/**",
+            "/api/catalog/import/**"
     };
 
     public SecurityConfig(UserService userService) {
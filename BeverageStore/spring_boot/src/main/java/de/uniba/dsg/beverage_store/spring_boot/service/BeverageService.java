@@ -2,7 +2,9 @@ package de.uniba.dsg.beverage_store.spring_boot.service;
 
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
 import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
-import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Beverage;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.BottleDTO;
@@ -13,29 +15,48 @@ import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.annotation.Resource;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BeverageService {
 
+    private final CatalogSearchService catalogSearchService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockReservationService stockReservationService;
+    private final StockEventBus stockEventBus;
+
     private final CrateRepository crateRepository;
     private final BottleRepository bottleRepository;
 
-    @Resource(name = "sessionScopedCartService")
-    private CartService cartService;
-
     @Autowired
-    public BeverageService(CrateRepository crateRepository,
+    public BeverageService(CatalogSearchService catalogSearchService,
+                           CatalogSnapshotService catalogSnapshotService,
+                           StockReservationService stockReservationService,
+                           StockEventBus stockEventBus,
+                           CrateRepository crateRepository,
                            BottleRepository bottleRepository) {
+        this.catalogSearchService = catalogSearchService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.stockReservationService = stockReservationService;
+        this.stockEventBus = stockEventBus;
+
         this.crateRepository = crateRepository;
         this.bottleRepository = bottleRepository;
     }
 
+    // allowed stock on the list pages changes with the catalog and with every hold taken or released
+    public String getAllowedStockVersion() {
+        return catalogSnapshotService.getRevision() + "." + stockReservationService.getRevision();
+    }
+
     public Bottle getBottleById(Long id) throws NotFoundException {
         Optional<Bottle> bottleOptional = bottleRepository.findById(id);
 
@@ -46,27 +67,48 @@ public class BeverageService {
         return bottleOptional.get();
     }
 
+    public Map<Long, Bottle> getBottlesByIds(Collection<Long> ids) throws NotFoundException {
+        Map<Long, Bottle> bottles = bottleRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Bottle::getId, Function.identity()));
+
+        for (Long id : ids) {
+            if (!bottles.containsKey(id)) {
+                throw new NotFoundException("No Bottle found with ID: " + id);
+            }
+        }
+
+        return bottles;
+    }
+
     public List<Bottle> getBottles() {
         return bottleRepository.findAll();
     }
 
     public Page<Bottle> getPagedBottlesWithAllowedStock(int page, int size) {
-        Page<Bottle> bottlePage = bottleRepository.findByOrderByNameAsc(PageRequest.of(page - 1, size));
+        Page<Bottle> bottlePage = catalogSnapshotService.getBottlePage(page, size);
 
-        for (Bottle bottle : bottlePage.getContent()) {
-            bottle.setAllowedInStockToInStock();
+        setAllowedInStock(bottlePage.getContent(), BeverageType.BOTTLE);
 
-            Optional<CartItem> cartItemOptional = cartService.getCartItems()
-                    .stream()
-                    .filter(x -> x.getBeverageType() == BeverageType.BOTTLE && x.getBeverageId() == bottle.getId())
-                    .findFirst();
+        return bottlePage;
+    }
 
-            cartItemOptional.ifPresent(cartItem -> bottle.decreaseAllowedInStock(cartItem.getQuantity()));
-        }
+    public CursorPage<Bottle> getBottleCursorPageWithAllowedStock(String cursor, int size) {
+        CursorPage<Bottle> bottlePage = catalogSnapshotService.getBottleCursorPage(cursor, size);
+
+        setAllowedInStock(bottlePage.getContent(), BeverageType.BOTTLE);
 
         return bottlePage;
     }
 
+    public List<Bottle> searchBottlesWithAllowedStock(String query, int limit) {
+        List<Bottle> bottles = catalogSnapshotService.getBottles(catalogSearchService.searchIds(query, BeverageType.BOTTLE, limit));
+
+        setAllowedInStock(bottles, BeverageType.BOTTLE);
+
+        return bottles;
+    }
+
     public Bottle addBottle(BottleDTO bottleDTO) {
         Bottle bottle = new Bottle(
                 null,
@@ -83,6 +125,8 @@ public class BeverageService {
 
         bottleRepository.save(bottle);
 
+        catalogSnapshotService.invalidate();
+
         return bottle;
     }
 
@@ -103,6 +147,8 @@ public class BeverageService {
 
         bottleRepository.save(bottle);
 
+        catalogSnapshotService.invalidate();
+
         return bottle;
     }
 
@@ -116,23 +162,44 @@ public class BeverageService {
         return crateOptional.get();
     }
 
+    public Map<Long, Crate> getCratesByIds(Collection<Long> ids) throws NotFoundException {
+        Map<Long, Crate> crates = crateRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Crate::getId, Function.identity()));
+
+        for (Long id : ids) {
+            if (!crates.containsKey(id)) {
+                throw new NotFoundException("No Crate found with ID: " + id);
+            }
+        }
+
+        return crates;
+    }
+
     public Page<Crate> getPagedCratesWithAllowedStock(int page, int size) {
-        Page<Crate> cratePage = crateRepository.findByOrderByNameAsc(PageRequest.of(page - 1, size));
+        Page<Crate> cratePage = catalogSnapshotService.getCratePage(page, size);
 
-        for (Crate crate : cratePage.getContent()) {
-            crate.setAllowedInStockToInStock();
+        setAllowedInStock(cratePage.getContent(), BeverageType.CRATE);
 
-            Optional<CartItem> cartItemOptional = cartService.getCartItems()
-                    .stream()
-                    .filter(x -> x.getBeverageType() == BeverageType.CRATE && x.getBeverageId() == crate.getId())
-                    .findFirst();
+        return cratePage;
+    }
 
-            cartItemOptional.ifPresent(cartItem -> crate.decreaseAllowedInStock(cartItem.getQuantity()));
-        }
+    public CursorPage<Crate> getCrateCursorPageWithAllowedStock(String cursor, int size) {
+        CursorPage<Crate> cratePage = catalogSnapshotService.getCrateCursorPage(cursor, size);
+
+        setAllowedInStock(cratePage.getContent(), BeverageType.CRATE);
 
         return cratePage;
     }
 
+    public List<Crate> searchCratesWithAllowedStock(String query, int limit) {
+        List<Crate> crates = catalogSnapshotService.getCrates(catalogSearchService.searchIds(query, BeverageType.CRATE, limit));
+
+        setAllowedInStock(crates, BeverageType.CRATE);
+
+        return crates;
+    }
+
     public Crate addCrate(CrateDTO crateDTO) throws NotFoundException {
         Crate crate = new Crate(
                 null,
@@ -147,6 +214,8 @@ public class BeverageService {
 
         crateRepository.save(crate);
 
+        catalogSnapshotService.invalidate();
+
         return crate;
     }
 
@@ -166,34 +235,47 @@ public class BeverageService {
 
         crateRepository.save(crate);
 
+        catalogSnapshotService.invalidate();
+
         return crate;
     }
 
+    @Transactional
     public Bottle addStockToBottle(Long id, int quantity) throws NotFoundException {
-        Optional<Bottle> optionalBottle = bottleRepository.findById(id);
-
-        if (optionalBottle.isEmpty())
+        if (bottleRepository.increaseQuantity(id, quantity) == 0)
             throw new NotFoundException("Bottle not found with ID: " + id);
 
-        Bottle bottle = optionalBottle.get();
-        bottle.setInStock(bottle.getInStock() + quantity);
+        Bottle bottle = bottleRepository.findById(id).orElseThrow();
 
-        bottleRepository.save(bottle);
+        List<StockLevel> stockLevels = List.of(new StockLevel(BeverageType.BOTTLE, bottle.getId(), bottle.getName(), bottle.getInStock()));
+
+        catalogSnapshotService.updateStock(stockLevels);
+        stockEventBus.publish(stockLevels);
 
         return bottle;
     }
 
+    @Transactional
     public Crate addStockToCrate(Long id, int quantity) throws NotFoundException {
-        Optional<Crate> optionalCrate = crateRepository.findById(id);
-
-        if (optionalCrate.isEmpty())
+        if (crateRepository.increaseQuantity(id, quantity) == 0)
             throw new NotFoundException("Crate not found with ID: " + id);
 
-        Crate crate = optionalCrate.get();
-        crate.setInStock(crate.getInStock() + quantity);
+        Crate crate = crateRepository.findById(id).orElseThrow();
 
-        crateRepository.save(crate);
+        List<StockLevel> stockLevels = List.of(new StockLevel(BeverageType.CRATE, crate.getId(), crate.getName(), crate.getInStock()));
+
+        catalogSnapshotService.updateStock(stockLevels);
+        stockEventBus.publish(stockLevels);
 
         return crate;
     }
+
+    private void setAllowedInStock(List<? extends Beverage> beverages, BeverageType beverageType) {
+        Map<Long, Integer> reservedQuantities = stockReservationService.getReservedQuantities(beverageType);
+
+        for (Beverage beverage : beverages) {
+            beverage.setAllowedInStockToInStock();
+            beverage.decreaseAllowedInStock(reservedQuantities.getOrDefault(beverage.getId(), 0));
+        }
+    }
 }
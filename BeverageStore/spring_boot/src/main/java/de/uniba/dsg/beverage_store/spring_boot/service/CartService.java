@@ -8,22 +8,48 @@ import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 public class CartService {
 
     @Autowired
     private BeverageService beverageService;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    private final String reservationHolderId;
+
+    private long revision;
     private int cartItemId;
+    private int cartItemCount;
+    private double cartTotal;
 
-    private final List<CartItem> cartItems;
+    private final Map<Integer, CartItem> cartItems;
+    private final Map<BeverageType, Map<Long, CartItem>> cartBeverages;
 
     public CartService() {
+        reservationHolderId = UUID.randomUUID().toString();
+
+        revision = 0;
         cartItemId = 0;
-        cartItems = new ArrayList<>();
+        cartItemCount = 0;
+        cartTotal = 0;
+
+        cartItems = new LinkedHashMap<>();
+        cartBeverages = new EnumMap<>(BeverageType.class);
+
+        for (BeverageType beverageType : BeverageType.values()) {
+            cartBeverages.put(beverageType, new HashMap<>());
+        }
     }
 
     public CartItem addCartItem(BeverageType beverageType, Long beverageId, int quantity) throws NotFoundException, InsufficientStockException {
@@ -34,12 +60,21 @@ public class CartService {
         if (cartItemOptional.isPresent()) {
             cartItem = cartItemOptional.get();
 
-            if ((cartItem.getQuantity() + quantity) > cartItem.getInStock()) {
+            if ((cartItem.getQuantity() + quantity) > cartItem.getInStock()
+                    || !stockReservationService.reserve(reservationHolderId, beverageType, beverageId, cartItem.getQuantity() + quantity)) {
                 throw new InsufficientStockException("Insufficient stock for " + beverageType.name() + " with ID: " + beverageId);
             }
 
+            cartTotal -= cartItem.getItemTotal();
+
             cartItem.addQuantity(quantity);
 
+            cartItemCount += quantity;
+            cartTotal += cartItem.getItemTotal();
+            revision++;
+
+            refreshReservations();
+
             return cartItem;
         }
 
@@ -48,47 +83,96 @@ public class CartService {
             throw new NotFoundException();
         }
 
-        if (cartItem.getQuantity() > cartItem.getInStock()) {
+        if (cartItem.getQuantity() > cartItem.getInStock()
+                || !stockReservationService.reserve(reservationHolderId, beverageType, beverageId, cartItem.getQuantity())) {
             throw new InsufficientStockException("Insufficient stock for " + beverageType.name() + " with ID: " + beverageId);
         }
 
         cartItem.setCartItemId(++cartItemId);
-        cartItems.add(cartItem);
+
+        cartItems.put(cartItem.getCartItemId(), cartItem);
+        cartBeverages.get(beverageType).put(cartItem.getBeverageId(), cartItem);
+
+        cartItemCount += cartItem.getQuantity();
+        cartTotal += cartItem.getItemTotal();
+        revision++;
+
+        refreshReservations();
 
         return cartItem;
     }
 
     public void removeCartItem(Integer cartItemId) throws NotFoundException {
-        Optional<CartItem> optionalCartItem = cartItems.stream()
-                .filter(x -> x.getCartItemId() == cartItemId)
-                .findAny();
+        CartItem cartItem = cartItemId == null
+                ? null
+                : cartItems.remove(cartItemId);
 
-        if (optionalCartItem.isEmpty()) {
+        if (cartItem == null) {
             throw new NotFoundException();
         }
 
-        cartItems.remove(optionalCartItem.get());
+        cartBeverages.get(cartItem.getBeverageType()).remove(cartItem.getBeverageId());
+
+        stockReservationService.release(reservationHolderId, cartItem.getBeverageType(), cartItem.getBeverageId());
+
+        cartItemCount -= cartItem.getQuantity();
+        cartTotal = cartItems.isEmpty()
+                ? 0
+                : cartTotal - cartItem.getItemTotal();
+        revision++;
+
+        refreshReservations();
+    }
+
+    // re-prices an item whose catalog price changed after it was put into the cart
+    public void updateCartItemPrice(CartItem cartItem, double price) {
+        cartTotal -= cartItem.getItemTotal();
+
+        cartItem.setPrice(price);
+
+        cartTotal += cartItem.getItemTotal();
+        revision++;
     }
 
     public List<CartItem> getCartItems() {
-        return cartItems;
+        return new ArrayList<>(cartItems.values());
+    }
+
+    // renews the hold of every line while the cart is in use, so only an abandoned cart gives its stock back
+    public void refreshReservations() {
+        cartItems.values()
+                .forEach(x -> stockReservationService.reserve(reservationHolderId, x.getBeverageType(), x.getBeverageId(), x.getQuantity()));
+    }
+
+    public String getReservationHolderId() {
+        return reservationHolderId;
+    }
+
+    public long getRevision() {
+        return revision;
     }
 
     public int getCartItemCount() {
-        return cartItems.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return cartItemCount;
     }
 
     public double getCartTotal() {
-        return cartItems.stream()
-                .mapToDouble(CartItem::getItemTotal)
-                .sum();
+        return cartTotal;
     }
 
+    @PreDestroy
     public void clearCart() {
         cartItemId = 0;
+        cartItemCount = 0;
+        cartTotal = 0;
+        revision++;
+
+        cartItems.values()
+                .forEach(x -> stockReservationService.release(reservationHolderId, x.getBeverageType(), x.getBeverageId()));
+
         cartItems.clear();
+        cartBeverages.values()
+                .forEach(Map::clear);
     }
 
     private CartItem buildBottleCartItem(Bottle bottle, int quantity) {
@@ -126,9 +210,11 @@ public class CartService {
     }
 
     private Optional<CartItem> getCartBeverage(long beverageId, BeverageType beverageType) {
-        return cartItems.stream()
-                .filter(x -> x.getBeverageId() == beverageId && x.getBeverageType() == beverageType)
-                .findAny();
+        if (beverageType == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(cartBeverages.get(beverageType).get(beverageId));
     }
 
     private CartItem retrieveCartItem(BeverageType beverageType, Long beverageId, int quantity) throws NotFoundException {
@@ -0,0 +1,444 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSnapshot;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSuggestion;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Beverage;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.BeverageSales;
+import de.uniba.dsg.beverage_store.spring_boot.properties.SearchProperties;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CatalogAutocompleteService {
+
+    private static final char WORD_SEPARATOR = ' ';
+
+    // the index ranks without stock, so stock patches never invalidate it
+    private static final Comparator<CatalogSuggestion> INDEX_ORDER = Comparator.comparingLong(CatalogSuggestion::getPopularity).reversed()
+            .thenComparing(CatalogSuggestion::getName)
+            .thenComparing(CatalogSuggestion::getBeverageType)
+            .thenComparingLong(CatalogSuggestion::getBeverageId);
+
+    private static final Comparator<CatalogSuggestion> SUGGESTION_ORDER = Comparator.<CatalogSuggestion>comparingInt(x -> x.getInStock() > 0 ? 0 : 1)
+            .thenComparing(Comparator.comparingLong(CatalogSuggestion::getPopularity).reversed())
+            .thenComparing(Comparator.comparingInt(CatalogSuggestion::getInStock).reversed())
+            .thenComparing(CatalogSuggestion::getName)
+            .thenComparing(CatalogSuggestion::getBeverageType)
+            .thenComparingLong(CatalogSuggestion::getBeverageId);
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    private final SearchProperties searchProperties;
+
+    private final AtomicReference<SuggestionIndex> index;
+
+    // units sold per beverage, loaded once and then kept up to date by the orders placed
+    private final Map<BeverageType, Map<Long, Long>> popularity;
+    private final AtomicLong salesRevision;
+    private volatile boolean popularityLoaded;
+
+    private final AtomicBoolean rebuildPending;
+
+    private ExecutorService indexer;
+
+    @Autowired
+    public CatalogAutocompleteService(CatalogSnapshotService catalogSnapshotService,
+                                      OrderItemRepository orderItemRepository,
+                                      ArchivedOrderItemRepository archivedOrderItemRepository,
+                                      SearchProperties searchProperties) {
+        this.catalogSnapshotService = catalogSnapshotService;
+
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+
+        this.searchProperties = searchProperties;
+
+        index = new AtomicReference<>();
+
+        popularity = new EnumMap<>(BeverageType.class);
+        for (BeverageType beverageType : BeverageType.values()) {
+            popularity.put(beverageType, new ConcurrentHashMap<>());
+        }
+
+        salesRevision = new AtomicLong(0);
+        popularityLoaded = false;
+
+        rebuildPending = new AtomicBoolean(false);
+    }
+
+    @PostConstruct
+    public void start() {
+        indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-autocomplete-indexer");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        indexer.shutdownNow();
+    }
+
+    public void recordSales(List<CartItem> cartItems) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addSales(cartItems);
+                }
+            });
+        } else {
+            addSales(cartItems);
+        }
+    }
+
+    public List<CatalogSuggestion> suggest(String prefix, BeverageType beverageType, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        SuggestionIndex suggestionIndex = getIndex(snapshot);
+
+        // the candidates of a prefix are ranked by popularity alone, their stock is read from the current snapshot
+        return (beverageType == null
+                ? suggestionIndex.all
+                : suggestionIndex.byType.get(beverageType)).lookup(prefix)
+                .stream()
+                .map(x -> withStock(x, snapshot))
+                .sorted(SUGGESTION_ORDER)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    // a stale index keeps being served while its replacement is built in the background, only the very first lookup builds one itself
+    private SuggestionIndex getIndex(CatalogSnapshot snapshot) {
+        SuggestionIndex currentIndex = index.get();
+
+        if (currentIndex == null) {
+            return buildFirstIndex();
+        }
+
+        if (currentIndex.revision != snapshot.getContentRevision() || currentIndex.salesRevision != salesRevision.get()) {
+            scheduleRebuild();
+        }
+
+        return currentIndex;
+    }
+
+    private synchronized SuggestionIndex buildFirstIndex() {
+        if (index.get() == null) {
+            index.set(buildIndex());
+        }
+
+        return index.get();
+    }
+
+    // changes arriving while a rebuild is queued are picked up by that rebuild
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            indexer.execute(() -> {
+                rebuildPending.set(false);
+
+                try {
+                    index.set(buildIndex());
+                } catch (RuntimeException e) {
+                    log.error("Rebuilding autocomplete index - failed", e);
+                }
+            });
+        }
+    }
+
+    // shares the lock of loadPopularity, so sales are either read by the first load or added on top of it
+    private synchronized void addSales(List<CartItem> cartItems) {
+        if (!popularityLoaded) {
+            // the first load reads the committed orders, this one included
+            return;
+        }
+
+        for (CartItem cartItem : cartItems) {
+            popularity.get(cartItem.getBeverageType()).merge(cartItem.getBeverageId(), (long) cartItem.getQuantity(), Long::sum);
+        }
+
+        salesRevision.incrementAndGet();
+    }
+
+    private synchronized void loadPopularity() {
+        if (popularityLoaded) {
+            return;
+        }
+
+        List<BeverageSales> allBeverageSales = new ArrayList<>(orderItemRepository.findAllBeverageSales());
+        allBeverageSales.addAll(archivedOrderItemRepository.findAllBeverageSales());
+
+        for (BeverageSales beverageSales : allBeverageSales) {
+            if (beverageSales.getBeverageId() != null) {
+                popularity.get(beverageSales.getBeverageType()).merge(beverageSales.getBeverageId(), beverageSales.getQuantity(), Long::sum);
+            }
+        }
+
+        popularityLoaded = true;
+    }
+
+    private SuggestionIndex buildIndex() {
+        loadPopularity();
+
+        long currentSalesRevision = salesRevision.get();
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+
+        Map<BeverageType, List<CatalogSuggestion>> suggestions = new EnumMap<>(BeverageType.class);
+
+        suggestions.put(BeverageType.BOTTLE, new ArrayList<>());
+        for (Bottle bottle : snapshot.getBottles()) {
+            suggestions.get(BeverageType.BOTTLE).add(new CatalogSuggestion(BeverageType.BOTTLE, bottle.getId(), bottle.getName(), bottle.getInStock(), popularity.get(BeverageType.BOTTLE).getOrDefault(bottle.getId(), 0L)));
+        }
+
+        suggestions.put(BeverageType.CRATE, new ArrayList<>());
+        for (Crate crate : snapshot.getCrates()) {
+            suggestions.get(BeverageType.CRATE).add(new CatalogSuggestion(BeverageType.CRATE, crate.getId(), crate.getName(), crate.getInStock(), popularity.get(BeverageType.CRATE).getOrDefault(crate.getId(), 0L)));
+        }
+
+        int maxSuggestions = searchProperties.getSuggestionLimit();
+
+        Map<BeverageType, SuggestionTrie> byType = new EnumMap<>(BeverageType.class);
+        suggestions.forEach((beverageType, typeSuggestions) -> byType.put(beverageType, SuggestionTrie.build(typeSuggestions, maxSuggestions)));
+
+        List<CatalogSuggestion> allSuggestions = suggestions.values()
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+
+        return new SuggestionIndex(snapshot.getContentRevision(), currentSalesRevision, SuggestionTrie.build(allSuggestions, maxSuggestions), byType);
+    }
+
+    private static CatalogSuggestion withStock(CatalogSuggestion suggestion, CatalogSnapshot snapshot) {
+        Beverage beverage = suggestion.getBeverageType() == BeverageType.BOTTLE
+                ? snapshot.getBottlesById().get(suggestion.getBeverageId())
+                : snapshot.getCratesById().get(suggestion.getBeverageId());
+
+        return new CatalogSuggestion(suggestion.getBeverageType(), suggestion.getBeverageId(), suggestion.getName(), beverage == null ? 0 : beverage.getInStock(), suggestion.getPopularity());
+    }
+
+    private static char fold(char character) {
+        if (character < 0x80) {
+            return Character.toLowerCase(character);
+        }
+
+        return Character.toLowerCase(Normalizer.normalize(String.valueOf(character), Normalizer.Form.NFD).charAt(0));
+    }
+
+    // lower cased name with diacritics stripped and every run of separators collapsed into a single space
+    private static String normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        boolean pendingSeparator = false;
+
+        for (int i = 0; i < name.length(); i++) {
+            char character = name.charAt(i);
+
+            if (Character.isLetterOrDigit(character)) {
+                if (pendingSeparator && key.length() > 0) {
+                    key.append(WORD_SEPARATOR);
+                }
+
+                pendingSeparator = false;
+                key.append(fold(character));
+            } else {
+                pendingSeparator = true;
+            }
+        }
+
+        return key.toString();
+    }
+
+    @AllArgsConstructor
+    private static class SuggestionIndex {
+        private final long revision;
+        private final long salesRevision;
+        private final SuggestionTrie all;
+        private final Map<BeverageType, SuggestionTrie> byType;
+    }
+
+    // children of a node are stored contiguously and ordered by label, each node keeps its best ranked suggestions
+    @AllArgsConstructor
+    private static class SuggestionTrie {
+        private final char[] labels;
+        private final int[] firstChild;
+        private final int[] childCount;
+        private final int[] suggestionOffset;
+        private final int[] suggestionIds;
+        private final CatalogSuggestion[] suggestions;
+
+        private List<CatalogSuggestion> lookup(String prefix) {
+            int node = 0;
+            boolean started = false, pendingSeparator = false;
+
+            for (int i = 0; i < prefix.length() && node >= 0; i++) {
+                char character = prefix.charAt(i);
+
+                if (Character.isLetterOrDigit(character)) {
+                    if (pendingSeparator && started) {
+                        node = findChild(node, WORD_SEPARATOR);
+                    }
+
+                    if (node >= 0) {
+                        node = findChild(node, fold(character));
+                    }
+
+                    started = true;
+                    pendingSeparator = false;
+                } else {
+                    pendingSeparator = true;
+                }
+            }
+
+            if (node <= 0) {
+                return Collections.emptyList();
+            }
+
+            int fromIndex = suggestionOffset[node];
+            int toIndex = suggestionOffset[node + 1];
+
+            List<CatalogSuggestion> result = new ArrayList<>(toIndex - fromIndex);
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                result.add(suggestions[suggestionIds[i]]);
+            }
+
+            return result;
+        }
+
+        private int findChild(int node, char label) {
+            int low = firstChild[node], high = low + childCount[node] - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+
+                if (labels[middle] < label) {
+                    low = middle + 1;
+                } else if (labels[middle] > label) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+
+            return -1;
+        }
+
+        private static SuggestionTrie build(List<CatalogSuggestion> catalogSuggestions, int maxSuggestions) {
+            CatalogSuggestion[] suggestions = catalogSuggestions.stream()
+                    .sorted(INDEX_ORDER)
+                    .toArray(CatalogSuggestion[]::new);
+
+            TrieNode root = new TrieNode('\0', maxSuggestions);
+
+            // suggestions are inserted best ranked first, so every node ends up with its top entries in order
+            for (int suggestionId = 0; suggestionId < suggestions.length; suggestionId++) {
+                String key = normalize(suggestions[suggestionId].getName());
+
+                for (int start = 0; start < key.length(); start++) {
+                    if (start == 0 || key.charAt(start - 1) == WORD_SEPARATOR) {
+                        root.insert(key, start, suggestionId, maxSuggestions);
+                    }
+                }
+            }
+
+            List<TrieNode> nodes = new ArrayList<>();
+            nodes.add(root);
+
+            for (int i = 0; i < nodes.size(); i++) {
+                TrieNode node = nodes.get(i);
+
+                node.firstChild = nodes.size();
+                nodes.addAll(node.children.values());
+            }
+
+            char[] labels = new char[nodes.size()];
+            int[] firstChild = new int[nodes.size()];
+            int[] childCount = new int[nodes.size()];
+            int[] suggestionOffset = new int[nodes.size() + 1];
+
+            for (int i = 0; i < nodes.size(); i++) {
+                TrieNode node = nodes.get(i);
+
+                labels[i] = node.label;
+                firstChild[i] = node.firstChild;
+                childCount[i] = node.children.size();
+                suggestionOffset[i + 1] = suggestionOffset[i] + node.suggestionCount;
+            }
+
+            int[] suggestionIds = new int[suggestionOffset[nodes.size()]];
+
+            for (int i = 0; i < nodes.size(); i++) {
+                System.arraycopy(nodes.get(i).suggestionIds, 0, suggestionIds, suggestionOffset[i], nodes.get(i).suggestionCount);
+            }
+
+            return new SuggestionTrie(labels, firstChild, childCount, suggestionOffset, suggestionIds, suggestions);
+        }
+    }
+
+    private static class TrieNode {
+        private final char label;
+        private final TreeMap<Character, TrieNode> children;
+        private final int[] suggestionIds;
+        private int suggestionCount;
+        private int firstChild;
+
+        private TrieNode(char label, int maxSuggestions) {
+            this.label = label;
+
+            children = new TreeMap<>();
+            suggestionIds = new int[maxSuggestions];
+            suggestionCount = 0;
+        }
+
+        private void insert(String key, int start, int suggestionId, int maxSuggestions) {
+            TrieNode node = this;
+
+            for (int i = start; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), x -> new TrieNode(x, maxSuggestions));
+                node.add(suggestionId);
+            }
+        }
+
+        private void add(int suggestionId) {
+            if (suggestionCount < suggestionIds.length && (suggestionCount == 0 || suggestionIds[suggestionCount - 1] != suggestionId)) {
+                suggestionIds[suggestionCount++] = suggestionId;
+            }
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogImportResult;
+import de.uniba.dsg.beverage_store.spring_boot.model.ImportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BeverageDTO;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BeverageStockImportDTO;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BottleDTO;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.CrateDTO;
+import de.uniba.dsg.beverage_store.spring_boot.properties.ImportProperties;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class CatalogImportService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final SequenceService sequenceService;
+    private final StockEventBus stockEventBus;
+
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CatalogImportService(CatalogSnapshotService catalogSnapshotService,
+                                SequenceService sequenceService,
+                                StockEventBus stockEventBus,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ImportProperties importProperties,
+                                TransactionTemplate transactionTemplate,
+                                NamedParameterJdbcTemplate jdbcTemplate) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.sequenceService = sequenceService;
+        this.stockEventBus = stockEventBus;
+
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importProperties = importProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public CatalogImportResult importBottles(InputStream inputStream, ImportFormat format) throws IOException {
+        return importRows(inputStream, format, BottleDTO.class, this::writeBottles);
+    }
+
+    public CatalogImportResult importCrates(InputStream inputStream, ImportFormat format) throws IOException {
+        return importRows(inputStream, format, CrateDTO.class, this::writeCrates);
+    }
+
+    public CatalogImportResult importStock(InputStream inputStream, ImportFormat format) throws IOException {
+        return importRows(inputStream, format, BeverageStockImportDTO.class, this::writeStock);
+    }
+
+    private <T> CatalogImportResult importRows(InputStream inputStream, ImportFormat format, Class<T> rowType, ChunkWriter<T> chunkWriter) throws IOException {
+        CatalogImportResult result = new CatalogImportResult(importProperties.getMaxReportedErrors());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            List<ImportRow<T>> chunk = new ArrayList<>(importProperties.getChunkSize());
+
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                if (format == ImportFormat.CSV && header == null) {
+                    header = Helper.parseCsvLine(line);
+
+                    continue;
+                }
+
+                result.addRow();
+
+                T row;
+
+                try {
+                    row = format == ImportFormat.CSV
+                            ? mapCsvRow(header, Helper.parseCsvLine(line), rowType)
+                            : objectMapper.readValue(line, rowType);
+                } catch (IOException | IllegalArgumentException e) {
+                    result.addError(lineNumber, "Row could not be parsed.");
+
+                    continue;
+                }
+
+                Set<ConstraintViolation<T>> violations = validator.validate(row);
+
+                if (!violations.isEmpty()) {
+                    result.addError(lineNumber, violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+
+                    continue;
+                }
+
+                chunk.add(new ImportRow<>(lineNumber, row));
+
+                if (chunk.size() >= importProperties.getChunkSize()) {
+                    writeChunk(chunk, chunkWriter, result);
+
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, chunkWriter, result);
+            }
+        }
+
+        return result;
+    }
+
+    private <T> T mapCsvRow(List<String> header, List<String> values, Class<T> rowType) {
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+        }
+
+        Map<String, String> row = new HashMap<>();
+
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+        }
+
+        return objectMapper.convertValue(row, rowType);
+    }
+
+    private <T> void writeChunk(List<ImportRow<T>> chunk, ChunkWriter<T> chunkWriter, CatalogImportResult result) {
+        CatalogImportResult chunkResult = new CatalogImportResult(importProperties.getMaxReportedErrors());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<StockLevel> stockLevels = chunkWriter.write(chunk, chunkResult);
+
+                stockEventBus.publish(stockLevels);
+            });
+
+            result.merge(chunkResult);
+        } catch (RuntimeException e) {
+            String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+
+            chunk.forEach(x -> result.addError(x.line, message));
+        }
+    }
+
+    private List<StockLevel> writeBottles(List<ImportRow<BottleDTO>> chunk, CatalogImportResult result) {
+        Map<String, ImportRow<BottleDTO>> rows = latestRowsByName(chunk, result);
+        Map<String, Long> existingIds = findIdsByName("bottle", rows.keySet());
+
+        List<MapSqlParameterSource> inserts = new ArrayList<>(), updates = new ArrayList<>();
+        List<StockLevel> stockLevels = new ArrayList<>();
+
+        for (ImportRow<BottleDTO> row : rows.values()) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("id", existingIds.get(row.value.getName()))
+                    .addValue("name", row.value.getName())
+                    .addValue("picUrl", row.value.getPicUrl())
+                    .addValue("price", row.value.getPrice())
+                    .addValue("inStock", row.value.getInStock())
+                    .addValue("volume", row.value.getVolume())
+                    .addValue("volumePercent", row.value.getVolumePercent())
+                    .addValue("supplier", row.value.getSupplier());
+
+            if (existingIds.containsKey(row.value.getName())) {
+                updates.add(parameters);
+                result.addUpdated();
+            } else {
+                parameters.addValue("id", sequenceService.nextId(Bottle.class));
+
+                inserts.add(parameters);
+                result.addInserted();
+            }
+
+            stockLevels.add(new StockLevel(BeverageType.BOTTLE, (Long) parameters.getValue("id"), row.value.getName(), row.value.getInStock()));
+        }
+
+        batchUpdate("INSERT INTO bottle (id, name, pic_url, price, in_stock, volume, volume_percent, supplier) " +
+                "VALUES (:id, :name, :picUrl, :price, :inStock, :volume, :volumePercent, :supplier)", inserts);
+        batchUpdate("UPDATE bottle SET pic_url = :picUrl, price = :price, in_stock = :inStock, volume = :volume, " +
+                "volume_percent = :volumePercent, supplier = :supplier WHERE id = :id", updates);
+
+        catalogSnapshotService.invalidate();
+
+        return stockLevels;
+    }
+
+    private List<StockLevel> writeCrates(List<ImportRow<CrateDTO>> chunk, CatalogImportResult result) {
+        Map<String, ImportRow<CrateDTO>> rows = latestRowsByName(chunk, result);
+        Map<String, Long> existingIds = findIdsByName("crate", rows.keySet());
+        Set<Long> bottleIds = findExistingIds("bottle", rows.values()
+                .stream()
+                .map(x -> x.value.getBottleId())
+                .collect(Collectors.toSet()));
+
+        List<MapSqlParameterSource> inserts = new ArrayList<>(), updates = new ArrayList<>();
+        List<StockLevel> stockLevels = new ArrayList<>();
+
+        for (ImportRow<CrateDTO> row : rows.values()) {
+            if (!bottleIds.contains(row.value.getBottleId())) {
+                result.addError(row.line, "No Bottle found with ID: " + row.value.getBottleId());
+
+                continue;
+            }
+
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("id", existingIds.get(row.value.getName()))
+                    .addValue("name", row.value.getName())
+                    .addValue("picUrl", row.value.getPicUrl())
+                    .addValue("price", row.value.getPrice())
+                    .addValue("inStock", row.value.getInStock())
+                    .addValue("noOfBottles", row.value.getNoOfBottles())
+                    .addValue("bottleId", row.value.getBottleId());
+
+            if (existingIds.containsKey(row.value.getName())) {
+                updates.add(parameters);
+                result.addUpdated();
+            } else {
+                parameters.addValue("id", sequenceService.nextId(Crate.class));
+
+                inserts.add(parameters);
+                result.addInserted();
+            }
+
+            stockLevels.add(new StockLevel(BeverageType.CRATE, (Long) parameters.getValue("id"), row.value.getName(), row.value.getInStock()));
+        }
+
+        batchUpdate("INSERT INTO crate (id, name, pic_url, price, in_stock, no_of_bottles, bottle_id) " +
+                "VALUES (:id, :name, :picUrl, :price, :inStock, :noOfBottles, :bottleId)", inserts);
+        batchUpdate("UPDATE crate SET pic_url = :picUrl, price = :price, in_stock = :inStock, no_of_bottles = :noOfBottles, " +
+                "bottle_id = :bottleId WHERE id = :id", updates);
+
+        catalogSnapshotService.invalidate();
+
+        return stockLevels;
+    }
+
+    // only stock levels change, so they are patched into the catalog snapshot instead of reloading it
+    private List<StockLevel> writeStock(List<ImportRow<BeverageStockImportDTO>> chunk, CatalogImportResult result) {
+        List<StockLevel> stockLevels = new ArrayList<>();
+
+        for (BeverageType beverageType : BeverageType.values()) {
+            List<ImportRow<BeverageStockImportDTO>> rows = chunk.stream()
+                    .filter(x -> x.value.getBeverageType() == beverageType)
+                    .collect(Collectors.toList());
+
+            List<MapSqlParameterSource> updates = rows.stream()
+                    .map(x -> new MapSqlParameterSource()
+                            .addValue("id", x.value.getBeverageId())
+                            .addValue("quantity", x.value.getQuantity()))
+                    .collect(Collectors.toList());
+
+            int[] updateCounts = batchUpdate("UPDATE " + getTableName(beverageType) + " SET in_stock = in_stock + :quantity WHERE id = :id", updates);
+
+            Set<Long> updatedIds = new HashSet<>();
+
+            for (int i = 0; i < rows.size(); i++) {
+                if (updateCounts[i] == 0) {
+                    result.addError(rows.get(i).line, "No " + beverageType.name() + " found with ID: " + rows.get(i).value.getBeverageId());
+                } else {
+                    updatedIds.add(rows.get(i).value.getBeverageId());
+                    result.addUpdated();
+                }
+            }
+
+            stockLevels.addAll(findStockLevels(beverageType, updatedIds));
+        }
+
+        catalogSnapshotService.updateStock(stockLevels);
+
+        return stockLevels;
+    }
+
+    // rows repeating a name within one chunk would otherwise insert the same beverage twice, the last one wins and the others are skipped
+    private <T extends BeverageDTO> Map<String, ImportRow<T>> latestRowsByName(List<ImportRow<T>> chunk, CatalogImportResult result) {
+        Map<String, ImportRow<T>> rows = new LinkedHashMap<>();
+
+        for (ImportRow<T> row : chunk) {
+            if (rows.put(row.value.getName(), row) != null) {
+                result.addSkipped();
+            }
+        }
+
+        return rows;
+    }
+
+    private List<StockLevel> findStockLevels(BeverageType beverageType, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return jdbcTemplate.query("SELECT id, name, in_stock FROM " + getTableName(beverageType) + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                (resultSet, rowNumber) -> new StockLevel(beverageType, resultSet.getLong("id"), resultSet.getString("name"), resultSet.getInt("in_stock")));
+    }
+
+    private Map<String, Long> findIdsByName(String tableName, Set<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+
+        if (names.isEmpty()) {
+            return ids;
+        }
+
+        jdbcTemplate.query("SELECT name, MIN(id) AS id FROM " + tableName + " WHERE name IN (:names) GROUP BY name",
+                new MapSqlParameterSource("names", names),
+                resultSet -> {
+                    ids.put(resultSet.getString("name"), resultSet.getLong("id"));
+                });
+
+        return ids;
+    }
+
+    private Set<Long> findExistingIds(String tableName, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM " + tableName + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                Long.class));
+    }
+
+    private int[] batchUpdate(String sql, List<MapSqlParameterSource> parameters) {
+        if (parameters.isEmpty()) {
+            return new int[0];
+        }
+
+        return jdbcTemplate.batchUpdate(sql, parameters.toArray(new MapSqlParameterSource[0]));
+    }
+
+    private String getTableName(BeverageType beverageType) {
+        return beverageType == BeverageType.BOTTLE
+                ? "bottle"
+                : "crate";
+    }
+
+    private interface ChunkWriter<T> {
+        List<StockLevel> write(List<ImportRow<T>> chunk, CatalogImportResult result);
+    }
+
+    @AllArgsConstructor
+    private static class ImportRow<T> {
+        private final long line;
+        private final T value;
+    }
+}
@@ -0,0 +1,289 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSearchHit;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSnapshot;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Beverage;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+public class CatalogSearchService {
+
+    private static final double NAME_WEIGHT = 3;
+    private static final double CRATE_BOTTLE_NAME_WEIGHT = 2;
+    private static final double SUPPLIER_WEIGHT = 1;
+
+    private static final double EXACT_MATCH = 1;
+    private static final double PREFIX_MATCH = 0.75;
+    private static final double TYPO_MATCH = 0.5;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final AtomicReference<SearchIndex> index;
+
+    @Autowired
+    public CatalogSearchService(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+
+        index = new AtomicReference<>();
+    }
+
+    public List<CatalogSearchHit> search(String query, BeverageType beverageType, int limit) {
+        List<String> tokens = tokenize(query);
+
+        if (tokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        SearchIndex searchIndex = getIndex(snapshot);
+
+        Map<Integer, Double> scores = new HashMap<>();
+        Map<Integer, Integer> matchedTokens = new HashMap<>();
+
+        for (String token : tokens) {
+            Map<Integer, Double> tokenScores = new HashMap<>();
+
+            collect(searchIndex, token, EXACT_MATCH, beverageType, tokenScores);
+
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                for (String term : searchIndex.terms.subSet(token, false, token + Character.MAX_VALUE, false)) {
+                    collect(searchIndex, term, PREFIX_MATCH, beverageType, tokenScores);
+                }
+            }
+
+            if (token.length() >= MIN_TYPO_LENGTH) {
+                for (String term : getTypoCandidates(searchIndex, token)) {
+                    collect(searchIndex, term, TYPO_MATCH, beverageType, tokenScores);
+                }
+            }
+
+            tokenScores.forEach((documentId, score) -> {
+                scores.merge(documentId, score, Double::sum);
+                matchedTokens.merge(documentId, 1, Integer::sum);
+            });
+        }
+
+        return scores.keySet()
+                .stream()
+                .sorted(Comparator.<Integer>comparingInt(matchedTokens::get).reversed()
+                        .thenComparing(Comparator.<Integer>comparingDouble(scores::get).reversed())
+                        .thenComparing(documentId -> searchIndex.documents.get(documentId).getName())
+                        .thenComparing(documentId -> searchIndex.documents.get(documentId).getId()))
+                .limit(limit)
+                .map(documentId -> buildHit(searchIndex, snapshot, documentId, scores.get(documentId)))
+                .collect(Collectors.toList());
+    }
+
+    public List<Long> searchIds(String query, BeverageType beverageType, int limit) {
+        return search(query, beverageType, limit)
+                .stream()
+                .map(CatalogSearchHit::getBeverageId)
+                .collect(Collectors.toList());
+    }
+
+    // stock patches keep the content revision, so the index is only rebuilt when the catalog itself was reloaded
+    private SearchIndex getIndex(CatalogSnapshot snapshot) {
+        SearchIndex currentIndex = index.get();
+
+        if (currentIndex != null && currentIndex.revision == snapshot.getContentRevision()) {
+            return currentIndex;
+        }
+
+        return index.accumulateAndGet(buildIndex(snapshot), (existing, rebuilt) -> existing != null && existing.revision > rebuilt.revision
+                ? existing
+                : rebuilt);
+    }
+
+    private SearchIndex buildIndex(CatalogSnapshot snapshot) {
+        List<Beverage> documents = new ArrayList<>();
+        List<BeverageType> documentTypes = new ArrayList<>();
+        Map<String, Map<Integer, Double>> postings = new HashMap<>();
+
+        for (Bottle bottle : snapshot.getBottles()) {
+            int documentId = documents.size();
+
+            documents.add(bottle);
+            documentTypes.add(BeverageType.BOTTLE);
+
+            addField(postings, documentId, bottle.getName(), NAME_WEIGHT);
+            addField(postings, documentId, bottle.getSupplier(), SUPPLIER_WEIGHT);
+        }
+
+        for (Crate crate : snapshot.getCrates()) {
+            int documentId = documents.size();
+
+            documents.add(crate);
+            documentTypes.add(BeverageType.CRATE);
+
+            addField(postings, documentId, crate.getName(), NAME_WEIGHT);
+
+            if (crate.getBottle() != null) {
+                addField(postings, documentId, crate.getBottle().getName(), CRATE_BOTTLE_NAME_WEIGHT);
+            }
+        }
+
+        Map<String, List<String>> deletions = new HashMap<>();
+
+        for (String term : postings.keySet()) {
+            if (term.length() >= MIN_TYPO_LENGTH) {
+                for (String deletion : getDeletions(term)) {
+                    deletions.computeIfAbsent(deletion, x -> new ArrayList<>()).add(term);
+                }
+            }
+        }
+
+        return new SearchIndex(snapshot.getContentRevision(), documents, documentTypes, postings, new TreeSet<>(postings.keySet()), deletions);
+    }
+
+    private void addField(Map<String, Map<Integer, Double>> postings, int documentId, String value, double weight) {
+        for (String token : tokenize(value)) {
+            postings.computeIfAbsent(token, x -> new HashMap<>())
+                    .merge(documentId, weight, Math::max);
+        }
+    }
+
+    private void collect(SearchIndex searchIndex, String term, double quality, BeverageType beverageType, Map<Integer, Double> tokenScores) {
+        Map<Integer, Double> termPostings = searchIndex.postings.get(term);
+
+        if (termPostings == null) {
+            return;
+        }
+
+        termPostings.forEach((documentId, weight) -> {
+            if (beverageType == null || searchIndex.documentTypes.get(documentId) == beverageType) {
+                tokenScores.merge(documentId, quality * weight, Math::max);
+            }
+        });
+    }
+
+    // terms within a single insertion, deletion, substitution or adjacent transposition of the token
+    private Set<String> getTypoCandidates(SearchIndex searchIndex, String token) {
+        Set<String> candidates = new HashSet<>(searchIndex.deletions.getOrDefault(token, Collections.emptyList()));
+
+        for (String deletion : getDeletions(token)) {
+            if (searchIndex.postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+
+            candidates.addAll(searchIndex.deletions.getOrDefault(deletion, Collections.emptyList()));
+        }
+
+        candidates.remove(token);
+        candidates.removeIf(candidate -> !isSingleEdit(token, candidate));
+
+        return candidates;
+    }
+
+    private List<String> getDeletions(String term) {
+        List<String> deletions = new ArrayList<>(term.length());
+
+        for (int i = 0; i < term.length(); i++) {
+            deletions.add(term.substring(0, i) + term.substring(i + 1));
+        }
+
+        return deletions;
+    }
+
+    private boolean isSingleEdit(String first, String second) {
+        if (first.length() < second.length()) {
+            return isSingleEdit(second, first);
+        }
+
+        if (first.length() - second.length() > 1) {
+            return false;
+        }
+
+        int prefix = 0;
+        while (prefix < second.length() && first.charAt(prefix) == second.charAt(prefix)) {
+            prefix++;
+        }
+
+        if (first.length() != second.length()) {
+            return first.substring(prefix + 1).equals(second.substring(prefix));
+        }
+
+        if (first.substring(prefix + 1).equals(second.substring(prefix + 1))) {
+            return true;
+        }
+
+        return prefix + 1 < first.length()
+                && first.charAt(prefix) == second.charAt(prefix + 1)
+                && first.charAt(prefix + 1) == second.charAt(prefix)
+                && first.substring(prefix + 2).equals(second.substring(prefix + 2));
+    }
+
+    private List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        String normalizedValue = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(TOKEN_SEPARATOR.split(normalizedValue))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // the stock level is taken from the current snapshot, it may have been patched since the index was built
+    private CatalogSearchHit buildHit(SearchIndex searchIndex, CatalogSnapshot snapshot, int documentId, double score) {
+        Beverage beverage = searchIndex.documents.get(documentId);
+        BeverageType beverageType = searchIndex.documentTypes.get(documentId);
+
+        Beverage currentBeverage = beverageType == BeverageType.BOTTLE
+                ? snapshot.getBottlesById().get(beverage.getId())
+                : snapshot.getCratesById().get(beverage.getId());
+
+        return new CatalogSearchHit(
+                beverageType,
+                beverage.getId(),
+                beverage.getName(),
+                beverage.getPicUrl(),
+                beverage.getPrice(),
+                currentBeverage == null
+                        ? beverage.getInStock()
+                        : currentBeverage.getInStock(),
+                score
+        );
+    }
+
+    @AllArgsConstructor
+    private static class SearchIndex {
+        private final long revision;
+        private final List<Beverage> documents;
+        private final List<BeverageType> documentTypes;
+        private final Map<String, Map<Integer, Double>> postings;
+        private final NavigableSet<String> terms;
+        private final Map<String, List<String>> deletions;
+    }
+}
@@ -0,0 +1,329 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogCursor;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSnapshot;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Beverage;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+@Service
+public class CatalogSnapshotService {
+
+    private final CrateRepository crateRepository;
+    private final BottleRepository bottleRepository;
+
+    private final AtomicLong revision;
+    private final AtomicReference<CatalogSnapshot> snapshot;
+
+    private final AtomicInteger pendingReloads;
+    private final AtomicBoolean reloading;
+
+    @Autowired
+    public CatalogSnapshotService(CrateRepository crateRepository,
+                                  BottleRepository bottleRepository) {
+        this.crateRepository = crateRepository;
+        this.bottleRepository = bottleRepository;
+
+        revision = new AtomicLong(0);
+        snapshot = new AtomicReference<>();
+
+        pendingReloads = new AtomicInteger(0);
+        reloading = new AtomicBoolean(false);
+    }
+
+    public long getRevision() {
+        return getSnapshot().getRevision();
+    }
+
+    public Page<Bottle> getBottlePage(int page, int size) {
+        return getPage(getSnapshot().getBottles(), page, size, this::copyBottle);
+    }
+
+    public Page<Crate> getCratePage(int page, int size) {
+        return getPage(getSnapshot().getCrates(), page, size, this::copyCrate);
+    }
+
+    public CursorPage<Bottle> getBottleCursorPage(String cursor, int size) {
+        CatalogSnapshot currentSnapshot = getSnapshot();
+
+        return getCursorPage(currentSnapshot.getBottles(), currentSnapshot.getBottlePositions(), cursor, size, this::copyBottle);
+    }
+
+    public CursorPage<Crate> getCrateCursorPage(String cursor, int size) {
+        CatalogSnapshot currentSnapshot = getSnapshot();
+
+        return getCursorPage(currentSnapshot.getCrates(), currentSnapshot.getCratePositions(), cursor, size, this::copyCrate);
+    }
+
+    public List<Bottle> getBottles(List<Long> ids) {
+        return getByIds(getSnapshot().getBottlesById(), ids, this::copyBottle);
+    }
+
+    public List<Crate> getCrates(List<Long> ids) {
+        return getByIds(getSnapshot().getCratesById(), ids, this::copyCrate);
+    }
+
+    // readers never reload, they keep getting the published snapshot while a writer replaces it
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot currentSnapshot = snapshot.get();
+
+        if (currentSnapshot != null) {
+            return currentSnapshot;
+        }
+
+        synchronized (this) {
+            if (snapshot.get() == null) {
+                snapshot.set(load());
+            }
+
+            return snapshot.get();
+        }
+    }
+
+    // for changes beyond stock levels, the catalog is reloaded once the writing transaction is over
+    public void invalidate() {
+        afterCompletion(this::reload);
+    }
+
+    // stock levels are patched into the published snapshot instead of reloading the catalog
+    public void updateStock(List<StockLevel> stockLevels) {
+        afterCommit(() -> {
+            Map<Long, Integer> bottleLevels = new HashMap<>(), crateLevels = new HashMap<>();
+
+            for (StockLevel stockLevel : stockLevels) {
+                (stockLevel.getBeverageType() == BeverageType.BOTTLE ? bottleLevels : crateLevels).put(stockLevel.getBeverageId(), stockLevel.getInStock());
+            }
+
+            // waits for a reload in progress, which may have read the rows before this transaction committed
+            synchronized (this) {
+                CatalogSnapshot existing = snapshot.get();
+
+                if (existing != null) {
+                    snapshot.set(new CatalogSnapshot(
+                            revision.incrementAndGet(),
+                            existing.getContentRevision(),
+                            patchStock(existing.getBottles(), bottleLevels, this::copyBottle),
+                            patchStock(existing.getCrates(), crateLevels, this::copyCrate)
+                    ));
+                }
+            }
+        });
+    }
+
+    // a snapshot built while the writing transaction is still open could hold uncommitted or rolled back rows
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // unlike a reload, a patch applies the levels it was given, so those of a rolled back transaction must never land
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // single flight, a writer finding a reload in progress leaves it to that one, which reloads again if asked to meanwhile
+    private void reload() {
+        pendingReloads.incrementAndGet();
+
+        while (pendingReloads.get() > 0 && reloading.compareAndSet(false, true)) {
+            try {
+                synchronized (this) {
+                    pendingReloads.set(0);
+
+                    snapshot.set(load());
+                }
+            } finally {
+                reloading.set(false);
+            }
+        }
+    }
+
+    private CatalogSnapshot load() {
+        long loadRevision = revision.incrementAndGet();
+
+        return new CatalogSnapshot(
+                loadRevision,
+                loadRevision,
+                bottleRepository.findAllByOrderByNameAscIdAsc()
+                        .stream()
+                        .map(this::copyBottle)
+                        .collect(Collectors.toUnmodifiableList()),
+                crateRepository.findAllByOrderByNameAscIdAsc()
+                        .stream()
+                        .map(this::copyCrate)
+                        .collect(Collectors.toUnmodifiableList())
+        );
+    }
+
+    private <T extends Beverage> List<T> patchStock(List<T> items, Map<Long, Integer> levels, UnaryOperator<T> copier) {
+        if (levels.isEmpty()) {
+            return items;
+        }
+
+        return items.stream()
+                .map(x -> {
+                    Integer inStock = levels.get(x.getId());
+
+                    if (inStock == null) {
+                        return x;
+                    }
+
+                    T patched = copier.apply(x);
+                    patched.setInStock(inStock);
+
+                    return patched;
+                })
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private <T> List<T> getByIds(Map<Long, T> items, List<Long> ids, UnaryOperator<T> copier) {
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(copier)
+                .collect(Collectors.toList());
+    }
+
+    private <T> Page<T> getPage(List<T> items, int page, int size, UnaryOperator<T> copier) {
+        Pageable pageable = PageRequest.of(page - 1, size);
+
+        int fromIndex = (int) Math.min(pageable.getOffset(), items.size());
+        int toIndex = Math.min(fromIndex + size, items.size());
+
+        List<T> content = items.subList(fromIndex, toIndex)
+                .stream()
+                .map(copier)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, items.size());
+    }
+
+    private <T extends Beverage> CursorPage<T> getCursorPage(List<T> items, Map<Long, Integer> positions, String cursor, int size, UnaryOperator<T> copier) {
+        int fromIndex = 0, toIndex = Math.min(size, items.size());
+
+        if (cursor != null && !cursor.isEmpty()) {
+            CatalogCursor catalogCursor = CatalogCursor.decode(cursor);
+
+            if (catalogCursor.isBefore()) {
+                toIndex = seek(items, positions, catalogCursor, true);
+                fromIndex = Math.max(0, toIndex - size);
+            } else {
+                fromIndex = seek(items, positions, catalogCursor, false);
+                toIndex = Math.min(fromIndex + size, items.size());
+            }
+        }
+
+        List<T> content = items.subList(fromIndex, toIndex)
+                .stream()
+                .map(copier)
+                .collect(Collectors.toList());
+
+        return new CursorPage<>(
+                content,
+                fromIndex > 0 && fromIndex < items.size()
+                        ? CatalogCursor.before(items.get(fromIndex)).encode()
+                        : null,
+                toIndex > 0 && toIndex < items.size()
+                        ? CatalogCursor.after(items.get(toIndex - 1)).encode()
+                        : null
+        );
+    }
+
+    // index of the first item at or after (inclusive) or strictly after the cursor key. the list is in database collation order,
+    // which can differ from String ordering, so the binary search is only a fallback for beverages that were removed or renamed
+    private <T extends Beverage> int seek(List<T> items, Map<Long, Integer> positions, CatalogCursor cursor, boolean inclusive) {
+        Integer position = positions.get(cursor.getId());
+
+        if (position != null && items.get(position).getName().equals(cursor.getName())) {
+            return inclusive
+                    ? position
+                    : position + 1;
+        }
+
+        int low = 0, high = items.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int result = cursor.compareTo(items.get(middle));
+
+            if (result > 0 || (result == 0 && !inclusive)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private Bottle copyBottle(Bottle bottle) {
+        return new Bottle(
+                bottle.getId(),
+                bottle.getName(),
+                bottle.getPicUrl(),
+                bottle.getVolume(),
+                bottle.getVolumePercent(),
+                bottle.getPrice(),
+                bottle.getSupplier(),
+                bottle.getInStock(),
+                null,
+                null
+        );
+    }
+
+    private Crate copyCrate(Crate crate) {
+        return new Crate(
+                crate.getId(),
+                crate.getName(),
+                crate.getPicUrl(),
+                crate.getNoOfBottles(),
+                crate.getPrice(),
+                crate.getInStock(),
+                crate.getBottle() == null
+                        ? null
+                        : copyBottle(crate.getBottle()),
+                null
+        );
+    }
+}
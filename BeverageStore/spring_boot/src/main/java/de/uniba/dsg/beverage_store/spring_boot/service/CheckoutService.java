@@ -0,0 +1,160 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.InvalidOperationException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.properties.OrderProperties;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+@Service
+public class CheckoutService {
+
+    private final OrderService orderService;
+
+    private final OrderProperties orderProperties;
+
+    private final Map<String, CompletableFuture<BeverageOrder>> inFlightCheckouts;
+
+    private final LinkedHashMap<String, CompletedCheckout> completedCheckouts;
+
+    @Autowired
+    public CheckoutService(OrderService orderService,
+                           OrderProperties orderProperties) {
+        this.orderService = orderService;
+
+        this.orderProperties = orderProperties;
+
+        inFlightCheckouts = new ConcurrentHashMap<>();
+        completedCheckouts = new LinkedHashMap<>();
+    }
+
+    public BeverageOrder checkout(String userName, Long deliveryAddressId, Long billingAddressId, String idempotencyKey) throws NotFoundException, InvalidOperationException, InsufficientStockException {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return orderService.createOrder(userName, deliveryAddressId, billingAddressId);
+        }
+
+        String checkoutKey = userName + ":" + idempotencyKey;
+
+        BeverageOrder completedOrder = getCompletedCheckout(checkoutKey);
+
+        if (completedOrder != null) {
+            return completedOrder;
+        }
+
+        CompletableFuture<BeverageOrder> checkout = new CompletableFuture<>();
+        CompletableFuture<BeverageOrder> inFlightCheckout = inFlightCheckouts.putIfAbsent(checkoutKey, checkout);
+
+        if (inFlightCheckout != null) {
+            return awaitCheckout(inFlightCheckout);
+        }
+
+        try {
+            BeverageOrder order = createOrder(userName, deliveryAddressId, billingAddressId, idempotencyKey);
+
+            putCompletedCheckout(checkoutKey, order);
+            checkout.complete(order);
+
+            return order;
+        } catch (Exception ex) {
+            checkout.completeExceptionally(ex);
+
+            throw ex;
+        } finally {
+            inFlightCheckouts.remove(checkoutKey, checkout);
+        }
+    }
+
+    // the unique key on the order table catches duplicates that got past the cache, e.g. after an eviction or a restart
+    private BeverageOrder createOrder(String userName, Long deliveryAddressId, Long billingAddressId, String idempotencyKey) throws NotFoundException, InvalidOperationException, InsufficientStockException {
+        Optional<BeverageOrder> existingOrder = orderService.getOrderByIdempotencyKey(userName, idempotencyKey);
+
+        if (existingOrder.isPresent()) {
+            return existingOrder.get();
+        }
+
+        try {
+            return orderService.createOrder(userName, deliveryAddressId, billingAddressId, idempotencyKey);
+        } catch (DataIntegrityViolationException ex) {
+            // the losing attempt rolled back before its cart would have been cleared, so only the committed order's session gives up its cart
+            return orderService.getOrderByIdempotencyKey(userName, idempotencyKey)
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    private BeverageOrder awaitCheckout(CompletableFuture<BeverageOrder> inFlightCheckout) throws NotFoundException, InvalidOperationException, InsufficientStockException {
+        try {
+            return inFlightCheckout.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while waiting for the checkout in progress.", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof NotFoundException) {
+                throw (NotFoundException) cause;
+            } else if (cause instanceof InvalidOperationException) {
+                throw (InvalidOperationException) cause;
+            } else if (cause instanceof InsufficientStockException) {
+                throw (InsufficientStockException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private synchronized BeverageOrder getCompletedCheckout(String checkoutKey) {
+        CompletedCheckout completedCheckout = completedCheckouts.get(checkoutKey);
+
+        if (completedCheckout == null) {
+            return null;
+        }
+
+        if (completedCheckout.expiresAt <= System.currentTimeMillis()) {
+            completedCheckouts.remove(checkoutKey);
+
+            return null;
+        }
+
+        return completedCheckout.order;
+    }
+
+    private synchronized void putCompletedCheckout(String checkoutKey, BeverageOrder order) {
+        long now = System.currentTimeMillis();
+
+        completedCheckouts.put(checkoutKey, new CompletedCheckout(order, now + orderProperties.getIdempotencyTtlSeconds() * 1000L));
+
+        // every entry lives equally long, so the expired ones are always at the head
+        Iterator<CompletedCheckout> iterator = completedCheckouts.values().iterator();
+
+        while (iterator.hasNext()) {
+            CompletedCheckout eldest = iterator.next();
+
+            if (eldest.expiresAt > now && completedCheckouts.size() <= orderProperties.getIdempotencyCacheSize()) {
+                break;
+            }
+
+            iterator.remove();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class CompletedCheckout {
+        private final BeverageOrder order;
+        private final long expiresAt;
+    }
+}
@@ -12,6 +12,9 @@ import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class FireStoreService {
@@ -33,7 +36,8 @@ public class FireStoreService {
         }
     }
 
-    public void storeOrder(Invoice invoice) {
+    // waits for the write, so a failed or timed out delivery surfaces to the outbox relay and gets retried
+    public void storeOrder(Invoice invoice, long timeoutSeconds) throws ExecutionException, InterruptedException, TimeoutException {
         if (fireStore == null)
             return;
 
@@ -51,6 +55,6 @@ public class FireStoreService {
         orderMap.put("items", invoice.getItems());
         orderMap.put("timestamp", LocalDateTime.now().toString());
 
-        documentReference.set(orderMap);
+        documentReference.set(orderMap).get(timeoutSeconds, TimeUnit.SECONDS);
     }
 }
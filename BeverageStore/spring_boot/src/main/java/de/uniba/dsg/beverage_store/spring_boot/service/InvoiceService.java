@@ -2,9 +2,12 @@ package de.uniba.dsg.beverage_store.spring_boot.service;
 
 import de.uniba.dsg.beverage_store.spring_boot.properties.InvoiceProperties;
 import de.uniba.dsg.models.Invoice;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Service
 public class InvoiceService {
     private final InvoiceProperties invoiceProperties;
@@ -17,4 +20,13 @@ public class InvoiceService {
         new RestTemplate()
                 .postForObject(invoiceProperties.getPdfGeneratorEndpoint(), invoice, String.class);
     }
+
+    public void generateInvoice(Invoice invoice, long timeoutSeconds) {
+        RestTemplate restTemplate = new RestTemplateBuilder()
+                .setConnectTimeout(Duration.ofSeconds(timeoutSeconds))
+                .setReadTimeout(Duration.ofSeconds(timeoutSeconds))
+                .build();
+
+        restTemplate.postForObject(invoiceProperties.getPdfGeneratorEndpoint(), invoice, String.class);
+    }
 }
@@ -0,0 +1,124 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.properties.ArchiveProperties;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class OrderArchiveService {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    private final ArchiveProperties archiveProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public OrderArchiveService(OrderRepository orderRepository,
+                               OrderItemRepository orderItemRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               ArchivedOrderItemRepository archivedOrderItemRepository,
+                               ArchiveProperties archiveProperties,
+                               TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+
+        this.archiveProperties = archiveProperties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-archiver");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        if (archiveProperties.getEnabled()) {
+            scheduler.scheduleWithFixedDelay(this::archiveSafely, 0, archiveProperties.getIntervalMinutes(), TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // every month older than the hot window moves in its own transaction, so a failure never leaves a month half archived
+    // months are archived oldest first and never past a postponed one, which keeps every archived order older than every live order
+    public int archiveColdMonths(YearMonth currentMonth) {
+        YearMonth firstHotMonth = currentMonth.minusMonths(archiveProperties.getHotMonths() - 1);
+        Optional<LocalDate> oldestOrderDate = orderRepository.findOldestOrderDate();
+
+        int archivedOrderCount = 0;
+
+        if (oldestOrderDate.isEmpty()) {
+            return archivedOrderCount;
+        }
+
+        for (YearMonth month = YearMonth.from(oldestOrderDate.get()); month.isBefore(firstHotMonth); month = month.plusMonths(1)) {
+            YearMonth coldMonth = month;
+
+            // an order whose rollup message is still pending has to stay live until the relay has applied it
+            if (orderRepository.existsByDateGreaterThanEqualAndDateLessThanAndSalesRolledUpFalse(coldMonth.atDay(1), coldMonth.plusMonths(1).atDay(1))) {
+                log.info("Archiving orders of " + coldMonth + " - postponed, sales rollups are still pending");
+
+                break;
+            }
+
+            Integer orderCount = transactionTemplate.execute(status -> archiveMonth(coldMonth));
+
+            if (orderCount != null && orderCount > 0) {
+                log.info("Archiving orders of " + coldMonth + " - completed, archived " + orderCount + " orders");
+
+                archivedOrderCount += orderCount;
+            }
+        }
+
+        return archivedOrderCount;
+    }
+
+    private int archiveMonth(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+
+        archivedOrderRepository.archive(from, to);
+        archivedOrderItemRepository.archive(from, to);
+
+        orderItemRepository.deleteAllByOrderDateRange(from, to);
+
+        return orderRepository.deleteAllByDateRange(from, to);
+    }
+
+    private void archiveSafely() {
+        try {
+            archiveColdMonths(YearMonth.now());
+        } catch (RuntimeException e) {
+            log.error("Archiving cold orders - failed", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.ExportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderExportRow;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class OrderExportService {
+
+    private final ObjectMapper objectMapper;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    public OrderExportService(ObjectMapper objectMapper,
+                              OrderItemRepository orderItemRepository,
+                              ArchivedOrderItemRepository archivedOrderItemRepository) {
+        this.objectMapper = objectMapper;
+
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+    }
+
+    // one line per order item, written as the rows come off the cursor so the export never sits in memory as a whole
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDate from, LocalDate to, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long rowCount = 0;
+
+        if (format == ExportFormat.CSV) {
+            writer.write(Helper.formatCsvLine(OrderExportRow.CSV_HEADER));
+            writer.write('\n');
+        }
+
+        // archived orders are all older than the live ones, so writing the archive first keeps the export in date order
+        try (Stream<OrderExportRow> rows = archivedOrderItemRepository.streamOrderExportRows(from, to)) {
+            rowCount += writeRows(rows, format, writer);
+        }
+
+        try (Stream<OrderExportRow> rows = orderItemRepository.streamOrderExportRows(from, to)) {
+            rowCount += writeRows(rows, format, writer);
+        }
+
+        writer.flush();
+
+        return rowCount;
+    }
+
+    private long writeRows(Stream<OrderExportRow> rows, ExportFormat format, Writer writer) throws IOException {
+        Iterator<OrderExportRow> iterator = rows.iterator();
+        long rowCount = 0;
+
+        while (iterator.hasNext()) {
+            OrderExportRow row = iterator.next();
+
+            writer.write(format == ExportFormat.CSV
+                    ? Helper.formatCsvLine(row.getCsvValues())
+                    : objectMapper.writeValueAsString(row));
+            writer.write('\n');
+
+            rowCount++;
+        }
+
+        return rowCount;
+    }
+}
@@ -1,14 +1,22 @@
 package de.uniba.dsg.beverage_store.spring_boot.service;
 
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
 import de.uniba.dsg.beverage_store.spring_boot.exception.InvalidOperationException;
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
 import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
 import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
 import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderAggregate;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderCursor;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageType;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.*;
-import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
-import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
+import de.uniba.dsg.beverage_store.spring_boot.properties.OrderProperties;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRecordRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRepository;
 import de.uniba.dsg.models.Invoice;
 import de.uniba.dsg.models.InvoiceAddress;
@@ -18,11 +26,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Resource;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -31,14 +44,20 @@ public class OrderService {
 
     private final UserService userService;
     private final AddressService addressService;
-    private final InvoiceService invoiceService;
     private final BeverageService beverageService;
-    private final FireStoreService fireStoreService;
+    private final CatalogAutocompleteService catalogAutocompleteService;
+    private final OutboxService outboxService;
+    private final StockService stockService;
 
-    private final CrateRepository crateRepository;
-    private final BottleRepository bottleRepository;
+    private final OrderProperties orderProperties;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final OrderRecordRepository orderRecordRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    // least recently read orders are evicted first
+    private final Map<String, OrderAggregate> orderCache;
 
     @Resource(name = "sessionScopedCartService")
     private CartService cartService;
@@ -47,22 +66,35 @@ public class OrderService {
     public OrderService(UserService userService,
                         AddressService addressService,
                         BeverageService beverageService,
-                        InvoiceService invoiceService,
-                        FireStoreService fireStoreService,
-                        CrateRepository crateRepository,
-                        BottleRepository bottleRepository,
+                        CatalogAutocompleteService catalogAutocompleteService,
+                        OutboxService outboxService,
+                        StockService stockService,
+                        OrderProperties orderProperties,
                         OrderRepository orderRepository,
-                        OrderItemRepository orderItemRepository) {
+                        OrderItemRepository orderItemRepository,
+                        OrderRecordRepository orderRecordRepository,
+                        ArchivedOrderRepository archivedOrderRepository,
+                        ArchivedOrderItemRepository archivedOrderItemRepository) {
         this.userService = userService;
         this.addressService = addressService;
-        this.invoiceService = invoiceService;
         this.beverageService = beverageService;
-        this.fireStoreService = fireStoreService;
+        this.catalogAutocompleteService = catalogAutocompleteService;
+        this.outboxService = outboxService;
+        this.stockService = stockService;
 
-        this.crateRepository = crateRepository;
-        this.bottleRepository = bottleRepository;
+        this.orderProperties = orderProperties;
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
+        this.orderRecordRepository = orderRecordRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+
+        orderCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OrderAggregate> eldest) {
+                return size() > orderProperties.getCacheSize();
+            }
+        });
     }
 
     public BeverageOrder getOrderByOrderNumber(String orderNumber) throws NotFoundException {
@@ -75,78 +107,223 @@ public class OrderService {
         return orderOptional.get();
     }
 
-    public Page<BeverageOrder> getPagedOrders(int page, int pageSize) {
-        return orderRepository.findAllByOrderByOrderNumber(PageRequest.of(page - 1, pageSize));
+    // an order never changes once created, so cached entries only ever leave by eviction
+    public OrderAggregate getOrderAggregate(String orderNumber) throws NotFoundException {
+        OrderAggregate orderAggregate = orderCache.get(orderNumber);
+
+        if (orderAggregate != null) {
+            return orderAggregate;
+        }
+
+        List<BeverageOrderItem> orderItems = orderItemRepository.findAllWithOrderByOrderNumber(orderNumber);
+
+        if (!orderItems.isEmpty()) {
+            orderAggregate = new OrderAggregate(orderItems.get(0).getOrder(), orderItems);
+        } else {
+            Optional<BeverageOrder> orderOptional = orderRepository.findByOrderNumber(orderNumber);
+
+            orderAggregate = orderOptional.isPresent()
+                    ? new OrderAggregate(orderOptional.get(), orderItems)
+                    : getArchivedOrderAggregate(orderNumber);
+        }
+
+        orderCache.put(orderNumber, orderAggregate);
+
+        return orderAggregate;
+    }
+
+    // rebuilt from the archived rows for display and invoices only, the detached entities are never saved
+    private OrderAggregate getArchivedOrderAggregate(String orderNumber) throws NotFoundException {
+        Optional<ArchivedOrder> archivedOrderOptional = archivedOrderRepository.findByOrderNumber(orderNumber);
+
+        if (archivedOrderOptional.isEmpty()) {
+            throw new NotFoundException("No Order found with Order Number: " + orderNumber);
+        }
+
+        ArchivedOrder archivedOrder = archivedOrderOptional.get();
+
+        BeverageOrder order = new BeverageOrder(
+                archivedOrder.getId(),
+                archivedOrder.getOrderNumber(),
+                null,
+                archivedOrder.getDate(),
+                archivedOrder.getPrice(),
+                userService.getUserByUserName(archivedOrder.getUsername()),
+                addressService.getAddressById(archivedOrder.getDeliveryAddressId()),
+                addressService.getAddressById(archivedOrder.getBillingAddressId()),
+                null,
+                true
+        );
+
+        List<BeverageOrderItem> orderItems = archivedOrderItemRepository.findAllByOrderNumberOrderByPosition(orderNumber)
+                .stream()
+                .map(x -> new BeverageOrderItem(x.getId(), x.getBeverageType(), x.getQuantity(), x.getPosition(), x.getName(), x.getPrice(), null, null, order))
+                .collect(Collectors.toList());
+
+        return new OrderAggregate(order, orderItems);
+    }
+
+    public Page<OrderSummary> getPagedOrders(int page, int pageSize) {
+        return orderRecordRepository.findAllOrderSummaries(PageRequest.of(page - 1, pageSize));
     }
 
-    public Page<BeverageOrder> getPagedOrdersByUsername(String username, int page, int pageSize) {
-        return orderRepository.findAllByUserUsernameOrderByOrderNumber(username, PageRequest.of(page - 1, pageSize));
+    public Page<OrderSummary> getPagedOrdersByUsername(String username, int page, int pageSize) {
+        return orderRecordRepository.findAllOrderSummariesByUsername(username, PageRequest.of(page - 1, pageSize));
+    }
+
+    // newest first, seeking past the cursor so every page costs the same however long the history is
+    public CursorPage<OrderSummary> getOrderHistoryByUsername(String username, String cursor, int size) {
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+
+        OrderCursor orderCursor = cursor == null || cursor.isBlank()
+                ? null
+                : OrderCursor.decode(cursor);
+
+        List<OrderSummary> orders = new ArrayList<>(orderCursor == null
+                ? orderRepository.findLatestOrderSummariesByUsername(username, pageRequest)
+                : orderRepository.findLatestOrderSummariesByUsernameBefore(username, orderCursor.getDate(), orderCursor.getId(), pageRequest));
+
+        // archived orders are all older than the live ones, so the archive is only read once the live history runs out
+        if (orders.size() <= size) {
+            PageRequest archivePageRequest = PageRequest.of(0, size + 1 - orders.size());
+
+            orders.addAll(orderCursor == null
+                    ? archivedOrderRepository.findLatestOrderSummariesByUsername(username, archivePageRequest)
+                    : archivedOrderRepository.findLatestOrderSummariesByUsernameBefore(username, orderCursor.getDate(), orderCursor.getId(), archivePageRequest));
+        }
+
+        if (orders.size() <= size) {
+            return new CursorPage<>(orders, null, null);
+        }
+
+        List<OrderSummary> content = orders.subList(0, size);
+
+        return new CursorPage<>(content, null, OrderCursor.after(content.get(size - 1)).encode());
     }
 
-    public List<BeverageOrder> getOrdersByUsername(String username) {
-        return orderRepository.findAllByUserUsernameOrderByOrderNumber(username);
+    public Optional<BeverageOrder> getOrderByIdempotencyKey(String userName, String idempotencyKey) {
+        return orderRepository.findByUserUsernameAndIdempotencyKey(userName, idempotencyKey);
     }
 
-    public List<BeverageOrderItem> getOrderItemsByOrderNumber(String orderNumber) {
-        return orderItemRepository.findAllByOrderOrderNumber(orderNumber);
+    @Transactional(rollbackFor = { NotFoundException.class, InvalidOperationException.class, InsufficientStockException.class })
+    public BeverageOrder createOrder(String userName, Long deliveryAddressId, Long billingAddressId) throws NotFoundException, InvalidOperationException, InsufficientStockException {
+        return createOrder(userName, deliveryAddressId, billingAddressId, null);
     }
 
-    @Transactional
-    public BeverageOrder createOrder(String userName, Long deliveryAddressId, Long billingAddressId) throws NotFoundException, InvalidOperationException {
+    @Transactional(rollbackFor = { NotFoundException.class, InvalidOperationException.class, InsufficientStockException.class })
+    public BeverageOrder createOrder(String userName, Long deliveryAddressId, Long billingAddressId, String idempotencyKey) throws NotFoundException, InvalidOperationException, InsufficientStockException {
         if (cartService.getCartItemCount() == 0)
             throw new InvalidOperationException("At least one Cart Item is required for checkout.");
 
+        List<CartItem> cartItems = cartService.getCartItems();
+
+        // one query per beverage type, and nothing is charged unless every price still matches the one confirmed in the cart
+        Map<Long, Bottle> bottles = beverageService.getBottlesByIds(getBeverageIds(cartItems, BeverageType.BOTTLE));
+        Map<Long, Crate> crates = beverageService.getCratesByIds(getBeverageIds(cartItems, BeverageType.CRATE));
+
+        checkCartPrices(cartItems, bottles, crates);
+
+        stockService.decreaseStock(cartItems);
+        catalogAutocompleteService.recordSales(cartItems);
+
         ApplicationUser customer = userService.getUserByUserName(userName);
         Address deliveryAddress = addressService.getAddressById(deliveryAddressId);
         Address billingAddress = addressService.getAddressById(billingAddressId);
 
-        BeverageOrder order = new BeverageOrder(null, null, LocalDate.now(), cartService.getCartTotal(), customer, deliveryAddress, billingAddress, null);
-        orderRepository.save(order);
-
         int count = 0;
         List<BeverageOrderItem> orderItems = new ArrayList<>();
-        for (CartItem cartItem: cartService.getCartItems()) {
-            int quantity = cartItem.getQuantity();
-            Long beverageId = cartItem.getBeverageId();
-            BeverageType beverageType = cartItem.getBeverageType();
-
-            orderItems.add(buildOrderItem(order, beverageType, beverageId, quantity, ++count));
-
-            if (beverageType == BeverageType.CRATE) {
-                crateRepository.decreaseQuantity(beverageId, quantity);
-            } else if (beverageType == BeverageType.BOTTLE) {
-                bottleRepository.decreaseQuantity(beverageId, quantity);
-            }
+        for (CartItem cartItem: cartItems) {
+            orderItems.add(buildOrderItem(cartItem, bottles, crates, ++count));
         }
 
-        orderItemRepository.saveAll(orderItems);
+        double price = orderItems.stream()
+                .mapToDouble(x -> x.getQuantity() * x.getPrice())
+                .sum();
 
-        order.setOrderNumber(Helper.generateOrderNumber(order.getId()));
+        BeverageOrder order = new BeverageOrder(null, null, idempotencyKey, LocalDate.now(), price, customer, deliveryAddress, billingAddress, null, false);
         orderRepository.save(order);
 
-        cartService.clearCart();
+        // the id is drawn from the sequence on save, before the insert is flushed
+        order.setOrderNumber(Helper.generateOrderNumber(order.getId()));
+
+        orderItems.forEach(x -> x.setOrder(order));
+        orderItemRepository.saveAll(orderItems);
+
+        clearCartAfterCommit();
 
         Invoice invoice = Helper.constructOrderInvoice(order, customer, deliveryAddress, billingAddress, orderItems);
 
-        fireStoreService.storeOrder(invoice);
-        invoiceService.generateInvoice(invoice);
+        // delivered by the outbox relay once this transaction commits, so neither remote call holds the checkout open
+        outboxService.enqueue(OutboxMessageType.FIRESTORE_ORDER, order.getOrderNumber(), invoice);
+        outboxService.enqueue(OutboxMessageType.ORDER_INVOICE, order.getOrderNumber(), invoice);
+        outboxService.enqueue(OutboxMessageType.SALES_ROLLUP, order.getOrderNumber(), order.getOrderNumber());
 
         return order;
     }
 
-    private BeverageOrderItem buildOrderItem(BeverageOrder order, BeverageType beverageType, Long beverageId, int quantity, int position) throws NotFoundException {
+    // a commit that fails, e.g. on a duplicate idempotency key, leaves the customer's cart and its stock holds as they were
+    private void clearCartAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cartService.clearCart();
+                }
+            });
+        } else {
+            cartService.clearCart();
+        }
+    }
+
+    private List<Long> getBeverageIds(List<CartItem> cartItems, BeverageType beverageType) {
+        return cartItems.stream()
+                .filter(x -> x.getBeverageType() == beverageType)
+                .map(CartItem::getBeverageId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private void checkCartPrices(List<CartItem> cartItems, Map<Long, Bottle> bottles, Map<Long, Crate> crates) throws InvalidOperationException {
+        List<String> repricedItemNames = new ArrayList<>();
+
+        for (CartItem cartItem : cartItems) {
+            Beverage beverage = cartItem.getBeverageType() == BeverageType.BOTTLE
+                    ? bottles.get(cartItem.getBeverageId())
+                    : crates.get(cartItem.getBeverageId());
+
+            if (beverage != null && Double.compare(beverage.getPrice(), cartItem.getPrice()) != 0) {
+                cartService.updateCartItemPrice(cartItem, beverage.getPrice());
+
+                repricedItemNames.add(cartItem.getName());
+            }
+        }
+
+        if (!repricedItemNames.isEmpty()) {
+            throw new InvalidOperationException("The price changed for: " + String.join(", ", repricedItemNames) + ". Please confirm the updated cart total.");
+        }
+    }
+
+    private BeverageOrderItem buildOrderItem(CartItem cartItem, Map<Long, Bottle> bottles, Map<Long, Crate> crates, int position) {
+        Bottle bottle = cartItem.getBeverageType() == BeverageType.BOTTLE
+                ? bottles.get(cartItem.getBeverageId())
+                : null;
+
+        Crate crate = cartItem.getBeverageType() == BeverageType.CRATE
+                ? crates.get(cartItem.getBeverageId())
+                : null;
+
+        Beverage beverage = bottle != null ? bottle : crate;
+
         return new BeverageOrderItem(
                 null,
-                beverageType,
-                quantity,
+                cartItem.getBeverageType(),
+                cartItem.getQuantity(),
                 position,
-                beverageType == BeverageType.BOTTLE
-                        ? beverageService.getBottleById(beverageId)
-                        : null,
-                beverageType == BeverageType.CRATE
-                        ? beverageService.getCrateById(beverageId)
-                        : null,
-                order
+                beverage.getName(),
+                beverage.getPrice(),
+                bottle,
+                crate,
+                null
         );
     }
 }
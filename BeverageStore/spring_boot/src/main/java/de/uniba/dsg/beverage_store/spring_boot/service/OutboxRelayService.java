@@ -0,0 +1,225 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageStatus;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.OutboxMessage;
+import de.uniba.dsg.beverage_store.spring_boot.properties.OutboxProperties;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OutboxMessageRepository;
+import de.uniba.dsg.models.Invoice;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class OutboxRelayService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final FireStoreService fireStoreService;
+    private final InvoiceService invoiceService;
+    private final SalesRollupService salesRollupService;
+
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    private final AtomicBoolean wakeUpPending;
+
+    private ScheduledExecutorService poller;
+    private ExecutorService workers;
+
+    @Autowired
+    public OutboxRelayService(FireStoreService fireStoreService,
+                              InvoiceService invoiceService,
+                              SalesRollupService salesRollupService,
+                              ObjectMapper objectMapper,
+                              OutboxProperties outboxProperties,
+                              OutboxMessageRepository outboxMessageRepository) {
+        this.fireStoreService = fireStoreService;
+        this.invoiceService = invoiceService;
+        this.salesRollupService = salesRollupService;
+
+        this.objectMapper = objectMapper;
+        this.outboxProperties = outboxProperties;
+        this.outboxMessageRepository = outboxMessageRepository;
+
+        wakeUpPending = new AtomicBoolean(false);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (outboxProperties.getDeliveryTimeoutSeconds() >= outboxProperties.getLeaseSeconds()) {
+            throw new IllegalStateException("The outbox delivery timeout has to be shorter than the lease.");
+        }
+
+        workers = Executors.newFixedThreadPool(outboxProperties.getWorkerCount(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay-worker");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay-poller");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        if (outboxProperties.getRelayEnabled()) {
+            poller.scheduleWithFixedDelay(this::relaySafely, 0, outboxProperties.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+            poller.scheduleWithFixedDelay(this::purgeSafely, outboxProperties.getPurgeIntervalMinutes(), outboxProperties.getPurgeIntervalMinutes(), TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // several commits in a row only queue a single extra round
+    public void wakeUp() {
+        if (outboxProperties.getRelayEnabled() && wakeUpPending.compareAndSet(false, true)) {
+            poller.execute(() -> {
+                wakeUpPending.set(false);
+
+                relaySafely();
+            });
+        }
+    }
+
+    public int relay() throws InterruptedException {
+        List<Callable<Boolean>> deliveries = new ArrayList<>();
+
+        for (Long id : outboxMessageRepository.findDueIds(OutboxMessageStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, outboxProperties.getBatchSize()))) {
+            deliveries.add(() -> claimAndDeliver(id));
+        }
+
+        int delivered = 0;
+
+        for (Future<Boolean> delivery : workers.invokeAll(deliveries)) {
+            try {
+                if (delivery.get()) {
+                    delivered++;
+                }
+            } catch (ExecutionException e) {
+                log.error("Relaying outbox message - failed", e.getCause());
+            }
+        }
+
+        return delivered;
+    }
+
+    // delivered messages are only kept for a while to look into recent deliveries, failed ones stay until handled
+    public int purgeDelivered() {
+        return outboxMessageRepository.deleteDelivered(OutboxMessageStatus.DELIVERED, LocalDateTime.now().minusHours(outboxProperties.getDeliveredRetentionHours()));
+    }
+
+    private void purgeSafely() {
+        try {
+            log.info("Purging delivered outbox messages - completed, deleted " + purgeDelivered());
+        } catch (RuntimeException e) {
+            log.error("Purging delivered outbox messages - failed", e);
+        }
+    }
+
+    private void relaySafely() {
+        try {
+            while (relay() == outboxProperties.getBatchSize()) {
+                log.info("Relaying outbox messages - full batch delivered, continuing");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Relaying outbox messages - failed", e);
+        }
+    }
+
+    // the lease starts when a worker picks the message up and outlasts the delivery timeout, so a message is never delivered twice at once
+    private boolean claimAndDeliver(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (outboxMessageRepository.claim(id, OutboxMessageStatus.PENDING, now, now.plusSeconds(outboxProperties.getLeaseSeconds())) != 1) {
+            return false;
+        }
+
+        return deliver(id);
+    }
+
+    private boolean deliver(Long id) {
+        Optional<OutboxMessage> messageOptional = outboxMessageRepository.findById(id);
+
+        if (messageOptional.isEmpty()) {
+            return false;
+        }
+
+        OutboxMessage message = messageOptional.get();
+
+        try {
+            switch (message.getType()) {
+                case FIRESTORE_ORDER:
+                    fireStoreService.storeOrder(objectMapper.readValue(message.getPayload(), Invoice.class), outboxProperties.getDeliveryTimeoutSeconds());
+                    break;
+                case ORDER_INVOICE:
+                    invoiceService.generateInvoice(objectMapper.readValue(message.getPayload(), Invoice.class), outboxProperties.getDeliveryTimeoutSeconds());
+                    break;
+                case SALES_ROLLUP:
+                    salesRollupService.applyOrder(message.getAggregateId());
+                    break;
+            }
+
+            outboxMessageRepository.markDelivered(id, OutboxMessageStatus.DELIVERED, LocalDateTime.now());
+
+            return true;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            int attempts = message.getAttempts() + 1;
+
+            OutboxMessageStatus status = attempts >= outboxProperties.getMaxAttempts()
+                    ? OutboxMessageStatus.FAILED
+                    : OutboxMessageStatus.PENDING;
+
+            log.warn("Delivering outbox message " + message.getType().name() + " for " + message.getAggregateId() + " - failed on attempt " + attempts + ", found " + e.getClass().getSimpleName());
+
+            outboxMessageRepository.markAttemptFailed(id, status, LocalDateTime.now().plusSeconds(getRetryBackoffSeconds(attempts)), getErrorMessage(e));
+
+            return false;
+        }
+    }
+
+    // exponential backoff doubling with every attempt up to the configured ceiling
+    private long getRetryBackoffSeconds(int attempts) {
+        long backoff = outboxProperties.getRetryBackoffSeconds() << Math.min(attempts - 1, 20);
+
+        return Math.min(backoff, outboxProperties.getMaxRetryBackoffSeconds());
+    }
+
+    private String getErrorMessage(Exception e) {
+        String errorMessage = e.getClass().getName() + ": " + e.getMessage();
+
+        return errorMessage.length() > MAX_ERROR_LENGTH
+                ? errorMessage.substring(0, MAX_ERROR_LENGTH)
+                : errorMessage;
+    }
+}
@@ -0,0 +1,62 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageStatus;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.OutboxMessage;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+@Service
+public class OutboxService {
+
+    private final OutboxRelayService outboxRelayService;
+
+    private final ObjectMapper objectMapper;
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    public OutboxService(OutboxRelayService outboxRelayService,
+                         ObjectMapper objectMapper,
+                         OutboxMessageRepository outboxMessageRepository) {
+        this.outboxRelayService = outboxRelayService;
+
+        this.objectMapper = objectMapper;
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+    // joins the caller's transaction, so the message is only ever stored together with the change it announces
+    public OutboxMessage enqueue(OutboxMessageType type, String aggregateId, Object payload) {
+        String serializedPayload;
+
+        try {
+            serializedPayload = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        OutboxMessage message = outboxMessageRepository.save(new OutboxMessage(null, type, OutboxMessageStatus.PENDING, aggregateId, serializedPayload, 0, now, now, null, null));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelayService.wakeUp();
+                }
+            });
+        } else {
+            outboxRelayService.wakeUp();
+        }
+
+        return message;
+    }
+}
@@ -0,0 +1,200 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageSalesSummary;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSnapshot;
+import de.uniba.dsg.beverage_store.spring_boot.model.SalesKpis;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Beverage;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageSalesRollup;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.CustomerSalesRollup;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.DailySalesRollup;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.SalesTotal;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BeverageSalesRollupRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.CustomerSalesRollupRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.DailySalesRollupRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class SalesRollupService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final BeverageSalesRollupRepository beverageSalesRollupRepository;
+    private final CustomerSalesRollupRepository customerSalesRollupRepository;
+
+    @Autowired
+    public SalesRollupService(CatalogSnapshotService catalogSnapshotService,
+                              OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository,
+                              ArchivedOrderRepository archivedOrderRepository,
+                              ArchivedOrderItemRepository archivedOrderItemRepository,
+                              DailySalesRollupRepository dailySalesRollupRepository,
+                              BeverageSalesRollupRepository beverageSalesRollupRepository,
+                              CustomerSalesRollupRepository customerSalesRollupRepository) {
+        this.catalogSnapshotService = catalogSnapshotService;
+
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+        this.dailySalesRollupRepository = dailySalesRollupRepository;
+        this.beverageSalesRollupRepository = beverageSalesRollupRepository;
+        this.customerSalesRollupRepository = customerSalesRollupRepository;
+    }
+
+    // the flag flips in the same transaction as the increments, so a redelivered message never counts an order twice.
+    // two first orders of a day racing to insert the same rollup row fail one transaction, the outbox retries it as an update.
+    @Transactional
+    public boolean applyOrder(String orderNumber) {
+        if (orderRepository.markSalesRolledUp(orderNumber) == 0) {
+            return false;
+        }
+
+        Optional<BeverageOrder> orderOptional = orderRepository.findByOrderNumber(orderNumber);
+
+        if (orderOptional.isEmpty()) {
+            return false;
+        }
+
+        BeverageOrder order = orderOptional.get();
+
+        // grouped by beverage in the query, so the items' bottles and crates are never loaded
+        List<SalesTotal> beverageTotals = orderItemRepository.findBeverageSalesTotalsByOrderNumber(orderNumber);
+
+        long unitCount = beverageTotals.stream()
+                .mapToLong(SalesTotal::getUnitCount)
+                .sum();
+
+        incrementDaily(order.getDate(), 1, unitCount, order.getPrice());
+        incrementCustomer(order.getUser().getUsername(), 1, unitCount, order.getPrice());
+
+        for (SalesTotal beverageTotal : beverageTotals) {
+            incrementBeverage(order.getDate(), beverageTotal.getBeverageType(), beverageTotal.getBeverageId(), beverageTotal.getUnitCount(), beverageTotal.getRevenue());
+        }
+
+        return true;
+    }
+
+    @Transactional
+    public void rebuild() {
+        log.info("Rebuilding sales rollups - start");
+
+        // the flag is the cut-off, an order committed after this update is left to its outbox message and kept out of the totals below
+        orderRepository.markAllSalesRolledUp();
+
+        dailySalesRollupRepository.deleteAllInBatch();
+        beverageSalesRollupRepository.deleteAllInBatch();
+        customerSalesRollupRepository.deleteAllInBatch();
+
+        // orders are archived a whole month at a time, so archived and live dates never overlap
+        List<SalesTotal> beverageTotals = Stream.concat(orderItemRepository.findRolledUpBeverageSalesTotals().stream(), archivedOrderItemRepository.findBeverageSalesTotals().stream())
+                .collect(Collectors.toList());
+
+        Map<LocalDate, Long> dailyUnitCounts = beverageTotals.stream()
+                .collect(Collectors.groupingBy(SalesTotal::getSalesDate, Collectors.summingLong(SalesTotal::getUnitCount)));
+
+        Map<String, Long> customerUnitCounts = Stream.concat(orderItemRepository.findRolledUpCustomerUnitTotals().stream(), archivedOrderItemRepository.findCustomerUnitTotals().stream())
+                .collect(Collectors.groupingBy(SalesTotal::getUsername, Collectors.summingLong(SalesTotal::getUnitCount)));
+
+        dailySalesRollupRepository.saveAll(Stream.concat(orderRepository.findRolledUpDailySalesTotals().stream(), archivedOrderRepository.findDailySalesTotals().stream())
+                .map(x -> new DailySalesRollup(x.getSalesDate(), x.getOrderCount(), dailyUnitCounts.getOrDefault(x.getSalesDate(), 0L), x.getRevenue()))
+                .collect(Collectors.toList()));
+
+        beverageSalesRollupRepository.saveAll(beverageTotals.stream()
+                .map(x -> new BeverageSalesRollup(null, x.getSalesDate(), x.getBeverageType(), x.getBeverageId(), x.getUnitCount(), x.getRevenue()))
+                .collect(Collectors.toList()));
+
+        Map<String, CustomerSalesRollup> customerRollups = new HashMap<>();
+
+        Stream.concat(orderRepository.findRolledUpCustomerSalesTotals().stream(), archivedOrderRepository.findCustomerSalesTotals().stream())
+                .forEach(x -> customerRollups.merge(
+                        x.getUsername(),
+                        new CustomerSalesRollup(x.getUsername(), x.getOrderCount(), customerUnitCounts.getOrDefault(x.getUsername(), 0L), x.getRevenue()),
+                        (current, archived) -> new CustomerSalesRollup(current.getUsername(), current.getOrderCount() + archived.getOrderCount(), current.getUnitCount(), current.getRevenue() + archived.getRevenue())
+                ));
+
+        customerSalesRollupRepository.saveAll(customerRollups.values());
+
+        log.info("Rebuilding sales rollups - completed");
+    }
+
+    public List<DailySalesRollup> getDailySales(LocalDate from, LocalDate to) {
+        return dailySalesRollupRepository.findAllBySalesDateBetweenOrderBySalesDate(from, to);
+    }
+
+    public SalesKpis getKpis(List<DailySalesRollup> dailySales) {
+        return new SalesKpis(
+                dailySales.stream().mapToLong(DailySalesRollup::getOrderCount).sum(),
+                dailySales.stream().mapToLong(DailySalesRollup::getUnitCount).sum(),
+                dailySales.stream().mapToDouble(DailySalesRollup::getRevenue).sum()
+        );
+    }
+
+    public List<BeverageSalesSummary> getTopBeverages(LocalDate from, LocalDate to, int limit) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+
+        List<BeverageSalesSummary> topBeverages = new ArrayList<>();
+
+        for (SalesTotal salesTotal : beverageSalesRollupRepository.findTopBeverages(from, to, PageRequest.of(0, limit))) {
+            Beverage beverage = salesTotal.getBeverageType() == BeverageType.BOTTLE
+                    ? snapshot.getBottlesById().get(salesTotal.getBeverageId())
+                    : snapshot.getCratesById().get(salesTotal.getBeverageId());
+
+            topBeverages.add(new BeverageSalesSummary(
+                    salesTotal.getBeverageType(),
+                    salesTotal.getBeverageId(),
+                    beverage == null ? null : beverage.getName(),
+                    salesTotal.getUnitCount(),
+                    salesTotal.getRevenue()
+            ));
+        }
+
+        return topBeverages;
+    }
+
+    public List<CustomerSalesRollup> getTopCustomers(int limit) {
+        return customerSalesRollupRepository.findAllByOrderByRevenueDescUsername(PageRequest.of(0, limit));
+    }
+
+    private void incrementDaily(LocalDate salesDate, long orderCount, long unitCount, double revenue) {
+        if (dailySalesRollupRepository.increment(salesDate, orderCount, unitCount, revenue) == 0) {
+            dailySalesRollupRepository.save(new DailySalesRollup(salesDate, orderCount, unitCount, revenue));
+        }
+    }
+
+    private void incrementBeverage(LocalDate salesDate, BeverageType beverageType, long beverageId, long unitCount, double revenue) {
+        if (beverageSalesRollupRepository.increment(salesDate, beverageType, beverageId, unitCount, revenue) == 0) {
+            beverageSalesRollupRepository.save(new BeverageSalesRollup(null, salesDate, beverageType, beverageId, unitCount, revenue));
+        }
+    }
+
+    private void incrementCustomer(String username, long orderCount, long unitCount, double revenue) {
+        if (customerSalesRollupRepository.increment(username, orderCount, unitCount, revenue) == 0) {
+            customerSalesRollupRepository.save(new CustomerSalesRollup(username, orderCount, unitCount, revenue));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+@Service
+public class SequenceService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // draws from the generator Hibernate uses for the entity, so keys handed out here never collide with persisted ones
+    @Transactional
+    public long nextId(Class<?> entityType) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+
+        return ((Number) session.getFactory()
+                .getMetamodel()
+                .entityPersister(entityType)
+                .getIdentifierGenerator()
+                .generate(session, null)).longValue();
+    }
+}
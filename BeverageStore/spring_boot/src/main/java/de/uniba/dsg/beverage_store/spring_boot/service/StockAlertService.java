@@ -0,0 +1,200 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockAlert;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockAlertLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.properties.AlertProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+@Service
+public class StockAlertService {
+
+    private static final byte IN_STOCK = 0;
+    private static final byte LOW_STOCK = 1;
+    private static final byte OUT_OF_STOCK = 2;
+
+    private final StockEventBus stockEventBus;
+
+    private final AlertProperties alertProperties;
+
+    // only touched by the watcher thread
+    private final ItemStates itemStates;
+
+    private final Deque<StockAlert> recentAlerts;
+
+    private final List<SseEmitter> emitters;
+
+    private Thread watcher;
+
+    @Autowired
+    public StockAlertService(StockEventBus stockEventBus,
+                             AlertProperties alertProperties) {
+        this.stockEventBus = stockEventBus;
+
+        this.alertProperties = alertProperties;
+
+        itemStates = new ItemStates();
+        recentAlerts = new ArrayDeque<>();
+        emitters = new CopyOnWriteArrayList<>();
+    }
+
+    @PostConstruct
+    public void start() {
+        watcher = new Thread(this::watch, "stock-alert-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        watcher.interrupt();
+
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    public List<StockAlert> getRecentAlerts() {
+        synchronized (recentAlerts) {
+            return new ArrayList<>(recentAlerts);
+        }
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(alertProperties.getStreamTimeoutSeconds() * 1000);
+
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(x -> emitters.remove(emitter));
+
+        emitters.add(emitter);
+
+        return emitter;
+    }
+
+    private void watch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                handle(stockEventBus.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Handling stock event - failed", e);
+            }
+        }
+    }
+
+    private void handle(StockLevel stockLevel) {
+        byte state = stockLevel.getInStock() <= 0
+                ? OUT_OF_STOCK
+                : stockLevel.getInStock() <= alertProperties.getLowStockThreshold()
+                    ? LOW_STOCK
+                    : IN_STOCK;
+
+        byte previousState = itemStates.put(stockLevel.getBeverageType(), stockLevel.getBeverageId(), state);
+
+        // only a transition raises an alert, so repeated sales of an already low item stay quiet
+        if (state == previousState || state == IN_STOCK) {
+            return;
+        }
+
+        StockAlert stockAlert = new StockAlert(
+                state == OUT_OF_STOCK ? StockAlertLevel.OUT_OF_STOCK : StockAlertLevel.LOW_STOCK,
+                stockLevel.getBeverageType(),
+                stockLevel.getBeverageId(),
+                stockLevel.getName(),
+                stockLevel.getInStock(),
+                LocalDateTime.now()
+        );
+
+        log.info("Stock alert " + stockAlert.getLevel().name() + " raised for " + stockAlert.getBeverageType().name() + " with ID: " + stockAlert.getBeverageId());
+
+        synchronized (recentAlerts) {
+            recentAlerts.addFirst(stockAlert);
+
+            while (recentAlerts.size() > alertProperties.getRecentAlertLimit()) {
+                recentAlerts.removeLast();
+            }
+        }
+
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("stock-alert")
+                        .data(stockAlert, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    // open addressing map from beverage to alert state, the key packs the id and the type ordinal so zero marks a free slot
+    private static class ItemStates {
+        private long[] keys = new long[64];
+        private byte[] states = new byte[64];
+        private int size = 0;
+
+        private byte put(BeverageType beverageType, long beverageId, byte state) {
+            long key = (beverageId << 1 | beverageType.ordinal()) + 1;
+            int slot = find(keys, key);
+
+            if (keys[slot] == key) {
+                byte previousState = states[slot];
+                states[slot] = state;
+
+                return previousState;
+            }
+
+            keys[slot] = key;
+            states[slot] = state;
+
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+
+            return IN_STOCK;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            byte[] oldStates = states;
+
+            keys = new long[oldKeys.length * 2];
+            states = new byte[oldStates.length * 2];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = find(keys, oldKeys[i]);
+
+                    keys[slot] = oldKeys[i];
+                    states[slot] = oldStates[i];
+                }
+            }
+        }
+
+        private static int find(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.properties.AlertProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class StockEventBus {
+
+    private final BlockingQueue<StockLevel> queue;
+
+    private final AtomicLong droppedEvents;
+
+    @Autowired
+    public StockEventBus(AlertProperties alertProperties) {
+        queue = new ArrayBlockingQueue<>(alertProperties.getQueueCapacity());
+
+        droppedEvents = new AtomicLong(0);
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public void publish(List<StockLevel> stockLevels) {
+        // levels of a rolled back transaction never happened, so they are only handed over once the commit went through
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(stockLevels);
+                }
+            });
+        } else {
+            offer(stockLevels);
+        }
+    }
+
+    public StockLevel take() throws InterruptedException {
+        return queue.take();
+    }
+
+    // never blocks the publishing thread, a full queue drops the event instead
+    private void offer(List<StockLevel> stockLevels) {
+        for (StockLevel stockLevel : stockLevels) {
+            if (!queue.offer(stockLevel)) {
+                log.warn("Stock event for " + stockLevel.getBeverageType().name() + " with ID: " + stockLevel.getBeverageId() + " dropped, queue is full");
+
+                droppedEvents.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSnapshot;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Beverage;
+import de.uniba.dsg.beverage_store.spring_boot.properties.ReservationProperties;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class StockReservationService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final ReservationProperties reservationProperties;
+
+    // holds are replaced rather than mutated under the per-key lock of compute, so readers never block
+    private final Map<BeverageType, ConcurrentHashMap<Long, BeverageHolds>> holds;
+
+    private final AtomicLong revision;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public StockReservationService(CatalogSnapshotService catalogSnapshotService,
+                                   ReservationProperties reservationProperties) {
+        this.catalogSnapshotService = catalogSnapshotService;
+
+        this.reservationProperties = reservationProperties;
+
+        holds = new EnumMap<>(BeverageType.class);
+
+        for (BeverageType beverageType : BeverageType.values()) {
+            holds.put(beverageType, new ConcurrentHashMap<>());
+        }
+
+        revision = new AtomicLong(0);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-reservation-sweeper");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(this::expireHolds, reservationProperties.getSweepSeconds(), reservationProperties.getSweepSeconds(), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // changes whenever the reserved quantities change; a hold running out is picked up by the next sweep
+    public long getRevision() {
+        return revision.get();
+    }
+
+    // drops the holds that ran out, so the revision moves even when nobody touches the beverage again
+    public void expireHolds() {
+        long now = System.currentTimeMillis();
+
+        holds.forEach((beverageType, beverageHolds) -> beverageHolds.forEach((beverageId, x) -> {
+            if (x.hasExpired(now)) {
+                removeExpired(beverageType, beverageId, now);
+            }
+        }));
+    }
+
+    public boolean reserve(String holderId, BeverageType beverageType, long beverageId, int quantity) {
+        int inStock = getInStock(beverageType, beverageId);
+        boolean[] reserved = { false };
+
+        holds.get(beverageType).compute(beverageId, (id, beverageHolds) -> {
+            long now = System.currentTimeMillis();
+
+            BeverageHolds liveHolds = beverageHolds == null
+                    ? BeverageHolds.EMPTY
+                    : withoutExpired(beverageHolds, now);
+
+            if (liveHolds.getReservedQuantity(holderId) + quantity <= inStock) {
+                reserved[0] = true;
+
+                // renewing a hold for the same quantity leaves the reserved quantities as they are
+                if (!liveHolds.holds(holderId, quantity)) {
+                    revision.incrementAndGet();
+                }
+
+                return liveHolds.with(holderId, new Hold(quantity, now + reservationProperties.getHoldSeconds() * 1000L));
+            }
+
+            return liveHolds.isEmpty()
+                    ? null
+                    : liveHolds;
+        });
+
+        return reserved[0];
+    }
+
+    public void release(String holderId, BeverageType beverageType, long beverageId) {
+        holds.get(beverageType).computeIfPresent(beverageId, (id, beverageHolds) -> {
+            BeverageHolds remainingHolds = beverageHolds.without(holderId);
+
+            if (remainingHolds != beverageHolds) {
+                revision.incrementAndGet();
+            }
+
+            BeverageHolds liveHolds = withoutExpired(remainingHolds, System.currentTimeMillis());
+
+            return liveHolds.isEmpty()
+                    ? null
+                    : liveHolds;
+        });
+    }
+
+    public Map<Long, Integer> getReservedQuantities(BeverageType beverageType) {
+        long now = System.currentTimeMillis();
+
+        Map<Long, Integer> reservedQuantities = new HashMap<>();
+
+        holds.get(beverageType).forEach((beverageId, beverageHolds) -> {
+            int reservedQuantity = beverageHolds.getReservedQuantity(now);
+
+            if (reservedQuantity > 0) {
+                reservedQuantities.put(beverageId, reservedQuantity);
+            }
+        });
+
+        return reservedQuantities;
+    }
+
+    private void removeExpired(BeverageType beverageType, long beverageId, long now) {
+        holds.get(beverageType).computeIfPresent(beverageId, (id, beverageHolds) -> {
+            BeverageHolds liveHolds = withoutExpired(beverageHolds, now);
+
+            return liveHolds.isEmpty()
+                    ? null
+                    : liveHolds;
+        });
+    }
+
+    private BeverageHolds withoutExpired(BeverageHolds beverageHolds, long now) {
+        BeverageHolds liveHolds = beverageHolds.withoutExpired(now);
+
+        if (liveHolds != beverageHolds) {
+            revision.incrementAndGet();
+        }
+
+        return liveHolds;
+    }
+
+    private int getInStock(BeverageType beverageType, long beverageId) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+
+        Beverage beverage = beverageType == BeverageType.BOTTLE
+                ? snapshot.getBottlesById().get(beverageId)
+                : snapshot.getCratesById().get(beverageId);
+
+        return beverage == null
+                ? 0
+                : beverage.getInStock();
+    }
+
+    @AllArgsConstructor
+    private static class Hold {
+        private final int quantity;
+        private final long expiresAt;
+    }
+
+    private static class BeverageHolds {
+        private static final BeverageHolds EMPTY = new BeverageHolds(Collections.emptyMap());
+
+        private final Map<String, Hold> holdsByHolder;
+
+        private BeverageHolds(Map<String, Hold> holdsByHolder) {
+            this.holdsByHolder = holdsByHolder;
+        }
+
+        private boolean isEmpty() {
+            return holdsByHolder.isEmpty();
+        }
+
+        // quantity held by everyone except the given holder
+        private int getReservedQuantity(String holderId) {
+            int reservedQuantity = 0;
+
+            for (Map.Entry<String, Hold> entry : holdsByHolder.entrySet()) {
+                if (!entry.getKey().equals(holderId)) {
+                    reservedQuantity += entry.getValue().quantity;
+                }
+            }
+
+            return reservedQuantity;
+        }
+
+        private int getReservedQuantity(long now) {
+            int reservedQuantity = 0;
+
+            for (Hold hold : holdsByHolder.values()) {
+                if (hold.expiresAt > now) {
+                    reservedQuantity += hold.quantity;
+                }
+            }
+
+            return reservedQuantity;
+        }
+
+        private boolean holds(String holderId, int quantity) {
+            Hold hold = holdsByHolder.get(holderId);
+
+            return hold != null && hold.quantity == quantity;
+        }
+
+        private BeverageHolds with(String holderId, Hold hold) {
+            Map<String, Hold> updatedHolds = new HashMap<>(holdsByHolder);
+            updatedHolds.put(holderId, hold);
+
+            return new BeverageHolds(updatedHolds);
+        }
+
+        private BeverageHolds without(String holderId) {
+            if (!holdsByHolder.containsKey(holderId)) {
+                return this;
+            }
+
+            Map<String, Hold> updatedHolds = new HashMap<>(holdsByHolder);
+            updatedHolds.remove(holderId);
+
+            return new BeverageHolds(updatedHolds);
+        }
+
+        private boolean hasExpired(long now) {
+            return holdsByHolder.values()
+                    .stream()
+                    .anyMatch(x -> x.expiresAt <= now);
+        }
+
+        private BeverageHolds withoutExpired(long now) {
+            if (!hasExpired(now)) {
+                return this;
+            }
+
+            Map<String, Hold> updatedHolds = new HashMap<>(holdsByHolder);
+            updatedHolds.values().removeIf(x -> x.expiresAt <= now);
+
+            return new BeverageHolds(updatedHolds);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package de.uniba.dsg.beverage_store.spring_boot.service;
+
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockShortage;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.StockAdjustmentDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class StockService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockEventBus stockEventBus;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public StockService(CatalogSnapshotService catalogSnapshotService,
+                        StockEventBus stockEventBus,
+                        NamedParameterJdbcTemplate jdbcTemplate) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.stockEventBus = stockEventBus;
+
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(rollbackFor = { NotFoundException.class, InsufficientStockException.class })
+    public List<StockLevel> adjustStock(List<StockAdjustmentDTO> adjustments) throws NotFoundException, InsufficientStockException {
+        Map<BeverageType, TreeMap<Long, Integer>> deltas = new EnumMap<>(BeverageType.class);
+
+        for (StockAdjustmentDTO adjustment : adjustments) {
+            deltas.computeIfAbsent(adjustment.getBeverageType(), x -> new TreeMap<>())
+                    .merge(adjustment.getBeverageId(), adjustment.getDelta(), Integer::sum);
+        }
+
+        return applyDeltas(deltas);
+    }
+
+    @Transactional(rollbackFor = { NotFoundException.class, InsufficientStockException.class })
+    public List<StockLevel> decreaseStock(List<CartItem> cartItems) throws NotFoundException, InsufficientStockException {
+        Map<BeverageType, TreeMap<Long, Integer>> deltas = new EnumMap<>(BeverageType.class);
+
+        for (CartItem cartItem : cartItems) {
+            deltas.computeIfAbsent(cartItem.getBeverageType(), x -> new TreeMap<>())
+                    .merge(cartItem.getBeverageId(), -cartItem.getQuantity(), Integer::sum);
+        }
+
+        return applyDeltas(deltas);
+    }
+
+    // deltas are applied in type and id order, so concurrent batches lock rows in the same order
+    private List<StockLevel> applyDeltas(Map<BeverageType, TreeMap<Long, Integer>> deltas) throws NotFoundException, InsufficientStockException {
+        List<StockLevel> stockLevels = new ArrayList<>();
+        List<StockShortage> shortages = new ArrayList<>();
+
+        // the batch bypasses the persistence context, so pending changes go out first and loaded beverages are evicted afterwards
+        entityManager.flush();
+
+        for (Map.Entry<BeverageType, TreeMap<Long, Integer>> entry : deltas.entrySet()) {
+            BeverageType beverageType = entry.getKey();
+            String tableName = getTableName(beverageType);
+
+            List<Long> ids = new ArrayList<>(entry.getValue().keySet());
+
+            MapSqlParameterSource[] updates = entry.getValue()
+                    .entrySet()
+                    .stream()
+                    .map(x -> new MapSqlParameterSource()
+                            .addValue("id", x.getKey())
+                            .addValue("delta", x.getValue()))
+                    .toArray(MapSqlParameterSource[]::new);
+
+            int[] updateCounts = jdbcTemplate.batchUpdate("UPDATE " + tableName + " SET in_stock = in_stock + :delta " +
+                    "WHERE id = :id AND in_stock + :delta >= 0", updates);
+
+            Map<Long, StockLevel> levels = new TreeMap<>();
+
+            // the name travels with the level, so stock event consumers never have to look the beverage up
+            jdbcTemplate.query("SELECT id, name, in_stock FROM " + tableName + " WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids),
+                    resultSet -> {
+                        levels.put(resultSet.getLong("id"), new StockLevel(beverageType, resultSet.getLong("id"), resultSet.getString("name"), resultSet.getInt("in_stock")));
+                    });
+
+            for (int i = 0; i < ids.size(); i++) {
+                if (!levels.containsKey(ids.get(i))) {
+                    throw new NotFoundException("No " + getDisplayName(beverageType) + " found with ID: " + ids.get(i));
+                }
+
+                if (updateCounts[i] == 0) {
+                    shortages.add(new StockShortage(beverageType, ids.get(i), -entry.getValue().get(ids.get(i)), levels.get(ids.get(i)).getInStock()));
+                }
+            }
+
+            stockLevels.addAll(levels.values());
+        }
+
+        entityManager.clear();
+
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock for " + shortages.stream()
+                    .map(x -> x.getBeverageType().name() + " with ID: " + x.getBeverageId())
+                    .collect(Collectors.joining(", ")), shortages);
+        }
+
+        catalogSnapshotService.updateStock(stockLevels);
+        stockEventBus.publish(stockLevels);
+
+        return stockLevels;
+    }
+
+    private String getTableName(BeverageType beverageType) {
+        return beverageType == BeverageType.BOTTLE
+                ? "bottle"
+                : "crate";
+    }
+
+    private String getDisplayName(BeverageType beverageType) {
+        return beverageType == BeverageType.BOTTLE
+                ? "Bottle"
+                : "Crate";
+    }
+}
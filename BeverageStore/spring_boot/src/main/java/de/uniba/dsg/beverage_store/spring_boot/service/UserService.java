@@ -6,6 +6,7 @@ import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Role;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.CustomerDTO;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.CustomerSummary;
 import de.uniba.dsg.beverage_store.spring_boot.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -73,7 +74,7 @@ public class UserService implements UserDetailsService {
         return user;
     }
 
-    public Page<ApplicationUser> getPagedCustomers(int page, int pageSize) {
-        return userRepository.findAllByRole(PageRequest.of(page - 1, pageSize), Role.ROLE_CUSTOMER);
+    public Page<CustomerSummary> getPagedCustomers(int page, int pageSize) {
+        return userRepository.findAllSummariesByRole(PageRequest.of(page - 1, pageSize), Role.ROLE_CUSTOMER);
     }
 }
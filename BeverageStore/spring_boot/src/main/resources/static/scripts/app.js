@@ -22,6 +22,10 @@ function updateNavbarActiveLink() {
         $('.navbar-nav #order').addClass('active');
     } else if (window.location.href.endsWith('/customer')) {
         $('.navbar-nav #customer').addClass('active');
+    } else if (window.location.href.endsWith('/alert')) {
+        $('.navbar-nav #alert').addClass('active');
+    } else if (window.location.pathname === '/report') {
+        $('.navbar-nav #report').addClass('active');
     }
 }
 
@@ -171,3 +175,28 @@ function regenerateInvoice(orderNumber) {
         }
     });
 }
+
+function suggestBeverages(input, beverageType) {
+    let query = $(input).val();
+    let suggestionList = $('#' + $(input).attr('list'));
+
+    if (query.trim().length === 0) {
+        suggestionList.empty();
+
+        return;
+    }
+
+    $.ajax({
+        url: '/api/catalog/autocomplete',
+        type: 'GET',
+        data: {
+            q: query,
+            type: beverageType
+        },
+        success: (suggestions) => {
+            suggestionList.empty();
+
+            suggestions.forEach((suggestion) => suggestionList.append($('<option>').attr('value', suggestion.name)));
+        }
+    });
+}
@@ -7,6 +7,8 @@ import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
 import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
 import de.uniba.dsg.beverage_store.spring_boot.model.DropdownListItem;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.*;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.CustomerSummary;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
@@ -74,7 +76,7 @@ public class TestHelper {
 
         ApplicationUser customer = new ApplicationUser(1L, "testuser1", "Test", "User1", "testuser1@email.com", null, LocalDate.of(1990, 1, 1), Role.ROLE_CUSTOMER, null, null);
 
-        return new BeverageOrder(1L, "Order01", LocalDate.now(), 20.0, customer, address, address, null);
+        return new BeverageOrder(1L, "Order01", null, LocalDate.now(), 20.0, customer, address, address, null, false);
     }
 
     public static Crate getMockCrate() {
@@ -115,9 +117,9 @@ public class TestHelper {
         return new ApplicationUser(1L, "testuser1", "Test", "User1", "testuser1@email.com", null, LocalDate.of(1990, 1, 1), Role.ROLE_CUSTOMER, null, null);
     }
 
-    public static List<ApplicationUser> getMockCustomers() {
-        ApplicationUser customer1 = new ApplicationUser(1L, "testuser1", "Test", "User1", "testuser1@email.com", null, LocalDate.of(1990, 1, 1), Role.ROLE_CUSTOMER, null, null);
-        ApplicationUser customer2 = new ApplicationUser(2L, "testuser2", "Test", "User2", "testuser2@email.com", null, LocalDate.of(1990, 1, 1), Role.ROLE_CUSTOMER, null, null);
+    public static List<CustomerSummary> getMockCustomers() {
+        CustomerSummary customer1 = new CustomerSummary("testuser1", "Test", "User1", LocalDate.of(1990, 1, 1));
+        CustomerSummary customer2 = new CustomerSummary("testuser2", "Test", "User2", LocalDate.of(1990, 1, 1));
 
         return Arrays.asList(customer1, customer2);
     }
@@ -126,28 +128,23 @@ public class TestHelper {
         Bottle bottle1 = new Bottle(1L, "Pepsi", "Pepsi pic", 1.0, 0.0, 1.0, "Pepsi Limited", 10, null, null);
         Bottle bottle2 = new Bottle(2L, "Coca-cola", "Coca-cola pic", 1.0, 0.0, 1.0, "Coca-cola Limited", 10, null, null);
 
-        BeverageOrderItem orderItem1 = new BeverageOrderItem(1L, BeverageType.BOTTLE, 10, 1, bottle1, null, null);
-        BeverageOrderItem orderItem2 = new BeverageOrderItem(2L, BeverageType.BOTTLE, 10, 2, bottle2, null, null);
+        BeverageOrderItem orderItem1 = new BeverageOrderItem(1L, BeverageType.BOTTLE, 10, 1, bottle1.getName(), bottle1.getPrice(), bottle1, null, null);
+        BeverageOrderItem orderItem2 = new BeverageOrderItem(2L, BeverageType.BOTTLE, 10, 2, bottle2.getName(), bottle2.getPrice(), bottle2, null, null);
 
         return Arrays.asList(orderItem1, orderItem2);
     }
 
-    public static List<BeverageOrder> getMockOrdersForManager() {
-        ApplicationUser customer1 = new ApplicationUser(1L, "testuser1", "Test", "User1", "testuser1@email.com", null, LocalDate.of(1990, 1, 1), Role.ROLE_CUSTOMER, null, null);
-        ApplicationUser customer2 = new ApplicationUser(2L, "testuser2", "Test", "User2", "testuser2@email.com", null, LocalDate.of(1990, 1, 1), Role.ROLE_CUSTOMER, null, null);
-
-        BeverageOrder order1 = new BeverageOrder(1L, "Order01", LocalDate.now(), 10.0, customer1, null, null, null);
-        BeverageOrder order2 = new BeverageOrder(2L, "Order02", LocalDate.now(), 20.0, customer1, null, null, null);
-        BeverageOrder order3 = new BeverageOrder(3L, "Order03", LocalDate.now(), 30.0, customer2, null, null, null);
+    public static List<OrderSummary> getMockOrdersForManager() {
+        OrderSummary order1 = new OrderSummary(1L, "Order01", LocalDate.now(), 10.0, "testuser1", "Test", "User1");
+        OrderSummary order2 = new OrderSummary(2L, "Order02", LocalDate.now(), 20.0, "testuser1", "Test", "User1");
+        OrderSummary order3 = new OrderSummary(3L, "Order03", LocalDate.now(), 30.0, "testuser2", "Test", "User2");
 
         return Arrays.asList(order1, order2, order3);
     }
 
-    public static List<BeverageOrder> getMockOrdersForCustomer() {
-        ApplicationUser customer = new ApplicationUser(1L, "testuser1", "Test", "User1", "testuser1@email.com", null, LocalDate.of(1990, 1, 1), Role.ROLE_CUSTOMER, null, null);
-
-        BeverageOrder order1 = new BeverageOrder(1L, "Order01", LocalDate.now(), 10.0, customer, null, null, null);
-        BeverageOrder order2 = new BeverageOrder(2L, "Order02", LocalDate.now(), 20.0, customer, null, null, null);
+    public static List<OrderSummary> getMockOrdersForCustomer() {
+        OrderSummary order1 = new OrderSummary(1L, "Order01", LocalDate.now(), 10.0, "testuser1", "Test", "User1");
+        OrderSummary order2 = new OrderSummary(2L, "Order02", LocalDate.now(), 20.0, "testuser1", "Test", "User1");
 
         return Arrays.asList(order1, order2);
     }
@@ -215,6 +212,13 @@ public class TestHelper {
                 .content(objectMapper.writeValueAsString(requestBody));
     }
 
+    public static MockHttpServletRequestBuilder createRestUploadRequest(String url, UserDetails user, String contentType, String content) {
+        return MockMvcRequestBuilders.post(url)
+                .with(user == null ? anonymous() : user(user))
+                .contentType(contentType)
+                .content(content);
+    }
+
     public static MockHttpServletRequestBuilder createRestDeleteRequest(String url, UserDetails user) {
         return MockMvcRequestBuilders.delete(url)
                 .with(user == null ? anonymous() : user(user));
@@ -1,6 +1,7 @@
 package de.uniba.dsg.beverage_store.spring_boot.integration_test;
 
 import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.BottleUpdateDTO;
@@ -8,6 +9,7 @@ import de.uniba.dsg.beverage_store.spring_boot.model.dto.CrateDTO;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.CrateUpdateDTO;
 import de.uniba.dsg.beverage_store.spring_boot.properties.BottleProperties;
 import de.uniba.dsg.beverage_store.spring_boot.properties.CrateProperties;
+import de.uniba.dsg.beverage_store.spring_boot.properties.SearchProperties;
 import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
 import de.uniba.dsg.beverage_store.spring_boot.service.BeverageService;
@@ -17,6 +19,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.util.LinkedMultiValueMap;
@@ -28,7 +32,11 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
@@ -52,6 +60,9 @@ public class BeverageControllerTests {
     @Autowired
     private BottleProperties bottleProperties;
 
+    @Autowired
+    private SearchProperties searchProperties;
+
     @SpyBean
     private BeverageService beverageService;
 
@@ -95,6 +106,39 @@ public class BeverageControllerTests {
                 .andExpect(view().name("beverage/bottle/list"));
     }
 
+    @Test
+    public void getBottles_notModified() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+
+        String eTag = mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/bottle", TestHelper.getCustomer(), TestHelper.getPageParams())
+                .session(session))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/bottle", TestHelper.getCustomer(), TestHelper.getPageParams())
+                .session(session)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        verify(beverageService, times(1)).getPagedBottlesWithAllowedStock(1, bottleProperties.getPageSize());
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/crate", TestHelper.getCustomer(), TestHelper.getPageParams())
+                .session(session)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        doReturn("changed").when(beverageService).getAllowedStockVersion();
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/bottle", TestHelper.getCustomer(), TestHelper.getPageParams())
+                .session(session)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(view().name("beverage/bottle/list"));
+    }
+
     @Test
     public void getBottles_noPageParam() throws Exception {
         List<Bottle> mockBottles = TestHelper.getMockBottles();
@@ -116,6 +160,44 @@ public class BeverageControllerTests {
                 .andExpect(view().name("beverage/bottle/list"));
     }
 
+    @Test
+    public void getBottles_cursor() throws Exception {
+        List<Bottle> mockBottles = TestHelper.getMockBottles();
+
+        when(beverageService.getBottleCursorPageWithAllowedStock("", bottleProperties.getPageSize())).thenReturn(new CursorPage<>(mockBottles, null, "next"));
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/bottle", TestHelper.getCustomer(), getCursorParams("")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("bottles", mockBottles))
+                .andExpect(MockMvcResultMatchers.model().attribute("isCursorMode", true))
+                .andExpect(MockMvcResultMatchers.model().attribute("previousCursor", nullValue()))
+                .andExpect(MockMvcResultMatchers.model().attribute("nextCursor", "next"))
+                .andExpect(view().name("beverage/bottle/list"));
+    }
+
+    @Test
+    public void getBottles_invalidCursor() throws Exception {
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/bottle", TestHelper.getManager(), getCursorParams("invalid cursor")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("isCursorMode", true))
+                .andExpect(MockMvcResultMatchers.model().attribute("previousCursor", nullValue()))
+                .andExpect(view().name("beverage/bottle/list"));
+    }
+
+    @Test
+    public void getBottles_search() throws Exception {
+        List<Bottle> mockBottles = TestHelper.getMockBottles();
+
+        when(beverageService.searchBottlesWithAllowedStock("cola", searchProperties.getResultLimit())).thenReturn(mockBottles);
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/bottle", TestHelper.getManager(), getSearchParams("cola")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("bottles", mockBottles))
+                .andExpect(MockMvcResultMatchers.model().attribute("isSearchMode", true))
+                .andExpect(MockMvcResultMatchers.model().attribute("searchQuery", "cola"))
+                .andExpect(view().name("beverage/bottle/list"));
+    }
+
     @Test
     public void getBottles_security() throws Exception {
         mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/bottle", null, TestHelper.getPageParams()))
@@ -324,6 +406,44 @@ public class BeverageControllerTests {
                 .andExpect(view().name("beverage/crate/list"));
     }
 
+    @Test
+    public void getCrates_cursor() throws Exception {
+        List<Crate> mockCrates = TestHelper.getMockCrates();
+
+        when(beverageService.getCrateCursorPageWithAllowedStock("", crateProperties.getPageSize())).thenReturn(new CursorPage<>(mockCrates, null, "next"));
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/crate", TestHelper.getCustomer(), getCursorParams("")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("crates", mockCrates))
+                .andExpect(MockMvcResultMatchers.model().attribute("isCursorMode", true))
+                .andExpect(MockMvcResultMatchers.model().attribute("previousCursor", nullValue()))
+                .andExpect(MockMvcResultMatchers.model().attribute("nextCursor", "next"))
+                .andExpect(view().name("beverage/crate/list"));
+    }
+
+    @Test
+    public void getCrates_invalidCursor() throws Exception {
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/crate", TestHelper.getManager(), getCursorParams("invalid cursor")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("isCursorMode", true))
+                .andExpect(MockMvcResultMatchers.model().attribute("previousCursor", nullValue()))
+                .andExpect(view().name("beverage/crate/list"));
+    }
+
+    @Test
+    public void getCrates_search() throws Exception {
+        List<Crate> mockCrates = TestHelper.getMockCrates();
+
+        when(beverageService.searchCratesWithAllowedStock("cola", searchProperties.getResultLimit())).thenReturn(mockCrates);
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/crate", TestHelper.getManager(), getSearchParams("cola")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("crates", mockCrates))
+                .andExpect(MockMvcResultMatchers.model().attribute("isSearchMode", true))
+                .andExpect(MockMvcResultMatchers.model().attribute("searchQuery", "cola"))
+                .andExpect(view().name("beverage/crate/list"));
+    }
+
     @Test
     public void getCrates_security() throws Exception {
         mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/crate", null, TestHelper.getPageParams()))
@@ -534,6 +654,20 @@ public class BeverageControllerTests {
                 .andExpect(MockMvcResultMatchers.status().isForbidden());
     }
 
+    private MultiValueMap<String, String> getCursorParams(String cursor) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("cursor", cursor);
+
+        return params;
+    }
+
+    private MultiValueMap<String, String> getSearchParams(String query) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("q", query);
+
+        return params;
+    }
+
     private MultiValueMap<String, String> getCrateDTOValidParams() {
 
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
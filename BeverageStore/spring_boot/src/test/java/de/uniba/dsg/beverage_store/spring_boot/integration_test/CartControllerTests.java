@@ -147,7 +147,8 @@ public class CartControllerTests {
                 .andExpect(MockMvcResultMatchers.status().isFound())
                 .andExpect(redirectedUrlPattern("/**/order/**"));
 
-        verify(cartService, times(1)).clearCart();
+        // the cart is only cleared once the order commits, which the test transaction never does
+        verify(cartService, never()).clearCart();
 
         long orderCountAfterAdd = orderRepository.count();
         long orderItemCountAfterAdd = orderItemRepository.count();
@@ -214,6 +215,61 @@ public class CartControllerTests {
                 .andExpect(view().name("cart/checkout"));
     }
 
+    @Test
+    public void checkout_insufficientStock() throws Exception {
+        ApplicationUser customer = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(customer.getUsername());
+
+        List<CartItem> cartItems = getMockCartItems();
+        cartItems.forEach(x -> x.setQuantity(Integer.MAX_VALUE / 2));
+
+        when(cartService.getCartItems()).thenReturn(cartItems);
+        when(cartService.getCartTotal()).thenReturn(getMockCartTotal());
+        when(cartService.getCartItemCount()).thenReturn(getMockCartItemCount());
+        when(addressService.getAllByUsername(anyString())).thenReturn(TestHelper.getMockAddresses());
+
+        long orderCountBeforeAdd = orderRepository.count();
+
+        mockMvc.perform(TestHelper.createPostRequest(BASE_PATH + "/checkout", customer, getSubmitOrderDTOValidParams(address.getId(), address.getId()))
+                .session(mockHttpSession))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("hasServerError", false))
+                .andExpect(MockMvcResultMatchers.model().attribute("shortCartItems", cartItems))
+                .andExpect(view().name("cart/checkout"));
+
+        verify(cartService, times(0)).clearCart();
+
+        assertEquals(orderCountBeforeAdd, orderRepository.count());
+    }
+
+    @Test
+    public void checkout_priceChanged() throws Exception {
+        ApplicationUser customer = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(customer.getUsername());
+
+        List<CartItem> cartItems = getMockCartItems();
+        cartItems.forEach(x -> x.setPrice(x.getPrice() + 1));
+
+        when(cartService.getCartItems()).thenReturn(cartItems);
+        when(cartService.getCartTotal()).thenReturn(getMockCartTotal());
+        when(cartService.getCartItemCount()).thenReturn(getMockCartItemCount());
+        when(addressService.getAllByUsername(anyString())).thenReturn(TestHelper.getMockAddresses());
+
+        long orderCountBeforeAdd = orderRepository.count();
+
+        mockMvc.perform(TestHelper.createPostRequest(BASE_PATH + "/checkout", customer, getSubmitOrderDTOValidParams(address.getId(), address.getId()))
+                .session(mockHttpSession))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("hasServerError", false))
+                .andExpect(MockMvcResultMatchers.model().attributeExists("operationError"))
+                .andExpect(view().name("cart/checkout"));
+
+        verify(cartService, times(cartItems.size())).updateCartItemPrice(any(CartItem.class), anyDouble());
+        verify(cartService, times(0)).clearCart();
+
+        assertEquals(orderCountBeforeAdd, orderRepository.count());
+    }
+
     @Test
     public void checkout_security() throws Exception {
         ApplicationUser customer = TestHelper.getCustomer();
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -57,6 +58,35 @@ public class CartItemRestControllerTests {
         verify(cartService, times(1)).getCartItemCount();
     }
 
+    @Test
+    public void getCount_notModified() throws Exception {
+        when(cartService.getCartItemCount()).thenReturn(5);
+        when(cartService.getReservationHolderId()).thenReturn("holder");
+        when(cartService.getRevision()).thenReturn(1L);
+
+        String eTag = mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/count", TestHelper.getCustomer())
+                .session(mockHttpSession))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/count", TestHelper.getCustomer())
+                .session(mockHttpSession)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        when(cartService.getRevision()).thenReturn(2L);
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/count", TestHelper.getCustomer())
+                .session(mockHttpSession)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(5)));
+
+        verify(cartService, times(2)).getCartItemCount();
+    }
+
     @Test
     public void getCount_security() throws Exception {
         mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/count", null))
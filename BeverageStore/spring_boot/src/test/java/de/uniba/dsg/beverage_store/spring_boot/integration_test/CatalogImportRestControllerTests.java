@@ -0,0 +1,64 @@
+package de.uniba.dsg.beverage_store.spring_boot.integration_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CatalogImportRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String BASE_PATH = "/api/catalog/import";
+
+    private final String BOTTLES_CSV = "name,picUrl,price,inStock,volume,volumePercent,supplier\n" +
+            "Imported Cola,https://test.com/cola.png,1.5,20,0.5,0,Cola Works\n" +
+            "Imported Juice,not-a-url,1.0,10,1.0,0,Juice Works\n";
+
+    @Test
+    @Transactional
+    public void importBottles_success() throws Exception {
+        mockMvc.perform(TestHelper.createRestUploadRequest(BASE_PATH + "/bottles", TestHelper.getManager(), "text/csv", BOTTLES_CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows", is(2)))
+                .andExpect(jsonPath("$.insertedRows", is(1)))
+                .andExpect(jsonPath("$.failedRows", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)));
+    }
+
+    @Test
+    @Transactional
+    public void importStock_success() throws Exception {
+        mockMvc.perform(TestHelper.createRestUploadRequest(BASE_PATH + "/stock", TestHelper.getManager(), "application/x-ndjson",
+                "{\"beverageType\":\"CRATE\",\"beverageId\":" + Long.MAX_VALUE + ",\"quantity\":1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows", is(1)))
+                .andExpect(jsonPath("$.failedRows", is(1)));
+    }
+
+    @Test
+    public void importBottles_invalidData() throws Exception {
+        mockMvc.perform(TestHelper.createRestUploadRequest(BASE_PATH + "/bottles", TestHelper.getManager(), MediaType.APPLICATION_JSON_VALUE, "[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    public void importBottles_security() throws Exception {
+        mockMvc.perform(TestHelper.createRestUploadRequest(BASE_PATH + "/bottles", null, "text/csv", BOTTLES_CSV))
+                .andExpect(status().isFound());
+
+        mockMvc.perform(TestHelper.createRestUploadRequest(BASE_PATH + "/bottles", TestHelper.getCustomer(), "text/csv", BOTTLES_CSV))
+                .andExpect(status().isForbidden());
+    }
+}
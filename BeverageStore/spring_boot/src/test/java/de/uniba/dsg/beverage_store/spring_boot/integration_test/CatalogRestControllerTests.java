@@ -0,0 +1,68 @@
+package de.uniba.dsg.beverage_store.spring_boot.integration_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CatalogRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String BASE_PATH = "/api/catalog";
+
+    @Test
+    public void search_success() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/search?q=sprite&type=BOTTLE", TestHelper.getManager()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Sprite")))
+                .andExpect(jsonPath("$[0].beverageType", is("BOTTLE")));
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/search?q=spirte+crate&type=CRATE&limit=1", TestHelper.getCustomer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].name", is("Sprite Crate")));
+    }
+
+    @Test
+    public void search_invalidData() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/search?q=", TestHelper.getManager()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void search_security() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/search?q=sprite", null))
+                .andExpect(status().isFound());
+    }
+
+    @Test
+    public void autocomplete_success() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/autocomplete?q=spr&type=BOTTLE", TestHelper.getCustomer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Sprite")));
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/autocomplete?q=c&limit=2", TestHelper.getManager()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)));
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/autocomplete?q=", TestHelper.getCustomer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(0)));
+    }
+
+    @Test
+    public void autocomplete_security() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/autocomplete?q=spr", null))
+                .andExpect(status().isFound());
+    }
+}
@@ -2,9 +2,11 @@ package de.uniba.dsg.beverage_store.spring_boot.integration_test;
 
 import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Address;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
-import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.CustomerSummary;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
 import de.uniba.dsg.beverage_store.spring_boot.service.AddressService;
 import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
 import de.uniba.dsg.beverage_store.spring_boot.service.UserService;
@@ -22,6 +24,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
@@ -46,7 +49,7 @@ public class CustomerControllerTests {
 
     @Test
     public void getCustomer_success() throws Exception {
-        List<ApplicationUser> mockCustomers = TestHelper.getMockCustomers();
+        List<CustomerSummary> mockCustomers = TestHelper.getMockCustomers();
 
         when(userService.getPagedCustomers(anyInt(), anyInt())).thenReturn(new PageImpl<>(mockCustomers));
 
@@ -60,7 +63,7 @@ public class CustomerControllerTests {
 
     @Test
     public void getCustomer_noPageParam() throws Exception {
-        List<ApplicationUser> mockCustomers = TestHelper.getMockCustomers();
+        List<CustomerSummary> mockCustomers = TestHelper.getMockCustomers();
 
         when(userService.getPagedCustomers(anyInt(), anyInt())).thenReturn(new PageImpl<>(mockCustomers));
 
@@ -86,16 +89,17 @@ public class CustomerControllerTests {
     public void getCustomerDetails_success() throws Exception {
         ApplicationUser mockCustomer = TestHelper.getMockCustomer();
         List<Address> mockAddresses = TestHelper.getMockAddresses();
-        List<BeverageOrder> mockOrders = TestHelper.getMockOrdersForCustomer();
+        List<OrderSummary> mockOrders = TestHelper.getMockOrdersForCustomer();
 
         when(userService.getUserByUserName(anyString())).thenReturn(mockCustomer);
-        when(orderService.getOrdersByUsername(anyString())).thenReturn(mockOrders);
+        when(orderService.getOrderHistoryByUsername(anyString(), isNull(), anyInt())).thenReturn(new CursorPage<>(mockOrders, null, "next"));
         when(addressService.getAllByUsername(anyString())).thenReturn(mockAddresses);
 
         mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/" + mockCustomer.getUsername(), TestHelper.getManager(), TestHelper.getPageParams()))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.model().attribute("customer", mockCustomer))
                 .andExpect(MockMvcResultMatchers.model().attribute("orders", mockOrders))
+                .andExpect(MockMvcResultMatchers.model().attribute("nextOrderCursor", "next"))
                 .andExpect(MockMvcResultMatchers.model().attribute("addresses", mockAddresses))
                 .andExpect(MockMvcResultMatchers.model().attribute("customerNotFound", false))
                 .andExpect(view().name("customer/details"));
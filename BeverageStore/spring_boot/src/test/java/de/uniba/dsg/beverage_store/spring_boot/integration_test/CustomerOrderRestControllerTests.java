@@ -0,0 +1,61 @@
+package de.uniba.dsg.beverage_store.spring_boot.integration_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CustomerOrderRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderService orderService;
+
+    private final String BASE_PATH = "/api/customers";
+
+    @Test
+    public void getOrderHistory_success() throws Exception {
+        when(orderService.getOrderHistoryByUsername(anyString(), eq("cursor"), anyInt())).thenReturn(new CursorPage<>(TestHelper.getMockOrdersForCustomer(), null, null));
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/testuser1/orders?cursor=cursor", TestHelper.getManager()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(2)))
+                .andExpect(jsonPath("$.content[0].orderNumber", is("Order01")))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    public void getOrderHistory_invalidCursor() throws Exception {
+        when(orderService.getOrderHistoryByUsername(anyString(), anyString(), anyInt())).thenThrow(IllegalArgumentException.class);
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/testuser1/orders?cursor=invalid", TestHelper.getManager()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getOrderHistory_security() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/testuser1/orders", null))
+                .andExpect(status().isFound());
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/testuser1/orders", TestHelper.getCustomer()))
+                .andExpect(status().isForbidden());
+    }
+}
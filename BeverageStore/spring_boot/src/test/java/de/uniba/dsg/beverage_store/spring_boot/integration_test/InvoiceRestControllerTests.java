@@ -2,6 +2,7 @@ package de.uniba.dsg.beverage_store.spring_boot.integration_test;
 
 import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderAggregate;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
 import de.uniba.dsg.beverage_store.spring_boot.service.InvoiceService;
 import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
@@ -109,8 +110,7 @@ public class InvoiceRestControllerTests {
     public void generateOrderInvoice_success() throws Exception {
         BeverageOrder mockOrder = TestHelper.getMockOrder();
 
-        when(orderService.getOrderByOrderNumber(mockOrder.getOrderNumber())).thenReturn(mockOrder);
-        when(orderService.getOrderItemsByOrderNumber(mockOrder.getOrderNumber())).thenReturn(TestHelper.getMockOrderItems());
+        when(orderService.getOrderAggregate(mockOrder.getOrderNumber())).thenReturn(new OrderAggregate(mockOrder, TestHelper.getMockOrderItems()));
 
         mockMvc.perform(MockMvcRequestBuilders.post(BASE_PATH + "/order/" + mockOrder.getOrderNumber())
                 .with(user(TestHelper.getManager())))
@@ -125,7 +125,7 @@ public class InvoiceRestControllerTests {
     public void generateOrderInvoice_orderNotFound() throws Exception {
         BeverageOrder mockOrder = TestHelper.getMockOrder();
 
-        when(orderService.getOrderByOrderNumber(mockOrder.getOrderNumber())).thenThrow(NotFoundException.class);
+        when(orderService.getOrderAggregate(mockOrder.getOrderNumber())).thenThrow(NotFoundException.class);
 
         mockMvc.perform(MockMvcRequestBuilders.post(BASE_PATH + "/order/" + mockOrder.getOrderNumber())
                 .with(user(TestHelper.getManager())))
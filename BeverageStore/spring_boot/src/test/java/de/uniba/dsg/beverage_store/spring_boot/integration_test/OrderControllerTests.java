@@ -2,8 +2,10 @@ package de.uniba.dsg.beverage_store.spring_boot.integration_test;
 
 import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderAggregate;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrderItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
 import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +13,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.util.LinkedMultiValueMap;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
@@ -37,8 +44,8 @@ public class OrderControllerTests {
 
     @Test
     public void getCustomerOrders_success() throws Exception {
-        List<BeverageOrder> mockOrdersForManager = TestHelper.getMockOrdersForManager();
-        List<BeverageOrder> mockOrdersForCustomer = TestHelper.getMockOrdersForCustomer();
+        List<OrderSummary> mockOrdersForManager = TestHelper.getMockOrdersForManager();
+        List<OrderSummary> mockOrdersForCustomer = TestHelper.getMockOrdersForCustomer();
 
         when(orderService.getPagedOrders(anyInt(), anyInt())).thenReturn(new PageImpl<>(mockOrdersForManager));
         when(orderService.getPagedOrdersByUsername(anyString(), anyInt(), anyInt())).thenReturn(new PageImpl<>(mockOrdersForCustomer));
@@ -60,8 +67,8 @@ public class OrderControllerTests {
 
     @Test
     public void getCustomerOrders_noPageParam() throws Exception {
-        List<BeverageOrder> mockOrdersForManager = TestHelper.getMockOrdersForManager();
-        List<BeverageOrder> mockOrdersForCustomer = TestHelper.getMockOrdersForCustomer();
+        List<OrderSummary> mockOrdersForManager = TestHelper.getMockOrdersForManager();
+        List<OrderSummary> mockOrdersForCustomer = TestHelper.getMockOrdersForCustomer();
 
         when(orderService.getPagedOrders(anyInt(), anyInt())).thenReturn(new PageImpl<>(mockOrdersForManager));
         when(orderService.getPagedOrdersByUsername(anyString(), anyInt(), anyInt())).thenReturn(new PageImpl<>(mockOrdersForCustomer));
@@ -93,8 +100,7 @@ public class OrderControllerTests {
         BeverageOrder mockOrder = TestHelper.getMockOrder();
         List<BeverageOrderItem> mockOrderItems = TestHelper.getMockOrderItems();
 
-        when(orderService.getOrderByOrderNumber(anyString())).thenReturn(mockOrder);
-        when(orderService.getOrderItemsByOrderNumber(anyString())).thenReturn(mockOrderItems);
+        when(orderService.getOrderAggregate(anyString())).thenReturn(new OrderAggregate(mockOrder, mockOrderItems));
 
         mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/" + mockOrder.getOrderNumber(), TestHelper.getManager(), TestHelper.getPageParams()))
                 .andExpect(MockMvcResultMatchers.status().isOk())
@@ -111,9 +117,38 @@ public class OrderControllerTests {
                 .andExpect(view().name("order/details"));
     }
 
+    @Test
+    public void getOrder_notModified() throws Exception {
+        BeverageOrder mockOrder = TestHelper.getMockOrder();
+        MockHttpSession session = new MockHttpSession();
+
+        when(orderService.getOrderAggregate(anyString())).thenReturn(new OrderAggregate(mockOrder, TestHelper.getMockOrderItems()));
+
+        String eTag = mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/" + mockOrder.getOrderNumber(), TestHelper.getCustomer(), new LinkedMultiValueMap<>())
+                .session(session))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(eTag);
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/" + mockOrder.getOrderNumber(), TestHelper.getCustomer(), new LinkedMultiValueMap<>())
+                .session(session)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        verify(orderService, times(1)).getOrderAggregate(anyString());
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/" + mockOrder.getOrderNumber(), TestHelper.getManager(), new LinkedMultiValueMap<>())
+                .session(new MockHttpSession())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
     @Test
     public void getOrder_orderNotFound() throws Exception {
-        when(orderService.getOrderByOrderNumber(anyString())).thenThrow(NotFoundException.class);
+        when(orderService.getOrderAggregate(anyString())).thenThrow(NotFoundException.class);
 
         mockMvc.perform(TestHelper.createGetRequest(BASE_PATH + "/Order01", TestHelper.getManager(), TestHelper.getPageParams()))
                 .andExpect(MockMvcResultMatchers.status().isOk())
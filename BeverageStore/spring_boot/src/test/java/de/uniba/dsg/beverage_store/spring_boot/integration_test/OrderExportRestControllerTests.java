@@ -0,0 +1,73 @@
+package de.uniba.dsg.beverage_store.spring_boot.integration_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OrderExportRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String BASE_PATH = "/api/orders/export";
+
+    @Test
+    public void exportOrders_csv() throws Exception {
+        MvcResult result = mockMvc.perform(TestHelper.createRestGetRequest(getExportUrl(LocalDate.now(), LocalDate.now(), "CSV"), TestHelper.getManager()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("text/csv")))
+                .andExpect(header().string("Content-Disposition", containsString(".csv")))
+                .andExpect(content().string(startsWith("orderNumber,date,orderPrice")));
+    }
+
+    @Test
+    public void exportOrders_ndjson() throws Exception {
+        MvcResult result = mockMvc.perform(TestHelper.createRestGetRequest(getExportUrl(LocalDate.now(), LocalDate.now(), "NDJSON"), TestHelper.getManager()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andExpect(content().string(startsWith("{\"orderNumber\":")));
+    }
+
+    @Test
+    public void exportOrders_invalidRange() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(getExportUrl(LocalDate.now(), LocalDate.now().minusDays(1), "CSV"), TestHelper.getManager()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportOrders_security() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(getExportUrl(LocalDate.now(), LocalDate.now(), "CSV"), null))
+                .andExpect(status().isFound());
+
+        mockMvc.perform(TestHelper.createRestGetRequest(getExportUrl(LocalDate.now(), LocalDate.now(), "CSV"), TestHelper.getCustomer()))
+                .andExpect(status().isForbidden());
+    }
+
+    private String getExportUrl(LocalDate from, LocalDate to, String format) {
+        return BASE_PATH + "?from=" + from + "&to=" + to + "&format=" + format;
+    }
+}
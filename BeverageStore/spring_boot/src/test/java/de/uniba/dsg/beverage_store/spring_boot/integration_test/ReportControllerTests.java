@@ -0,0 +1,71 @@
+package de.uniba.dsg.beverage_store.spring_boot.integration_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ReportControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String BASE_PATH = "/report";
+
+    @Test
+    public void getDashboard_success() throws Exception {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("from", LocalDate.now().minusDays(7).toString());
+        params.add("to", LocalDate.now().toString());
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH, TestHelper.getManager(), params))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("from", LocalDate.now().minusDays(7)))
+                .andExpect(model().attribute("to", LocalDate.now()))
+                .andExpect(model().attributeExists("dailySales", "kpis", "topBeverages", "topCustomers"))
+                .andExpect(view().name("report/dashboard"));
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH, TestHelper.getManager(), new LinkedMultiValueMap<>()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("to", LocalDate.now()))
+                .andExpect(view().name("report/dashboard"));
+    }
+
+    @Test
+    public void getDashboard_security() throws Exception {
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH, null, new LinkedMultiValueMap<>()))
+                .andExpect(status().isFound());
+
+        mockMvc.perform(TestHelper.createGetRequest(BASE_PATH, TestHelper.getCustomer(), new LinkedMultiValueMap<>()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional
+    public void rebuildRollups_success() throws Exception {
+        mockMvc.perform(TestHelper.createRestPostRequest("/api/reports/rollups/rebuild", TestHelper.getManager(), null))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void rebuildRollups_security() throws Exception {
+        mockMvc.perform(TestHelper.createRestPostRequest("/api/reports/rollups/rebuild", null, null))
+                .andExpect(status().isFound());
+
+        mockMvc.perform(TestHelper.createRestPostRequest("/api/reports/rollups/rebuild", TestHelper.getCustomer(), null))
+                .andExpect(status().isForbidden());
+    }
+}
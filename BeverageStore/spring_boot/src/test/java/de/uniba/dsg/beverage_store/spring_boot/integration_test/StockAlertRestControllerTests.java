@@ -0,0 +1,94 @@
+package de.uniba.dsg.beverage_store.spring_boot.integration_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockAlert;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockAlertLevel;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockAlertService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StockAlertRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockAlertService stockAlertService;
+
+    private final String BASE_PATH = "/api/stock/alerts";
+
+    @Test
+    public void getAlerts_success() throws Exception {
+        when(stockAlertService.getRecentAlerts()).thenReturn(getMockAlerts());
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH, TestHelper.getManager()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].level", is("OUT_OF_STOCK")))
+                .andExpect(jsonPath("$[1].level", is("LOW_STOCK")))
+                .andExpect(jsonPath("$[1].inStock", is(3)));
+    }
+
+    @Test
+    public void getAlertPage_success() throws Exception {
+        List<StockAlert> mockAlerts = getMockAlerts();
+
+        when(stockAlertService.getRecentAlerts()).thenReturn(mockAlerts);
+
+        mockMvc.perform(TestHelper.createGetRequest("/alert", TestHelper.getManager(), new LinkedMultiValueMap<>()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("alerts", mockAlerts))
+                .andExpect(view().name("alert/list"));
+    }
+
+    @Test
+    public void streamAlerts_success() throws Exception {
+        when(stockAlertService.subscribe()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/stream", TestHelper.getManager()))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    public void alerts_security() throws Exception {
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH, null))
+                .andExpect(status().isFound());
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH, TestHelper.getCustomer()))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(TestHelper.createRestGetRequest(BASE_PATH + "/stream", TestHelper.getCustomer()))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(TestHelper.createGetRequest("/alert", TestHelper.getCustomer(), new LinkedMultiValueMap<>()))
+                .andExpect(status().isForbidden());
+    }
+
+    private List<StockAlert> getMockAlerts() {
+        return List.of(
+                new StockAlert(StockAlertLevel.OUT_OF_STOCK, BeverageType.CRATE, 1, "Sprite Crate", 0, LocalDateTime.now()),
+                new StockAlert(StockAlertLevel.LOW_STOCK, BeverageType.BOTTLE, 2, "Sprite", 3, LocalDateTime.now())
+        );
+    }
+}
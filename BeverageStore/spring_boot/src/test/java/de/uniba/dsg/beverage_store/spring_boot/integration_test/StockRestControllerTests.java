@@ -0,0 +1,99 @@
+package de.uniba.dsg.beverage_store.spring_boot.integration_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BatchStockAdjustmentDTO;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.StockAdjustmentDTO;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StockRestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    private final String BASE_PATH = "/api/stock";
+
+    @Test
+    @Transactional
+    public void adjustStock_success() throws Exception {
+        Bottle bottle = getBottle();
+
+        BatchStockAdjustmentDTO requestBody = new BatchStockAdjustmentDTO(List.of(
+                new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), 10)
+        ));
+
+        mockMvc.perform(TestHelper.createRestPatchRequest(BASE_PATH, TestHelper.getManager(), requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].beverageType", is("BOTTLE")))
+                .andExpect(jsonPath("$[0].beverageId", is(bottle.getId().intValue())))
+                .andExpect(jsonPath("$[0].inStock", is(bottle.getInStock() + 10)));
+    }
+
+    @Test
+    public void adjustStock_invalidData() throws Exception {
+        mockMvc.perform(TestHelper.createRestPatchRequest(BASE_PATH, TestHelper.getManager(), new BatchStockAdjustmentDTO(List.of())))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(TestHelper.createRestPatchRequest(BASE_PATH, TestHelper.getManager(), new BatchStockAdjustmentDTO(List.of(
+                new StockAdjustmentDTO(null, 1, 10)
+        ))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(TestHelper.createRestPatchRequest(BASE_PATH, TestHelper.getManager(), new BatchStockAdjustmentDTO(List.of(
+                new StockAdjustmentDTO(BeverageType.BOTTLE, getBottle().getId(), Integer.MIN_VALUE / 2)
+        ))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void adjustStock_notFound() throws Exception {
+        mockMvc.perform(TestHelper.createRestPatchRequest(BASE_PATH, TestHelper.getManager(), new BatchStockAdjustmentDTO(List.of(
+                new StockAdjustmentDTO(BeverageType.CRATE, Long.MAX_VALUE, 10)
+        ))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void adjustStock_security() throws Exception {
+        BatchStockAdjustmentDTO requestBody = new BatchStockAdjustmentDTO(List.of(
+                new StockAdjustmentDTO(BeverageType.BOTTLE, getBottle().getId(), 10)
+        ));
+
+        mockMvc.perform(TestHelper.createRestPatchRequest(BASE_PATH, null, requestBody))
+                .andExpect(status().isFound());
+
+        mockMvc.perform(TestHelper.createRestPatchRequest(BASE_PATH, TestHelper.getCustomer(), requestBody))
+                .andExpect(status().isForbidden());
+    }
+
+    private Bottle getBottle() {
+        Bottle bottle = bottleRepository.findAll()
+                .stream()
+                .findAny()
+                .orElse(null);
+
+        assertNotNull(bottle);
+
+        return bottle;
+    }
+}
@@ -5,6 +5,7 @@ import de.uniba.dsg.beverage_store.spring_boot.demo.DemoData;
 import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
 import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.BottleDTO;
@@ -15,6 +16,7 @@ import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
 import de.uniba.dsg.beverage_store.spring_boot.service.BeverageService;
 import de.uniba.dsg.beverage_store.spring_boot.service.CartService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -22,6 +24,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,6 +46,11 @@ public class BeverageServiceTests {
     @Autowired
     private BottleRepository bottleRepository;
 
+    @AfterEach
+    public void cleanup() {
+        cartService.clearCart();
+    }
+
     @Test
     public void getBottleById_success() throws NotFoundException {
         Bottle expectedBottle = TestHelper.getBottle();
@@ -57,6 +68,28 @@ public class BeverageServiceTests {
         assertThrows(NotFoundException.class, () -> beverageService.getBottleById(0L));
     }
 
+    @Test
+    public void getBottlesByIds_success() throws NotFoundException {
+        List<Bottle> expectedBottles = bottleRepository.findAll();
+
+        List<Long> ids = expectedBottles.stream()
+                .map(Bottle::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Bottle> actualBottles = beverageService.getBottlesByIds(ids);
+
+        assertEquals(expectedBottles.size(), actualBottles.size());
+
+        for (Bottle expectedBottle : expectedBottles) {
+            assertEquals(expectedBottle.getName(), actualBottles.get(expectedBottle.getId()).getName());
+        }
+    }
+
+    @Test
+    public void getBottlesByIds_bottleNotFound() {
+        assertThrows(NotFoundException.class, () -> beverageService.getBottlesByIds(List.of(TestHelper.getBottle().getId(), 0L)));
+    }
+
     @Test
     public void getBottles_success() {
         assertEquals(bottleRepository.findAll().size(), beverageService.getBottles().size());
@@ -91,6 +124,40 @@ public class BeverageServiceTests {
         assertEquals(bottle.getInStock() - addedQuantity, testBottle.getAllowedInStock());
     }
 
+    @Test
+    public void getBottleCursorPageWithAllowedStock_success() {
+        List<Long> expectedIds = bottleRepository.findAllByOrderByNameAscIdAsc()
+                .stream()
+                .map(Bottle::getId)
+                .collect(Collectors.toList());
+
+        List<Long> forwardIds = new ArrayList<>();
+        CursorPage<Bottle> bottlePage = beverageService.getBottleCursorPageWithAllowedStock(null, 3);
+
+        assertNull(bottlePage.getPreviousCursor());
+
+        while (true) {
+            bottlePage.getContent().forEach(x -> forwardIds.add(x.getId()));
+
+            if (bottlePage.getNextCursor() == null)
+                break;
+
+            bottlePage = beverageService.getBottleCursorPageWithAllowedStock(bottlePage.getNextCursor(), 3);
+        }
+
+        assertEquals(expectedIds, forwardIds);
+
+        CursorPage<Bottle> previousPage = beverageService.getBottleCursorPageWithAllowedStock(bottlePage.getPreviousCursor(), 3);
+
+        assertEquals(expectedIds.subList(0, 3), previousPage.getContent().stream().map(Bottle::getId).collect(Collectors.toList()));
+        assertNull(previousPage.getPreviousCursor());
+    }
+
+    @Test
+    public void getBottleCursorPageWithAllowedStock_invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> beverageService.getBottleCursorPageWithAllowedStock("invalid cursor", 3));
+    }
+
     @Test
     @Transactional
     public void addBottle_success() {
@@ -169,6 +236,28 @@ public class BeverageServiceTests {
         assertThrows(NotFoundException.class, () -> beverageService.getCrateById(0L));
     }
 
+    @Test
+    public void getCratesByIds_success() throws NotFoundException {
+        List<Crate> expectedCrates = crateRepository.findAll();
+
+        List<Long> ids = expectedCrates.stream()
+                .map(Crate::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Crate> actualCrates = beverageService.getCratesByIds(ids);
+
+        assertEquals(expectedCrates.size(), actualCrates.size());
+
+        for (Crate expectedCrate : expectedCrates) {
+            assertEquals(expectedCrate.getName(), actualCrates.get(expectedCrate.getId()).getName());
+        }
+    }
+
+    @Test
+    public void getCratesByIds_crateNotFound() {
+        assertThrows(NotFoundException.class, () -> beverageService.getCratesByIds(List.of(TestHelper.getCrate().getId(), 0L)));
+    }
+
     @Test
     public void getPagedCratesWithAllowedStock_success() throws NotFoundException, InsufficientStockException {
         for (int i = 1; i <= 3; i++) {
@@ -198,6 +287,40 @@ public class BeverageServiceTests {
         assertEquals(crate.getInStock() - addedQuantity, testCrate.getAllowedInStock());
     }
 
+    @Test
+    public void getCrateCursorPageWithAllowedStock_success() {
+        List<Long> expectedIds = crateRepository.findAllByOrderByNameAscIdAsc()
+                .stream()
+                .map(Crate::getId)
+                .collect(Collectors.toList());
+
+        List<Long> forwardIds = new ArrayList<>();
+        CursorPage<Crate> cratePage = beverageService.getCrateCursorPageWithAllowedStock(null, 3);
+
+        assertNull(cratePage.getPreviousCursor());
+
+        while (true) {
+            cratePage.getContent().forEach(x -> forwardIds.add(x.getId()));
+
+            if (cratePage.getNextCursor() == null)
+                break;
+
+            cratePage = beverageService.getCrateCursorPageWithAllowedStock(cratePage.getNextCursor(), 3);
+        }
+
+        assertEquals(expectedIds, forwardIds);
+
+        CursorPage<Crate> previousPage = beverageService.getCrateCursorPageWithAllowedStock(cratePage.getPreviousCursor(), 3);
+
+        assertEquals(expectedIds.subList(0, 3), previousPage.getContent().stream().map(Crate::getId).collect(Collectors.toList()));
+        assertNull(previousPage.getPreviousCursor());
+    }
+
+    @Test
+    public void getCrateCursorPageWithAllowedStock_invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> beverageService.getCrateCursorPageWithAllowedStock("invalid cursor", 3));
+    }
+
     @Test
     @Transactional
     public void addCrate_success() throws NotFoundException {
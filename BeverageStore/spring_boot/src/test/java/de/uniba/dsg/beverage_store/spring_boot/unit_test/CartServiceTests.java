@@ -8,9 +8,13 @@ import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
 import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.properties.ReservationProperties;
 import de.uniba.dsg.beverage_store.spring_boot.service.CartService;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import javax.annotation.Resource;
@@ -25,6 +29,12 @@ public class CartServiceTests {
     @Resource(name = "sessionScopedCartService")
     private CartService cartService;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ReservationProperties reservationProperties;
+
     @BeforeEach
     public void init() throws NotFoundException, InsufficientStockException {
         cartService.clearCart();
@@ -33,6 +43,11 @@ public class CartServiceTests {
         cartService.addCartItem(BeverageType.BOTTLE, TestHelper.getBottle().getId(), 2);
     }
 
+    @AfterEach
+    public void cleanup() {
+        cartService.clearCart();
+    }
+
     @Test
     public void addCartItem_success() throws NotFoundException, InsufficientStockException {
         cartService.addCartItem(BeverageType.CRATE, TestHelper.getCrate().getId(), 2);
@@ -105,6 +120,27 @@ public class CartServiceTests {
         assertEquals(2, cartService.getCartItems().size());
     }
 
+    @Test
+    public void refreshReservations_success() {
+        int holdSeconds = reservationProperties.getHoldSeconds();
+
+        try {
+            reservationProperties.setHoldSeconds(0);
+
+            cartService.refreshReservations();
+        } finally {
+            reservationProperties.setHoldSeconds(holdSeconds);
+        }
+
+        assertNull(stockReservationService.getReservedQuantities(BeverageType.BOTTLE).get(TestHelper.getBottle().getId()));
+
+        // using the cart again takes the lines back on hold
+        cartService.refreshReservations();
+
+        assertEquals(2, stockReservationService.getReservedQuantities(BeverageType.BOTTLE).get(TestHelper.getBottle().getId()));
+        assertEquals(2, stockReservationService.getReservedQuantities(BeverageType.CRATE).get(TestHelper.getCrate().getId()));
+    }
+
     @Test
     public void getCartItemCount_success() {
         assertEquals(4, cartService.getCartItemCount());
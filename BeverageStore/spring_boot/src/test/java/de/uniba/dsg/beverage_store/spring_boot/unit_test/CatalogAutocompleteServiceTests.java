@@ -0,0 +1,150 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSuggestion;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BottleDTO;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.BeverageService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogAutocompleteService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CatalogAutocompleteServiceTests {
+
+    @Autowired
+    private BeverageService beverageService;
+
+    @Autowired
+    private CatalogAutocompleteService catalogAutocompleteService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    @Test
+    public void suggest_success() {
+        List<CatalogSuggestion> suggestions = catalogAutocompleteService.suggest("Spr", BeverageType.BOTTLE, 10);
+
+        assertFalse(suggestions.isEmpty());
+        assertEquals("Sprite", suggestions.get(0).getName());
+        assertEquals(BeverageType.BOTTLE, suggestions.get(0).getBeverageType());
+    }
+
+    @Test
+    public void suggest_wordPrefix() {
+        List<CatalogSuggestion> suggestions = catalogAutocompleteService.suggest("cola", null, 10);
+
+        assertTrue(suggestions.stream().anyMatch(x -> x.getName().equals("Coca-Cola") && x.getBeverageType() == BeverageType.BOTTLE));
+        assertTrue(suggestions.stream().anyMatch(x -> x.getName().equals("Coca-Cola Crate") && x.getBeverageType() == BeverageType.CRATE));
+
+        assertTrue(catalogAutocompleteService.suggest("coca cola cr", BeverageType.CRATE, 10).stream().anyMatch(x -> x.getName().equals("Coca-Cola Crate")));
+        assertTrue(catalogAutocompleteService.suggest("COCA-", BeverageType.BOTTLE, 10).stream().anyMatch(x -> x.getName().equals("Coca-Cola")));
+    }
+
+    @Test
+    public void suggest_ranking() {
+        List<CatalogSuggestion> suggestions = catalogAutocompleteService.suggest("crate", BeverageType.CRATE, 10);
+
+        assertTrue(suggestions.size() >= 4);
+
+        for (int i = 1; i < suggestions.size(); i++) {
+            CatalogSuggestion previous = suggestions.get(i - 1), current = suggestions.get(i);
+
+            assertEquals(BeverageType.CRATE, current.getBeverageType());
+
+            if ((previous.getInStock() > 0) == (current.getInStock() > 0)) {
+                assertTrue(previous.getPopularity() >= current.getPopularity());
+            } else {
+                assertTrue(previous.getInStock() > 0);
+            }
+        }
+    }
+
+    @Test
+    public void suggest_limit() {
+        assertEquals(1, catalogAutocompleteService.suggest("c", null, 1).size());
+    }
+
+    @Test
+    public void suggest_noMatch() {
+        assertTrue(catalogAutocompleteService.suggest("xyz", null, 10).isEmpty());
+        assertTrue(catalogAutocompleteService.suggest(" ", null, 10).isEmpty());
+        assertTrue(catalogAutocompleteService.suggest(null, null, 10).isEmpty());
+        assertTrue(catalogAutocompleteService.suggest("sprite", null, 0).isEmpty());
+    }
+
+    @Test
+    public void suggest_addedBottle() throws InterruptedException {
+        assertTrue(catalogAutocompleteService.suggest("Sprudel", BeverageType.BOTTLE, 10).isEmpty());
+
+        Bottle bottle = beverageService.addBottle(new BottleDTO("Sprudel", "https://www.google.com/6753651837108829.4-law.gif", 1.0, 10, 1.0, 0.0, "Test Supplier"));
+
+        try {
+            List<CatalogSuggestion> suggestions = awaitSuggestions("sprud", BeverageType.BOTTLE, x -> !x.isEmpty());
+
+            assertEquals(1, suggestions.size());
+            assertEquals(bottle.getId(), suggestions.get(0).getBeverageId());
+        } finally {
+            bottleRepository.deleteById(bottle.getId());
+            catalogSnapshotService.invalidate();
+        }
+    }
+
+    @Test
+    public void suggest_stockPatch() {
+        CatalogSuggestion suggestion = catalogAutocompleteService.suggest("Sprite", BeverageType.BOTTLE, 1).get(0);
+
+        catalogSnapshotService.updateStock(List.of(new StockLevel(BeverageType.BOTTLE, suggestion.getBeverageId(), suggestion.getName(), suggestion.getInStock() + 1)));
+
+        try {
+            // a stock patch is visible straight away, without waiting for the index to be rebuilt
+            assertEquals(suggestion.getInStock() + 1, catalogAutocompleteService.suggest("Sprite", BeverageType.BOTTLE, 1).get(0).getInStock());
+        } finally {
+            catalogSnapshotService.updateStock(List.of(new StockLevel(BeverageType.BOTTLE, suggestion.getBeverageId(), suggestion.getName(), suggestion.getInStock())));
+        }
+    }
+
+    @Test
+    public void suggest_recordedSales() throws InterruptedException {
+        CatalogSuggestion suggestion = catalogAutocompleteService.suggest("Sprite", BeverageType.BOTTLE, 1).get(0);
+
+        CartItem cartItem = new CartItem();
+        cartItem.setBeverageType(BeverageType.BOTTLE);
+        cartItem.setBeverageId(suggestion.getBeverageId());
+        cartItem.setQuantity(3);
+
+        catalogAutocompleteService.recordSales(List.of(cartItem));
+
+        List<CatalogSuggestion> suggestions = awaitSuggestions("Sprite", BeverageType.BOTTLE, x -> x.get(0).getPopularity() != suggestion.getPopularity());
+
+        assertEquals(suggestion.getPopularity() + 3, suggestions.get(0).getPopularity());
+    }
+
+    // lookups keep getting the previous index until the background rebuild has replaced it
+    private List<CatalogSuggestion> awaitSuggestions(String prefix, BeverageType beverageType, Predicate<List<CatalogSuggestion>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        List<CatalogSuggestion> suggestions = catalogAutocompleteService.suggest(prefix, beverageType, 10);
+
+        while (!condition.test(suggestions) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+
+            suggestions = catalogAutocompleteService.suggest(prefix, beverageType, 10);
+        }
+
+        return suggestions;
+    }
+}
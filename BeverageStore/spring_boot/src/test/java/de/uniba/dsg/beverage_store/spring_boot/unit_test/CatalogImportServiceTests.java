@@ -0,0 +1,196 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogImportResult;
+import de.uniba.dsg.beverage_store.spring_boot.model.ImportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogImportService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CatalogImportServiceTests {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    @Autowired
+    private CrateRepository crateRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    @Transactional
+    public void importBottles_csv() throws Exception {
+        long revision = catalogSnapshotService.getRevision();
+
+        CatalogImportResult result = catalogImportService.importBottles(toInputStream(
+                "name,picUrl,price,inStock,volume,volumePercent,supplier\n" +
+                "Imported Lemonade,https://test.com/lemonade.png,1.5,20,0.5,0,\"Lemon, Inc.\"\n" +
+                "Sprite,https://test.com/sprite.png,2.0,30,1.0,0,Coca-cola Limited\n"
+        ), ImportFormat.CSV);
+
+        entityManager.clear();
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(1, result.getInsertedRows());
+        assertEquals(1, result.getUpdatedRows());
+        assertEquals(0, result.getFailedRows());
+        // the rows of the still open transaction are not published to the catalog snapshot
+        assertEquals(revision, catalogSnapshotService.getRevision());
+
+        Bottle importedBottle = getBottle("Imported Lemonade");
+
+        assertNotNull(importedBottle);
+        assertEquals("Lemon, Inc.", importedBottle.getSupplier());
+        assertEquals(20, importedBottle.getInStock());
+
+        Bottle updatedBottle = getBottle("Sprite");
+
+        assertNotNull(updatedBottle);
+        assertEquals(2.0, updatedBottle.getPrice());
+        assertEquals(30, updatedBottle.getInStock());
+    }
+
+    @Test
+    @Transactional
+    public void importBottles_duplicateNames() throws Exception {
+        CatalogImportResult result = catalogImportService.importBottles(toInputStream(
+                "name,picUrl,price,inStock,volume,volumePercent,supplier\n" +
+                "Imported Cola,https://test.com/cola.png,1.0,10,1.0,0,Cola Works\n" +
+                "Imported Cola,https://test.com/cola.png,1.2,15,1.0,0,Cola Works\n"
+        ), ImportFormat.CSV);
+
+        entityManager.clear();
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(1, result.getInsertedRows());
+        assertEquals(0, result.getUpdatedRows());
+        assertEquals(1, result.getSkippedRows());
+
+        Bottle importedBottle = getBottle("Imported Cola");
+
+        assertNotNull(importedBottle);
+        assertEquals(1.2, importedBottle.getPrice());
+        assertEquals(15, importedBottle.getInStock());
+    }
+
+    @Test
+    @Transactional
+    public void importBottles_invalidRows() throws Exception {
+        CatalogImportResult result = catalogImportService.importBottles(toInputStream(
+                "name,picUrl,price,inStock,volume,volumePercent,supplier\n" +
+                "Imported Water,https://test.com/water.png,1.0,10,1.0,0,Water Works\n" +
+                "Imported Juice,not-a-url,1.0,10,1.0,0,Juice Works\n" +
+                "Imported Tea,https://test.com/tea.png,abc,10,1.0,0,Tea Works\n"
+        ), ImportFormat.CSV);
+
+        entityManager.clear();
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(1, result.getInsertedRows());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(List.of(3L, 4L), result.getErrors()
+                .stream()
+                .map(x -> x.getLine())
+                .collect(Collectors.toList()));
+
+        assertNotNull(getBottle("Imported Water"));
+        assertNull(getBottle("Imported Juice"));
+        assertNull(getBottle("Imported Tea"));
+    }
+
+    @Test
+    @Transactional
+    public void importCrates_ndjson() throws Exception {
+        Bottle bottle = getBottle("Pepsi");
+
+        assertNotNull(bottle);
+
+        CatalogImportResult result = catalogImportService.importCrates(toInputStream(
+                "{\"name\":\"Imported Pepsi Crate\",\"picUrl\":\"https://test.com/pepsi.png\",\"price\":10.0,\"inStock\":5,\"noOfBottles\":12,\"bottleId\":" + bottle.getId() + "}\n" +
+                "\n" +
+                "{\"name\":\"Imported Ghost Crate\",\"picUrl\":\"https://test.com/ghost.png\",\"price\":10.0,\"inStock\":5,\"noOfBottles\":12,\"bottleId\":" + Long.MAX_VALUE + "}\n" +
+                "{\"name\":\"Imported Broken Crate\"\n"
+        ), ImportFormat.NDJSON);
+
+        entityManager.clear();
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(1, result.getInsertedRows());
+        assertEquals(2, result.getFailedRows());
+        assertTrue(result.getErrors().stream().anyMatch(x -> x.getLine() == 3 && x.getMessage().equals("No Bottle found with ID: " + Long.MAX_VALUE)));
+        assertTrue(result.getErrors().stream().anyMatch(x -> x.getLine() == 4));
+
+        Crate crate = crateRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals("Imported Pepsi Crate"))
+                .findFirst()
+                .orElse(null);
+
+        assertNotNull(crate);
+        assertEquals(bottle.getId(), crate.getBottle().getId());
+        assertEquals(12, crate.getNoOfBottles());
+    }
+
+    @Test
+    @Transactional
+    public void importStock_csv() throws Exception {
+        Bottle bottle = getBottle("7Up");
+
+        assertNotNull(bottle);
+
+        int inStock = bottle.getInStock();
+
+        CatalogImportResult result = catalogImportService.importStock(toInputStream(
+                "beverageType,beverageId,quantity\n" +
+                "BOTTLE," + bottle.getId() + ",5\n" +
+                "BOTTLE," + bottle.getId() + ",3\n" +
+                "CRATE," + Long.MAX_VALUE + ",1\n" +
+                "BOTTLE," + bottle.getId() + ",0\n"
+        ), ImportFormat.CSV);
+
+        entityManager.clear();
+
+        assertEquals(4, result.getTotalRows());
+        assertEquals(2, result.getUpdatedRows());
+        assertEquals(2, result.getFailedRows());
+
+        assertEquals(inStock + 8, bottleRepository.findById(bottle.getId()).orElseThrow().getInStock());
+    }
+
+    private Bottle getBottle(String name) {
+        return bottleRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,130 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSearchHit;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BottleUpdateDTO;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.BeverageService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CatalogSearchServiceTests {
+
+    @Autowired
+    private BeverageService beverageService;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private CrateRepository crateRepository;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    @Test
+    public void search_success() {
+        Bottle bottle = getBottle("Sprite");
+
+        List<CatalogSearchHit> hits = catalogSearchService.search("sprite", null, 10);
+
+        assertTrue(hits.size() >= 2);
+        assertEquals(BeverageType.BOTTLE, hits.get(0).getBeverageType());
+        assertEquals(bottle.getId(), hits.get(0).getBeverageId());
+        assertTrue(hits.stream().anyMatch(x -> x.getBeverageType() == BeverageType.CRATE && x.getName().equals("Sprite Crate")));
+
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).getScore() >= hits.get(i).getScore());
+        }
+    }
+
+    @Test
+    public void search_beverageType() {
+        Crate crate = crateRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals("Pepsi Crate"))
+                .findFirst()
+                .orElse(null);
+
+        assertNotNull(crate);
+
+        List<CatalogSearchHit> hits = catalogSearchService.search("PEPSI crate", BeverageType.CRATE, 10);
+
+        assertFalse(hits.isEmpty());
+        assertEquals(crate.getId(), hits.get(0).getBeverageId());
+        assertTrue(hits.stream().allMatch(x -> x.getBeverageType() == BeverageType.CRATE));
+    }
+
+    @Test
+    public void search_supplier() {
+        List<CatalogSearchHit> hits = catalogSearchService.search("Coca-Cola Limited", BeverageType.BOTTLE, 10);
+
+        assertTrue(hits.size() >= 4);
+        assertEquals(getBottle("Coca-Cola").getId(), hits.get(0).getBeverageId());
+    }
+
+    @Test
+    public void search_prefix() {
+        List<CatalogSearchHit> hits = catalogSearchService.search("spr", BeverageType.BOTTLE, 10);
+
+        assertFalse(hits.isEmpty());
+        assertEquals(getBottle("Sprite").getId(), hits.get(0).getBeverageId());
+    }
+
+    @Test
+    public void search_typo() {
+        assertEquals(getBottle("Sprite").getId(), catalogSearchService.search("spirte", BeverageType.BOTTLE, 10).get(0).getBeverageId());
+        assertEquals(getBottle("Pepsi").getId(), catalogSearchService.search("pepsy", BeverageType.BOTTLE, 10).get(0).getBeverageId());
+        assertEquals(getBottle("Coca-Cola").getId(), catalogSearchService.search("cocca", BeverageType.BOTTLE, 10).get(0).getBeverageId());
+    }
+
+    @Test
+    public void search_noMatch() {
+        assertTrue(catalogSearchService.search("lemonade", null, 10).isEmpty());
+        assertTrue(catalogSearchService.search(" - ", null, 10).isEmpty());
+        assertTrue(catalogSearchService.search(null, null, 10).isEmpty());
+        assertTrue(catalogSearchService.search("sprite", null, 0).isEmpty());
+    }
+
+    @Test
+    public void search_limit() {
+        assertEquals(1, catalogSearchService.search("crate", BeverageType.CRATE, 1).size());
+    }
+
+    @Test
+    public void search_updatedBottle() throws NotFoundException {
+        Bottle bottle = getBottle("7Up");
+
+        assertTrue(catalogSearchService.search("lemonade", BeverageType.BOTTLE, 10).isEmpty());
+
+        beverageService.updateBottle(bottle.getId(), new BottleUpdateDTO("Lemonade", bottle.getPicUrl(), bottle.getPrice(), bottle.getVolume(), bottle.getVolumePercent(), bottle.getSupplier()));
+
+        try {
+            List<CatalogSearchHit> hits = catalogSearchService.search("lemonade", BeverageType.BOTTLE, 10);
+
+            assertFalse(hits.isEmpty());
+            assertEquals(bottle.getId(), hits.get(0).getBeverageId());
+        } finally {
+            beverageService.updateBottle(bottle.getId(), new BottleUpdateDTO(bottle.getName(), bottle.getPicUrl(), bottle.getPrice(), bottle.getVolume(), bottle.getVolumePercent(), bottle.getSupplier()));
+        }
+    }
+
+    private Bottle getBottle(String name) {
+        return bottleRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,152 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.CatalogSnapshot;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.BottleUpdateDTO;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.BeverageService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CatalogSnapshotServiceTests {
+
+    @Autowired
+    private BeverageService beverageService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CrateRepository crateRepository;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void getSnapshot_success() {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+
+        assertEquals(bottleRepository.count(), snapshot.getBottles().size());
+        assertEquals(crateRepository.count(), snapshot.getCrates().size());
+
+        assertSame(snapshot, catalogSnapshotService.getSnapshot());
+    }
+
+    @Test
+    public void getBottlePage_success() {
+        List<Long> expectedIds = bottleRepository.findAllByOrderByNameAscIdAsc()
+                .stream()
+                .map(Bottle::getId)
+                .collect(Collectors.toList());
+
+        Page<Bottle> firstPage = catalogSnapshotService.getBottlePage(1, 2);
+        Page<Bottle> lastPage = catalogSnapshotService.getBottlePage(firstPage.getTotalPages() + 1, 2);
+
+        assertEquals(expectedIds.size(), firstPage.getTotalElements());
+        assertEquals(expectedIds.subList(0, 2), firstPage.stream().map(Bottle::getId).collect(Collectors.toList()));
+        assertEquals(0, lastPage.getNumberOfElements());
+    }
+
+    @Test
+    public void getCratePage_success() {
+        List<Long> expectedIds = crateRepository.findAllByOrderByNameAscIdAsc()
+                .stream()
+                .map(Crate::getId)
+                .collect(Collectors.toList());
+
+        Page<Crate> firstPage = catalogSnapshotService.getCratePage(1, 2);
+
+        assertEquals(expectedIds.size(), firstPage.getTotalElements());
+        assertEquals(expectedIds.subList(0, 2), firstPage.stream().map(Crate::getId).collect(Collectors.toList()));
+
+        for (Crate crate : firstPage.getContent()) {
+            assertNotNull(crate.getBottle());
+        }
+    }
+
+    @Test
+    public void getBottlePage_returnsCopies() {
+        Bottle bottle = catalogSnapshotService.getBottlePage(1, 1)
+                .getContent()
+                .get(0);
+
+        bottle.decreaseAllowedInStock(bottle.getInStock());
+
+        Bottle reloadedBottle = catalogSnapshotService.getBottlePage(1, 1)
+                .getContent()
+                .get(0);
+
+        assertEquals(reloadedBottle.getInStock(), reloadedBottle.getAllowedInStock());
+    }
+
+    @Test
+    public void updateStock_success() throws NotFoundException {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        Bottle bottle = snapshot.getBottles()
+                .get(0);
+
+        beverageService.addStockToBottle(bottle.getId(), 5);
+
+        try {
+            CatalogSnapshot updatedSnapshot = catalogSnapshotService.getSnapshot();
+            Bottle updatedBottle = updatedSnapshot.getBottlesById().get(bottle.getId());
+
+            assertTrue(updatedSnapshot.getRevision() > snapshot.getRevision());
+            assertEquals(snapshot.getContentRevision(), updatedSnapshot.getContentRevision());
+            assertEquals(bottle.getInStock() + 5, updatedBottle.getInStock());
+            assertSame(updatedBottle, updatedSnapshot.getBottles().get(0));
+            assertSame(snapshot.getBottles().get(1), updatedSnapshot.getBottles().get(1));
+        } finally {
+            beverageService.addStockToBottle(bottle.getId(), -5);
+        }
+    }
+
+    @Test
+    public void updateStock_ignoresRollback() {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        Bottle bottle = snapshot.getBottles()
+                .get(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                beverageService.addStockToBottle(bottle.getId(), 5);
+            } catch (NotFoundException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            status.setRollbackOnly();
+        });
+
+        assertSame(snapshot, catalogSnapshotService.getSnapshot());
+        assertEquals(bottle.getInStock(), bottleRepository.findById(bottle.getId()).orElseThrow().getInStock());
+    }
+
+    @Test
+    @Transactional
+    public void invalidate_waitsForCommit() throws NotFoundException {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        Bottle bottle = snapshot.getBottles()
+                .get(0);
+
+        beverageService.updateBottle(bottle.getId(), new BottleUpdateDTO("Uncommitted", bottle.getPicUrl(), bottle.getPrice(), bottle.getVolume(), bottle.getVolumePercent(), bottle.getSupplier()));
+
+        assertSame(snapshot, catalogSnapshotService.getSnapshot());
+    }
+}
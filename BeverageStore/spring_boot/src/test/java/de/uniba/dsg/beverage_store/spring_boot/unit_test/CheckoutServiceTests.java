@@ -0,0 +1,276 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.InvalidOperationException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Address;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.StockAdjustmentDTO;
+import de.uniba.dsg.beverage_store.spring_boot.properties.OrderProperties;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.CartService;
+import de.uniba.dsg.beverage_store.spring_boot.service.CheckoutService;
+import de.uniba.dsg.beverage_store.spring_boot.service.FireStoreService;
+import de.uniba.dsg.beverage_store.spring_boot.service.InvoiceService;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CheckoutServiceTests {
+
+    @Resource(name = "sessionScopedCartService")
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @MockBean
+    private InvoiceService invoiceService;
+
+    @MockBean
+    private FireStoreService fireStoreService;
+
+    @BeforeEach
+    public void init() {
+        cartService.clearCart();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        cartService.clearCart();
+    }
+
+    @Test
+    @Transactional
+    public void checkout_replaysCompletedOrder() throws NotFoundException, InsufficientStockException, InvalidOperationException {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
+
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 1);
+
+        long orderCountBeforeCheckout = orderRepository.count();
+
+        BeverageOrder order = checkoutService.checkout(user.getUsername(), address.getId(), address.getId(), idempotencyKey);
+        BeverageOrder replayedOrder = checkoutService.checkout(user.getUsername(), address.getId(), address.getId(), idempotencyKey);
+
+        assertEquals(order.getOrderNumber(), replayedOrder.getOrderNumber());
+        assertEquals(idempotencyKey, order.getIdempotencyKey());
+        assertEquals(orderCountBeforeCheckout + 1, orderRepository.count());
+    }
+
+    @Test
+    @Transactional
+    public void checkout_returnsPersistedOrder() throws NotFoundException, InsufficientStockException, InvalidOperationException {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
+
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 1);
+
+        BeverageOrder order = orderService.createOrder(user.getUsername(), address.getId(), address.getId(), idempotencyKey);
+
+        // the cart is only cleared once the order commits, which the test transaction never does
+        assertEquals(1, cartService.getCartItemCount());
+
+        BeverageOrder replayedOrder = checkoutService.checkout(user.getUsername(), address.getId(), address.getId(), idempotencyKey);
+
+        assertEquals(order.getOrderNumber(), replayedOrder.getOrderNumber());
+    }
+
+    @Test
+    @Transactional
+    public void checkout_distinctKeys() throws NotFoundException, InsufficientStockException, InvalidOperationException {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
+
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 1);
+        BeverageOrder firstOrder = checkoutService.checkout(user.getUsername(), address.getId(), address.getId(), UUID.randomUUID().toString());
+
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 1);
+        BeverageOrder secondOrder = checkoutService.checkout(user.getUsername(), address.getId(), address.getId(), UUID.randomUUID().toString());
+
+        assertNotEquals(firstOrder.getOrderNumber(), secondOrder.getOrderNumber());
+    }
+
+    @Test
+    public void checkout_concurrentDuplicateSubmit() throws Exception {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
+
+        String idempotencyKey = UUID.randomUUID().toString();
+        int inStock = bottleRepository.findById(bottle.getId()).orElseThrow().getInStock();
+
+        // two instances behind a load balancer, neither sees the other's checkout in flight
+        CheckoutService firstInstance = new CheckoutService(orderService, orderProperties);
+        CheckoutService secondInstance = new CheckoutService(orderService, orderProperties);
+
+        CountDownLatch firstOrderWritten = new CountDownLatch(1);
+        CountDownLatch firstOrderCommit = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<CheckoutResult> firstCheckout = executor.submit(() -> inSession(() -> {
+                cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 1);
+
+                // the first submit writes its order and holds the commit until the second one has started
+                BeverageOrder order = transactionTemplate.execute(status -> {
+                    try {
+                        BeverageOrder firstOrder = firstInstance.checkout(user.getUsername(), address.getId(), address.getId(), idempotencyKey);
+
+                        entityManager.flush();
+                        firstOrderWritten.countDown();
+                        firstOrderCommit.await(10, TimeUnit.SECONDS);
+
+                        return firstOrder;
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                });
+
+                return new CheckoutResult(order, cartService.getCartItemCount());
+            }));
+
+            assertTrue(firstOrderWritten.await(10, TimeUnit.SECONDS));
+
+            // the second submit misses the uncommitted order and loses on the unique key once the first one commits
+            Future<CheckoutResult> secondCheckout = executor.submit(() -> inSession(() -> {
+                cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 1);
+
+                BeverageOrder order = secondInstance.checkout(user.getUsername(), address.getId(), address.getId(), idempotencyKey);
+
+                return new CheckoutResult(order, cartService.getCartItemCount());
+            }));
+
+            Thread.sleep(200);
+            firstOrderCommit.countDown();
+
+            CheckoutResult firstResult = firstCheckout.get(10, TimeUnit.SECONDS);
+            CheckoutResult secondResult = secondCheckout.get(10, TimeUnit.SECONDS);
+
+            assertEquals(firstResult.order.getOrderNumber(), secondResult.order.getOrderNumber());
+            assertEquals(inStock - 1, bottleRepository.findById(bottle.getId()).orElseThrow().getInStock());
+
+            // only the session whose order committed gives up its cart
+            assertEquals(0, firstResult.cartItemCount);
+            assertEquals(1, secondResult.cartItemCount);
+        } finally {
+            executor.shutdownNow();
+
+            removeOrder(user.getUsername(), idempotencyKey, bottle);
+        }
+    }
+
+    @Test
+    public void checkout_emptyCart() {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+
+        assertThrows(InvalidOperationException.class, () -> checkoutService.checkout(user.getUsername(), address.getId(), address.getId(), null));
+        assertThrows(InvalidOperationException.class, () -> checkoutService.checkout(user.getUsername(), address.getId(), address.getId(), UUID.randomUUID().toString()));
+    }
+
+    // every thread gets its own session, and with it its own cart
+    private <T> T inSession(Callable<T> callable) throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        try {
+            return callable.call();
+        } finally {
+            cartService.clearCart();
+
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void removeOrder(String username, String idempotencyKey, Bottle bottle) throws NotFoundException, InsufficientStockException {
+        BeverageOrder order = orderRepository.findByUserUsernameAndIdempotencyKey(username, idempotencyKey)
+                .orElse(null);
+
+        if (order == null) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM OutboxMessage m WHERE m.aggregateId = :orderNumber")
+                    .setParameter("orderNumber", order.getOrderNumber())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM BeverageOrderItem i WHERE i.order.id = :orderId")
+                    .setParameter("orderId", order.getId())
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM BeverageOrder o WHERE o.id = :orderId")
+                    .setParameter("orderId", order.getId())
+                    .executeUpdate();
+        });
+
+        stockService.adjustStock(List.of(new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), 1)));
+    }
+
+    private static class CheckoutResult {
+        private final BeverageOrder order;
+        private final int cartItemCount;
+
+        private CheckoutResult(BeverageOrder order, int cartItemCount) {
+            this.order = order;
+            this.cartItemCount = cartItemCount;
+        }
+    }
+}
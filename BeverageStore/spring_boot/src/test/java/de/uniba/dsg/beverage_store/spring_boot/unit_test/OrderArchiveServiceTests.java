@@ -0,0 +1,247 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
+import de.uniba.dsg.beverage_store.spring_boot.model.ExportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderAggregate;
+import de.uniba.dsg.beverage_store.spring_boot.model.SalesKpis;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Address;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.ArchivedOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.ArchivedOrderItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrderItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
+import de.uniba.dsg.beverage_store.spring_boot.properties.ArchiveProperties;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.ArchivedOrderRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderArchiveService;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderExportService;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
+import de.uniba.dsg.beverage_store.spring_boot.service.SalesRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class OrderArchiveServiceTests {
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ArchiveProperties archiveProperties;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @Transactional
+    public void archiveColdMonths_success() {
+        LocalDate coldDate = LocalDate.now().minusYears(2);
+        BeverageOrder coldOrder = addOrder("ORDER-COLD", coldDate);
+
+        long orderCountBeforeArchive = orderRepository.count();
+
+        assertEquals(1, orderArchiveService.archiveColdMonths(YearMonth.now()));
+
+        entityManager.clear();
+
+        assertTrue(orderRepository.findByOrderNumber(coldOrder.getOrderNumber()).isEmpty());
+        assertTrue(orderItemRepository.findAllByOrderOrderNumber(coldOrder.getOrderNumber()).isEmpty());
+        assertEquals(orderCountBeforeArchive - 1, orderRepository.count());
+
+        Optional<ArchivedOrder> archivedOrder = archivedOrderRepository.findByOrderNumber(coldOrder.getOrderNumber());
+
+        assertTrue(archivedOrder.isPresent());
+        assertEquals(coldDate, archivedOrder.get().getDate());
+        assertEquals(coldOrder.getPrice(), archivedOrder.get().getPrice());
+        assertEquals(coldOrder.getUser().getUsername(), archivedOrder.get().getUsername());
+
+        List<ArchivedOrderItem> archivedOrderItems = archivedOrderItemRepository.findAllByOrderNumberOrderByPosition(coldOrder.getOrderNumber());
+
+        assertEquals(1, archivedOrderItems.size());
+        assertEquals(BeverageType.BOTTLE, archivedOrderItems.get(0).getBeverageType());
+        assertEquals(TestHelper.getBottle().getId(), archivedOrderItems.get(0).getBeverageId());
+        assertEquals(2, archivedOrderItems.get(0).getQuantity());
+        assertEquals(TestHelper.getBottle().getName(), archivedOrderItems.get(0).getName());
+        assertEquals(TestHelper.getBottle().getPrice(), archivedOrderItems.get(0).getPrice());
+
+        assertEquals(0, orderArchiveService.archiveColdMonths(YearMonth.now()));
+    }
+
+    @Test
+    @Transactional
+    public void archiveColdMonths_keepsHotMonths() {
+        BeverageOrder hotOrder = addOrder("ORDER-HOT", LocalDate.now().withDayOfMonth(1));
+
+        orderArchiveService.archiveColdMonths(YearMonth.now());
+
+        entityManager.clear();
+
+        assertTrue(orderRepository.findByOrderNumber(hotOrder.getOrderNumber()).isPresent());
+        assertTrue(archivedOrderRepository.findByOrderNumber(hotOrder.getOrderNumber()).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void archiveColdMonths_postponesPendingRollups() {
+        BeverageOrder pendingOrder = addOrder("ORDER-PENDING", LocalDate.now().minusYears(3), false);
+        BeverageOrder laterOrder = addOrder("ORDER-LATER", LocalDate.now().minusYears(2));
+
+        assertEquals(0, orderArchiveService.archiveColdMonths(YearMonth.now()));
+
+        entityManager.clear();
+
+        assertTrue(orderRepository.findByOrderNumber(pendingOrder.getOrderNumber()).isPresent());
+        assertTrue(archivedOrderRepository.findByOrderNumber(pendingOrder.getOrderNumber()).isEmpty());
+
+        // later months wait as well, so no archived order is ever newer than a live one
+        assertTrue(orderRepository.findByOrderNumber(laterOrder.getOrderNumber()).isPresent());
+        assertTrue(archivedOrderRepository.findByOrderNumber(laterOrder.getOrderNumber()).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void archiveColdMonths_archivedOrdersStayReadable() throws Exception {
+        assertTrue(archiveProperties.getEnabled());
+
+        LocalDate coldDate = LocalDate.now().minusYears(2);
+        BeverageOrder coldOrder = addOrder("ORDER-ARCHIVED", coldDate);
+        String username = coldOrder.getUser().getUsername();
+
+        assertEquals(1, orderArchiveService.archiveColdMonths(YearMonth.now()));
+
+        entityManager.clear();
+
+        OrderAggregate orderAggregate = orderService.getOrderAggregate(coldOrder.getOrderNumber());
+
+        assertEquals(coldOrder.getOrderNumber(), orderAggregate.getOrder().getOrderNumber());
+        assertEquals(coldDate, orderAggregate.getOrder().getDate());
+        assertEquals(username, orderAggregate.getOrder().getUser().getUsername());
+        assertEquals(coldOrder.getDeliveryAddress().getId(), orderAggregate.getOrder().getDeliveryAddress().getId());
+        assertEquals(1, orderAggregate.getOrderItems().size());
+        assertEquals(TestHelper.getBottle().getName(), orderAggregate.getOrderItems().get(0).getName());
+        assertEquals(2, orderAggregate.getOrderItems().get(0).getQuantity());
+
+        assertTrue(getOrderNumbers(orderService.getPagedOrders(1, 1000).getContent()).contains(coldOrder.getOrderNumber()));
+        assertTrue(getOrderNumbers(orderService.getPagedOrdersByUsername(username, 1, 1000).getContent()).contains(coldOrder.getOrderNumber()));
+
+        CursorPage<OrderSummary> history = orderService.getOrderHistoryByUsername(username, null, 1000);
+        List<String> historyOrderNumbers = getOrderNumbers(history.getContent());
+
+        // the archived order is the oldest one, so it closes the history after every live order
+        assertEquals(coldOrder.getOrderNumber(), historyOrderNumbers.get(historyOrderNumbers.size() - 1));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(1, orderExportService.exportOrders(coldDate, coldDate, ExportFormat.CSV, outputStream));
+        assertTrue(outputStream.toString(StandardCharsets.UTF_8).contains(coldOrder.getOrderNumber()));
+    }
+
+    @Test
+    @Transactional
+    public void getOrderHistoryByUsername_continuesIntoArchive() {
+        ApplicationUser user = TestHelper.getCustomer();
+
+        addOrder("ORDER-ARCHIVED-1", LocalDate.now().minusYears(3));
+        addOrder("ORDER-ARCHIVED-2", LocalDate.now().minusYears(2));
+
+        orderArchiveService.archiveColdMonths(YearMonth.now());
+
+        entityManager.clear();
+
+        List<String> expectedOrderNumbers = getOrderNumbers(orderService.getOrderHistoryByUsername(user.getUsername(), null, 1000).getContent());
+        List<String> actualOrderNumbers = new ArrayList<>();
+
+        String cursor = null;
+
+        do {
+            CursorPage<OrderSummary> page = orderService.getOrderHistoryByUsername(user.getUsername(), cursor, 1);
+
+            actualOrderNumbers.addAll(getOrderNumbers(page.getContent()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expectedOrderNumbers, actualOrderNumbers);
+        assertEquals(List.of("ORDER-ARCHIVED-2", "ORDER-ARCHIVED-1"), actualOrderNumbers.subList(actualOrderNumbers.size() - 2, actualOrderNumbers.size()));
+    }
+
+    @Test
+    @Transactional
+    public void rebuild_includesArchivedOrders() {
+        LocalDate coldDate = LocalDate.now().minusYears(2);
+        BeverageOrder coldOrder = addOrder("ORDER-COLD", coldDate);
+
+        orderArchiveService.archiveColdMonths(YearMonth.now());
+        salesRollupService.rebuild();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        SalesKpis kpis = salesRollupService.getKpis(salesRollupService.getDailySales(coldDate, coldDate));
+
+        assertEquals(1, kpis.getOrderCount());
+        assertEquals(2, kpis.getUnitCount());
+        assertEquals(coldOrder.getPrice(), kpis.getRevenue(), 0.001);
+    }
+
+    private List<String> getOrderNumbers(List<OrderSummary> orders) {
+        return orders.stream()
+                .map(OrderSummary::getOrderNumber)
+                .collect(Collectors.toList());
+    }
+
+    private BeverageOrder addOrder(String orderNumber, LocalDate date) {
+        return addOrder(orderNumber, date, true);
+    }
+
+    private BeverageOrder addOrder(String orderNumber, LocalDate date, boolean salesRolledUp) {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
+
+        BeverageOrder order = orderRepository.save(new BeverageOrder(null, orderNumber, null, date, bottle.getPrice() * 2, user, address, address, null, salesRolledUp));
+        orderItemRepository.save(new BeverageOrderItem(null, BeverageType.BOTTLE, 2, 1, bottle.getName(), bottle.getPrice(), bottle, null, order));
+
+        return order;
+    }
+}
@@ -0,0 +1,103 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.ExportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderExportRow;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class OrderExportServiceTests {
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void exportOrders_csv() throws IOException {
+        LocalDate today = LocalDate.now();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rowCount = orderExportService.exportOrders(today, today, ExportFormat.CSV, outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+
+        assertEquals(getOrderItemCount(today, today), rowCount);
+        assertTrue(rowCount > 0);
+        assertEquals(rowCount + 1, lines.size());
+        assertEquals(Helper.formatCsvLine(OrderExportRow.CSV_HEADER), lines.get(0));
+
+        for (String line : lines.subList(1, lines.size())) {
+            assertEquals(OrderExportRow.CSV_HEADER.size(), Helper.parseCsvLine(line).size());
+        }
+    }
+
+    @Test
+    public void exportOrders_ndjson() throws IOException {
+        LocalDate today = LocalDate.now();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rowCount = orderExportService.exportOrders(today, today, ExportFormat.NDJSON, outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+
+        assertEquals(rowCount, lines.size());
+
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+
+            assertNotNull(row.get("orderNumber").asText());
+            assertEquals(today.toString(), row.get("date").asText());
+            assertTrue(row.get("quantity").asInt() > 0);
+            assertNull(row.get("csvValues"));
+        }
+    }
+
+    @Test
+    public void exportOrders_emptyRange() throws IOException {
+        LocalDate from = LocalDate.now().minusYears(20);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(0, orderExportService.exportOrders(from, from.plusDays(1), ExportFormat.CSV, outputStream));
+        assertEquals(1, outputStream.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    public void formatCsvLine_escaping() {
+        List<String> values = List.of("plain", "with,comma", "with \"quotes\"");
+
+        String line = Helper.formatCsvLine(values);
+
+        assertEquals("plain,\"with,comma\",\"with \"\"quotes\"\"\"", line);
+        assertEquals(values, Helper.parseCsvLine(line));
+    }
+
+    private long getOrderItemCount(LocalDate from, LocalDate to) {
+        return orderItemRepository.findAll()
+                .stream()
+                .filter(x -> !x.getOrder().getDate().isBefore(from) && !x.getOrder().getDate().isAfter(to))
+                .count();
+    }
+}
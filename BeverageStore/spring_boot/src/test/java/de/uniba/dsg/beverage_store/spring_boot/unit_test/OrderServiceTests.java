@@ -5,26 +5,41 @@ import de.uniba.dsg.beverage_store.spring_boot.demo.DemoData;
 import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
 import de.uniba.dsg.beverage_store.spring_boot.exception.InvalidOperationException;
 import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
 import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CursorPage;
+import de.uniba.dsg.beverage_store.spring_boot.model.OrderAggregate;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.StockAdjustmentDTO;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.*;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.OrderSummary;
 import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.OrderItemRepository;
 import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OutboxMessageRepository;
 import de.uniba.dsg.beverage_store.spring_boot.service.CartService;
 import de.uniba.dsg.beverage_store.spring_boot.service.FireStoreService;
 import de.uniba.dsg.beverage_store.spring_boot.service.InvoiceService;
 import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockReservationService;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
+import org.springframework.test.context.transaction.TestTransaction;
 
 import javax.annotation.Resource;
 import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,6 +64,15 @@ public class OrderServiceTests {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
     @MockBean
     private InvoiceService invoiceService;
 
@@ -60,6 +84,11 @@ public class OrderServiceTests {
         cartService.clearCart();
     }
 
+    @AfterEach
+    public void cleanup() {
+        cartService.clearCart();
+    }
+
     @Test
     public void getOrderByOrderNumber_success() throws NotFoundException {
         BeverageOrder expectedOrder = DemoData.orders.stream()
@@ -74,6 +103,33 @@ public class OrderServiceTests {
         assertEquals(expectedOrder.getOrderNumber(), actualOrder.getOrderNumber());
     }
 
+    @Test
+    public void getOrderAggregate_success() throws NotFoundException {
+        BeverageOrder expectedOrder = DemoData.orders.stream()
+                .findFirst()
+                .orElse(null);
+
+        assertNotNull(expectedOrder);
+
+        OrderAggregate orderAggregate = orderService.getOrderAggregate(expectedOrder.getOrderNumber());
+
+        assertEquals(expectedOrder.getOrderNumber(), orderAggregate.getOrder().getOrderNumber());
+        assertEquals(expectedOrder.getUser().getUsername(), orderAggregate.getOrder().getUser().getUsername());
+        assertEquals(expectedOrder.getDeliveryAddress().getId(), orderAggregate.getOrder().getDeliveryAddress().getId());
+        assertEquals(orderItemRepository.findAllByOrderOrderNumber(expectedOrder.getOrderNumber()).size(), orderAggregate.getOrderItems().size());
+
+        for (int i = 0; i < orderAggregate.getOrderItems().size(); i++) {
+            assertEquals(i + 1, orderAggregate.getOrderItems().get(i).getPosition());
+        }
+
+        assertSame(orderAggregate, orderService.getOrderAggregate(expectedOrder.getOrderNumber()));
+    }
+
+    @Test
+    public void getOrderAggregate_orderNotFound() {
+        assertThrows(NotFoundException.class, () -> orderService.getOrderAggregate("Test Order Number"));
+    }
+
     @Test
     public void getOrderByOrderNumber_orderNotFound() {
         assertThrows(NotFoundException.class, () -> orderService.getOrderByOrderNumber("Test Order Number"));
@@ -81,8 +137,8 @@ public class OrderServiceTests {
 
     @Test
     public void getPagedOrders_success() {
-        Page<BeverageOrder> firstPage = orderService.getPagedOrders(1, 2);
-        Page<BeverageOrder> secondPage = orderService.getPagedOrders(2, 2);
+        Page<OrderSummary> firstPage = orderService.getPagedOrders(1, 2);
+        Page<OrderSummary> secondPage = orderService.getPagedOrders(2, 2);
 
         assertEquals(1, firstPage.getTotalPages());
         assertEquals(2, firstPage.getTotalElements());
@@ -97,8 +153,8 @@ public class OrderServiceTests {
 
         assertNotNull(user);
 
-        Page<BeverageOrder> firstPage = orderService.getPagedOrdersByUsername(user.getUsername(), 1, 2);
-        Page<BeverageOrder> secondPage = orderService.getPagedOrdersByUsername(user.getUsername(), 2, 2);
+        Page<OrderSummary> firstPage = orderService.getPagedOrdersByUsername(user.getUsername(), 1, 2);
+        Page<OrderSummary> secondPage = orderService.getPagedOrdersByUsername(user.getUsername(), 2, 2);
 
         assertEquals(1, firstPage.getTotalPages());
         assertEquals(1, firstPage.getTotalElements());
@@ -108,33 +164,69 @@ public class OrderServiceTests {
     }
 
     @Test
-    public void getOrdersByUsername_success() {
+    @Transactional
+    public void getOrderHistoryByUsername_success() throws NotFoundException, InsufficientStockException, InvalidOperationException {
         ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
 
-        assertNotNull(user);
+        for (int i = 0; i < 2; i++) {
+            cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 1);
+            orderService.createOrder(user.getUsername(), address.getId(), address.getId());
+        }
 
-        List<BeverageOrder> expectedData = orderRepository.findAllByUserUsernameOrderByOrderNumber(user.getUsername());
+        List<String> expectedOrderNumbers = orderService.getPagedOrdersByUsername(user.getUsername(), 1, 100)
+                .stream()
+                .sorted(Comparator.comparing(OrderSummary::getDate).thenComparing(OrderSummary::getId).reversed())
+                .map(OrderSummary::getOrderNumber)
+                .collect(Collectors.toList());
 
-        assertNotNull(user);
+        assertTrue(expectedOrderNumbers.size() >= 3);
 
-        List<BeverageOrder> actualData = orderService.getOrdersByUsername(user.getUsername());
+        List<String> actualOrderNumbers = new ArrayList<>();
+        CursorPage<OrderSummary> orderPage = orderService.getOrderHistoryByUsername(user.getUsername(), null, 2);
 
-        assertEquals(expectedData.size(), actualData.size());
+        assertNotNull(orderPage.getNextCursor());
+
+        while (true) {
+            assertTrue(orderPage.getContent().size() <= 2);
+
+            orderPage.getContent().forEach(x -> actualOrderNumbers.add(x.getOrderNumber()));
+
+            if (orderPage.getNextCursor() == null) {
+                break;
+            }
+
+            orderPage = orderService.getOrderHistoryByUsername(user.getUsername(), orderPage.getNextCursor(), 2);
+        }
+
+        assertEquals(expectedOrderNumbers, actualOrderNumbers);
     }
 
     @Test
-    public void getOrderItemsByOrderNumber_success() {
-        BeverageOrder order = DemoData.orders.stream()
-                .findFirst()
-                .orElse(null);
+    @Transactional
+    public void getOrderHistoryByUsername_sixDigitOrderIds() {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+
+        // the order number of the 100000th order sorts before the one of the 99999th
+        orderRepository.save(new BeverageOrder(null, "ORD991299999", null, LocalDate.now().plusDays(1), 10, user, address, address, null, true));
+        orderRepository.save(new BeverageOrder(null, "ORD9912100000", null, LocalDate.now().plusDays(1), 10, user, address, address, null, true));
 
-        assertNotNull(order);
+        CursorPage<OrderSummary> orderPage = orderService.getOrderHistoryByUsername(user.getUsername(), null, 1);
 
-        List<BeverageOrderItem> expectedData = orderItemRepository.findAllByOrderOrderNumber(order.getOrderNumber());
+        assertEquals("ORD9912100000", orderPage.getContent().get(0).getOrderNumber());
 
-        List<BeverageOrderItem> actualData = orderService.getOrderItemsByOrderNumber(order.getOrderNumber());
+        orderPage = orderService.getOrderHistoryByUsername(user.getUsername(), orderPage.getNextCursor(), 1);
 
-        assertEquals(expectedData.size(), actualData.size());
+        assertEquals("ORD991299999", orderPage.getContent().get(0).getOrderNumber());
+    }
+
+    @Test
+    public void getOrderHistoryByUsername_invalidCursor() {
+        ApplicationUser user = TestHelper.getCustomer();
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrderHistoryByUsername(user.getUsername(), "invalid", 2));
     }
 
     @Test
@@ -166,10 +258,24 @@ public class OrderServiceTests {
 
         BeverageOrder addedOrder = orderService.createOrder(user.getUsername(), address.getId(), address.getId());
 
-        assertEquals(0, cartService.getCartItemCount());
+        // the cart is only cleared once the order commits, which the test transaction never does
+        assertEquals(crateQuantity + bottleQuantity, cartService.getCartItemCount());
         assertEquals(expectedCartTotal, addedOrder.getPrice());
+        assertEquals(Helper.generateOrderNumber(addedOrder.getId()), addedOrder.getOrderNumber());
+
+        List<BeverageOrderItem> addedOrderItems = orderItemRepository.findAllByOrderOrderNumber(addedOrder.getOrderNumber());
+        addedOrderItems.sort(Comparator.comparing(BeverageOrderItem::getPosition));
 
-        assertEquals(2, orderItemRepository.findAllByOrderOrderNumber(addedOrder.getOrderNumber()).size());
+        assertEquals(2, addedOrderItems.size());
+        assertEquals(crate.getName(), addedOrderItems.get(0).getName());
+        assertEquals(crate.getPrice(), addedOrderItems.get(0).getPrice());
+        assertEquals(bottle.getName(), addedOrderItems.get(1).getName());
+        assertEquals(bottle.getPrice(), addedOrderItems.get(1).getPrice());
+
+        assertEquals(List.of(OutboxMessageType.FIRESTORE_ORDER, OutboxMessageType.ORDER_INVOICE, OutboxMessageType.SALES_ROLLUP), outboxMessageRepository.findAllByAggregateIdOrderById(addedOrder.getOrderNumber())
+                .stream()
+                .map(OutboxMessage::getType)
+                .collect(Collectors.toList()));
 
         assertEquals(orderCountBeforeAdd + 1, orderRepository.count());
         assertEquals(orderItemCountBeforeAdd + 2, orderItemRepository.count());
@@ -178,6 +284,25 @@ public class OrderServiceTests {
         assertEquals((bottle.getInStock() - bottleQuantity), bottleRepository.findById(bottle.getId()).get().getInStock());
     }
 
+    @Test
+    @Transactional
+    public void createOrder_rollbackKeepsCart() throws NotFoundException, InsufficientStockException, InvalidOperationException {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
+
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 2);
+
+        orderService.createOrder(user.getUsername(), address.getId(), address.getId());
+
+        // the order is written but its transaction fails to commit
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+
+        assertEquals(2, cartService.getCartItemCount());
+        assertEquals(2, stockReservationService.getReservedQuantities(BeverageType.BOTTLE).get(bottle.getId()));
+    }
+
     @Test
     public void createOrder_userNotFound() throws NotFoundException, InsufficientStockException {
         ApplicationUser user = TestHelper.getCustomer();
@@ -216,6 +341,65 @@ public class OrderServiceTests {
         assertThrows(NotFoundException.class, () -> orderService.createOrder(user.getUsername(), 0L, 0L));
     }
 
+    @Test
+    public void createOrder_insufficientStock() throws Exception {
+        ApplicationUser user = TestHelper.getCustomer();
+        assertNotNull(user);
+
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        assertNotNull(address);
+
+        Crate crate = crateRepository.findById(TestHelper.getCrate().getId()).orElseThrow();
+        Bottle bottle = bottleRepository.findById(TestHelper.getBottle().getId()).orElseThrow();
+
+        cartService.addCartItem(BeverageType.CRATE, crate.getId(), 2);
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 2);
+
+        long orderCountBeforeAdd = orderRepository.count();
+
+        // another checkout sells the crates after they were put into the cart
+        stockService.adjustStock(List.of(new StockAdjustmentDTO(BeverageType.CRATE, crate.getId(), -(crate.getInStock() - 1))));
+
+        try {
+            InsufficientStockException exception = assertThrows(InsufficientStockException.class, () -> orderService.createOrder(user.getUsername(), address.getId(), address.getId()));
+
+            assertEquals(1, exception.getShortages().size());
+            assertEquals(BeverageType.CRATE, exception.getShortages().get(0).getBeverageType());
+            assertEquals(crate.getId(), exception.getShortages().get(0).getBeverageId());
+
+            assertEquals(4, cartService.getCartItemCount());
+            assertEquals(orderCountBeforeAdd, orderRepository.count());
+            assertEquals(bottle.getInStock(), bottleRepository.findById(bottle.getId()).orElseThrow().getInStock());
+        } finally {
+            stockService.adjustStock(List.of(new StockAdjustmentDTO(BeverageType.CRATE, crate.getId(), crate.getInStock() - 1)));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void createOrder_priceChanged() throws Exception {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+
+        Bottle bottle = bottleRepository.findById(TestHelper.getBottle().getId()).orElseThrow();
+
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 2);
+
+        long orderCountBeforeAdd = orderRepository.count();
+
+        // the price is raised after the customer put the bottle into the cart
+        bottle.setPrice(bottle.getPrice() + 1);
+        bottleRepository.save(bottle);
+
+        InvalidOperationException exception = assertThrows(InvalidOperationException.class, () -> orderService.createOrder(user.getUsername(), address.getId(), address.getId()));
+
+        assertTrue(exception.getMessage().contains(bottle.getName()));
+        assertEquals(bottle.getPrice(), cartService.getCartItems().get(0).getPrice());
+        assertEquals(bottle.getPrice() * 2, cartService.getCartTotal(), 0.001);
+        assertEquals(2, cartService.getCartItemCount());
+        assertEquals(orderCountBeforeAdd, orderRepository.count());
+    }
+
     @Test
     public void createOrder_createOrderWithEmptyCart() {
         ApplicationUser user = TestHelper.getCustomer();
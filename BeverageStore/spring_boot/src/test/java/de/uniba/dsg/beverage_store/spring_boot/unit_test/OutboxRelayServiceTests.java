@@ -0,0 +1,160 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.demo.DemoData;
+import de.uniba.dsg.beverage_store.spring_boot.helper.Helper;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageStatus;
+import de.uniba.dsg.beverage_store.spring_boot.model.OutboxMessageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.OutboxMessage;
+import de.uniba.dsg.beverage_store.spring_boot.properties.OutboxProperties;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OutboxMessageRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.FireStoreService;
+import de.uniba.dsg.beverage_store.spring_boot.service.InvoiceService;
+import de.uniba.dsg.beverage_store.spring_boot.service.OutboxRelayService;
+import de.uniba.dsg.beverage_store.spring_boot.service.OutboxService;
+import de.uniba.dsg.models.Invoice;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+public class OutboxRelayServiceTests {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelayService outboxRelayService;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @MockBean
+    private InvoiceService invoiceService;
+
+    @MockBean
+    private FireStoreService fireStoreService;
+
+    @Test
+    public void relay_success() throws Exception {
+        Invoice invoice = getInvoice();
+
+        OutboxMessage firestoreMessage = outboxService.enqueue(OutboxMessageType.FIRESTORE_ORDER, invoice.getOrderNumber(), invoice);
+        OutboxMessage invoiceMessage = outboxService.enqueue(OutboxMessageType.ORDER_INVOICE, invoice.getOrderNumber(), invoice);
+
+        outboxRelayService.relay();
+
+        verify(fireStoreService, times(1)).storeOrder(argThat(x -> x.getOrderNumber().equals(invoice.getOrderNumber())), eq(outboxProperties.getDeliveryTimeoutSeconds()));
+        verify(invoiceService, times(1)).generateInvoice(argThat(x -> x.getOrderNumber().equals(invoice.getOrderNumber())), eq(outboxProperties.getDeliveryTimeoutSeconds()));
+
+        for (OutboxMessage message : new OutboxMessage[] { firestoreMessage, invoiceMessage }) {
+            OutboxMessage relayedMessage = outboxMessageRepository.findById(message.getId()).orElseThrow();
+
+            assertEquals(OutboxMessageStatus.DELIVERED, relayedMessage.getStatus());
+            assertEquals(1, relayedMessage.getAttempts());
+            assertNotNull(relayedMessage.getDeliveredAt());
+        }
+    }
+
+    @Test
+    public void relay_retry() throws Exception {
+        Invoice invoice = getInvoice();
+
+        doThrow(new RestClientException("Invoice generator unavailable"))
+                .when(invoiceService).generateInvoice(any(Invoice.class), anyLong());
+
+        OutboxMessage message = outboxService.enqueue(OutboxMessageType.ORDER_INVOICE, invoice.getOrderNumber(), invoice);
+
+        outboxRelayService.relay();
+
+        OutboxMessage failedMessage = outboxMessageRepository.findById(message.getId()).orElseThrow();
+
+        assertEquals(OutboxMessageStatus.PENDING, failedMessage.getStatus());
+        assertEquals(1, failedMessage.getAttempts());
+        assertTrue(failedMessage.getLastError().contains("Invoice generator unavailable"));
+        assertTrue(failedMessage.getAvailableAt().isAfter(LocalDateTime.now()));
+
+        // not due again until the backoff has passed
+        outboxRelayService.relay();
+
+        assertEquals(1, outboxMessageRepository.findById(message.getId()).orElseThrow().getAttempts());
+    }
+
+    @Test
+    public void relay_maxAttempts() throws Exception {
+        Invoice invoice = getInvoice();
+        int maxAttempts = outboxProperties.getMaxAttempts();
+
+        doThrow(new RestClientException("Invoice generator unavailable"))
+                .when(invoiceService).generateInvoice(any(Invoice.class), anyLong());
+
+        OutboxMessage message = outboxService.enqueue(OutboxMessageType.ORDER_INVOICE, invoice.getOrderNumber(), invoice);
+
+        try {
+            outboxProperties.setMaxAttempts(1);
+
+            outboxRelayService.relay();
+        } finally {
+            outboxProperties.setMaxAttempts(maxAttempts);
+        }
+
+        assertEquals(OutboxMessageStatus.FAILED, outboxMessageRepository.findById(message.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void purgeDelivered_success() throws Exception {
+        Invoice invoice = getInvoice();
+        long deliveredRetentionHours = outboxProperties.getDeliveredRetentionHours();
+
+        doThrow(new RestClientException("Invoice generator unavailable"))
+                .when(invoiceService).generateInvoice(any(Invoice.class), anyLong());
+
+        OutboxMessage deliveredMessage = outboxService.enqueue(OutboxMessageType.FIRESTORE_ORDER, invoice.getOrderNumber(), invoice);
+        OutboxMessage pendingMessage = outboxService.enqueue(OutboxMessageType.ORDER_INVOICE, invoice.getOrderNumber(), invoice);
+
+        outboxRelayService.relay();
+
+        // still within the retention period
+        outboxRelayService.purgeDelivered();
+
+        assertTrue(outboxMessageRepository.existsById(deliveredMessage.getId()));
+
+        try {
+            outboxProperties.setDeliveredRetentionHours(-1L);
+
+            outboxRelayService.purgeDelivered();
+        } finally {
+            outboxProperties.setDeliveredRetentionHours(deliveredRetentionHours);
+        }
+
+        assertFalse(outboxMessageRepository.existsById(deliveredMessage.getId()));
+        assertTrue(outboxMessageRepository.existsById(pendingMessage.getId()));
+    }
+
+    private Invoice getInvoice() {
+        BeverageOrder order = DemoData.orders.get(0);
+
+        Invoice invoice = Helper.constructOrderInvoice(order, order.getUser(), order.getDeliveryAddress(), order.getBillingAddress(), new ArrayList<>(order.getOrderItems()));
+        invoice.setOrderNumber("ORD-" + UUID.randomUUID());
+
+        return invoice;
+    }
+}
@@ -0,0 +1,170 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.InvalidOperationException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageSalesSummary;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.SalesKpis;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Address;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.CustomerSalesRollup;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.SalesTotal;
+import de.uniba.dsg.beverage_store.spring_boot.repository.OrderRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.CartService;
+import de.uniba.dsg.beverage_store.spring_boot.service.FireStoreService;
+import de.uniba.dsg.beverage_store.spring_boot.service.InvoiceService;
+import de.uniba.dsg.beverage_store.spring_boot.service.OrderService;
+import de.uniba.dsg.beverage_store.spring_boot.service.SalesRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import javax.annotation.Resource;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SalesRollupServiceTests {
+
+    @Resource(name = "sessionScopedCartService")
+    private CartService cartService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private InvoiceService invoiceService;
+
+    @MockBean
+    private FireStoreService fireStoreService;
+
+    private final LocalDate FROM = LocalDate.of(2000, 1, 1);
+    private final LocalDate TO = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    public void init() {
+        cartService.clearCart();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        cartService.clearCart();
+    }
+
+    @Test
+    @Transactional
+    public void applyOrder_success() throws NotFoundException, InsufficientStockException, InvalidOperationException {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+        Bottle bottle = TestHelper.getBottle();
+
+        cartService.addCartItem(BeverageType.BOTTLE, bottle.getId(), 2);
+
+        BeverageOrder order = orderService.createOrder(user.getUsername(), address.getId(), address.getId());
+
+        SalesKpis kpisBeforeApply = salesRollupService.getKpis(salesRollupService.getDailySales(order.getDate(), order.getDate()));
+
+        assertTrue(salesRollupService.applyOrder(order.getOrderNumber()));
+        assertFalse(salesRollupService.applyOrder(order.getOrderNumber()));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        SalesKpis kpisAfterApply = salesRollupService.getKpis(salesRollupService.getDailySales(order.getDate(), order.getDate()));
+
+        assertEquals(kpisBeforeApply.getOrderCount() + 1, kpisAfterApply.getOrderCount());
+        assertEquals(kpisBeforeApply.getUnitCount() + 2, kpisAfterApply.getUnitCount());
+        assertEquals(kpisBeforeApply.getRevenue() + order.getPrice(), kpisAfterApply.getRevenue(), 0.001);
+    }
+
+    @Test
+    public void applyOrder_notFound() {
+        assertFalse(salesRollupService.applyOrder("ORDER-NOT-FOUND"));
+    }
+
+    @Test
+    @Transactional
+    public void rebuild_success() {
+        salesRollupService.rebuild();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BeverageOrder> orders = orderRepository.findAll();
+        double expectedRevenue = orders.stream()
+                .mapToDouble(BeverageOrder::getPrice)
+                .sum();
+
+        SalesKpis kpis = salesRollupService.getKpis(salesRollupService.getDailySales(FROM, TO));
+
+        assertEquals(orders.size(), kpis.getOrderCount());
+        assertEquals(expectedRevenue, kpis.getRevenue(), 0.001);
+
+        List<CustomerSalesRollup> topCustomers = salesRollupService.getTopCustomers(orders.size());
+
+        assertEquals(orders.size(), topCustomers.stream().mapToLong(CustomerSalesRollup::getOrderCount).sum());
+        assertEquals(expectedRevenue, topCustomers.stream().mapToDouble(CustomerSalesRollup::getRevenue).sum(), 0.001);
+        assertEquals(kpis.getUnitCount(), topCustomers.stream().mapToLong(CustomerSalesRollup::getUnitCount).sum());
+
+        assertTrue(orders.stream().noneMatch(x -> salesRollupService.applyOrder(x.getOrderNumber())));
+    }
+
+    @Test
+    @Transactional
+    public void rebuild_excludesPendingOrders() {
+        ApplicationUser user = TestHelper.getCustomer();
+        Address address = TestHelper.getUserAddress(user.getUsername());
+
+        salesRollupService.rebuild();
+
+        // stands in for an order committed after the flag update of a rebuild, the aggregates must leave it to its outbox message
+        orderRepository.save(new BeverageOrder(null, "ORDER-PENDING", null, LocalDate.now(), 10, user, address, address, null, false));
+
+        long rolledUpOrderCount = orderRepository.findRolledUpDailySalesTotals()
+                .stream()
+                .mapToLong(SalesTotal::getOrderCount)
+                .sum();
+
+        assertEquals(orderRepository.count() - 1, rolledUpOrderCount);
+    }
+
+    @Test
+    @Transactional
+    public void getTopBeverages_success() {
+        salesRollupService.rebuild();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BeverageSalesSummary> topBeverages = salesRollupService.getTopBeverages(FROM, TO, 2);
+
+        assertFalse(topBeverages.isEmpty());
+        assertTrue(topBeverages.size() <= 2);
+
+        for (int i = 1; i < topBeverages.size(); i++) {
+            assertTrue(topBeverages.get(i - 1).getRevenue() >= topBeverages.get(i).getRevenue());
+        }
+
+        topBeverages.forEach(x -> assertNotNull(x.getName()));
+    }
+}
@@ -0,0 +1,48 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Address;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.BeverageOrder;
+import de.uniba.dsg.beverage_store.spring_boot.repository.AddressRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.SequenceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SequenceServiceTests {
+
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Test
+    public void nextId_success() {
+        Set<Long> ids = new HashSet<>();
+
+        // spans more than one allocation, so the sequence is hit again on the way
+        for (int i = 0; i < 120; i++) {
+            assertTrue(ids.add(sequenceService.nextId(BeverageOrder.class)));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void nextId_sharedWithEntity() {
+        long drawnId = sequenceService.nextId(Address.class);
+
+        Address address = new Address(null, "Address 3", "Pestalozzistraße", "9f", "96052", TestHelper.getCustomer(), null, null);
+        addressRepository.save(address);
+
+        assertNotNull(address.getId());
+        assertNotEquals(drawnId, address.getId());
+    }
+}
@@ -0,0 +1,168 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.ImportFormat;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockAlert;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockAlertLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.StockAdjustmentDTO;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogImportService;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockAlertService;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class StockAlertServiceTests {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    @Autowired
+    private CrateRepository crateRepository;
+
+    @Test
+    public void stockMutation_raisesAlerts() throws Exception {
+        LocalDateTime start = LocalDateTime.now();
+        Bottle bottle = getBottle();
+
+        int bottleInStock = bottle.getInStock();
+
+        try {
+            setInStock(bottle, 3);
+
+            StockAlert lowStockAlert = awaitAlert(start, BeverageType.BOTTLE, bottle.getId(), StockAlertLevel.LOW_STOCK);
+
+            assertEquals(bottle.getName(), lowStockAlert.getName());
+            assertEquals(3, lowStockAlert.getInStock());
+
+            setInStock(bottle, 0);
+
+            StockAlert outOfStockAlert = awaitAlert(start, BeverageType.BOTTLE, bottle.getId(), StockAlertLevel.OUT_OF_STOCK);
+
+            assertEquals(0, outOfStockAlert.getInStock());
+        } finally {
+            setInStock(bottle, bottleInStock);
+        }
+    }
+
+    @Test
+    public void stockMutation_rolledBack() throws Exception {
+        LocalDateTime start = LocalDateTime.now();
+        Bottle bottle = getBottle();
+        Crate crate = getCrate();
+
+        int bottleInStock = bottle.getInStock();
+
+        assertThrows(InsufficientStockException.class, () -> stockService.adjustStock(List.of(
+                new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), -bottleInStock - 1),
+                new StockAdjustmentDTO(BeverageType.CRATE, crate.getId(), -crate.getInStock())
+        )));
+
+        try {
+            // events are handled in order, so once this alert shows up the rolled back batch would have raised its own
+            setInStock(bottle, 2);
+
+            awaitAlert(start, BeverageType.BOTTLE, bottle.getId(), StockAlertLevel.LOW_STOCK);
+
+            assertTrue(findAlert(start, BeverageType.CRATE, crate.getId(), StockAlertLevel.OUT_OF_STOCK).isEmpty());
+        } finally {
+            setInStock(bottle, bottleInStock);
+        }
+    }
+
+    @Test
+    public void stockImport_raisesAlerts() throws Exception {
+        Bottle bottle = getBottle();
+
+        int bottleInStock = bottle.getInStock();
+
+        try {
+            setInStock(bottle, 0);
+
+            awaitAlert(LocalDateTime.now().minusSeconds(1), BeverageType.BOTTLE, bottle.getId(), StockAlertLevel.OUT_OF_STOCK);
+
+            LocalDateTime start = LocalDateTime.now();
+
+            catalogImportService.importStock(new ByteArrayInputStream(("beverageType,beverageId,quantity\n" +
+                    "BOTTLE," + bottle.getId() + ",2\n").getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+
+            StockAlert lowStockAlert = awaitAlert(start, BeverageType.BOTTLE, bottle.getId(), StockAlertLevel.LOW_STOCK);
+
+            assertEquals(bottle.getName(), lowStockAlert.getName());
+            assertEquals(2, lowStockAlert.getInStock());
+        } finally {
+            setInStock(bottle, bottleInStock);
+        }
+    }
+
+    private void setInStock(Bottle bottle, int inStock) throws Exception {
+        int currentInStock = bottleRepository.findById(bottle.getId()).orElseThrow().getInStock();
+
+        stockService.adjustStock(List.of(new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), inStock - currentInStock)));
+    }
+
+    private StockAlert awaitAlert(LocalDateTime since, BeverageType beverageType, long beverageId, StockAlertLevel level) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (System.currentTimeMillis() < deadline) {
+            Optional<StockAlert> alert = findAlert(since, beverageType, beverageId, level);
+
+            if (alert.isPresent()) {
+                return alert.get();
+            }
+
+            Thread.sleep(20);
+        }
+
+        return fail("No " + level.name() + " alert raised for " + beverageType.name() + " with ID: " + beverageId);
+    }
+
+    private Optional<StockAlert> findAlert(LocalDateTime since, BeverageType beverageType, long beverageId, StockAlertLevel level) {
+        return stockAlertService.getRecentAlerts()
+                .stream()
+                .filter(x -> !x.getRaisedAt().isBefore(since))
+                .filter(x -> x.getBeverageType() == beverageType && x.getBeverageId() == beverageId && x.getLevel() == level)
+                .findFirst();
+    }
+
+    private Bottle getBottle() {
+        return bottleRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals("Sprite"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Crate getCrate() {
+        return crateRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals("Sprite Crate"))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,135 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.TestHelper;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.properties.ReservationProperties;
+import de.uniba.dsg.beverage_store.spring_boot.service.CatalogSnapshotService;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class StockReservationServiceTests {
+
+    private final String FIRST_HOLDER = "first-holder";
+    private final String SECOND_HOLDER = "second-holder";
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ReservationProperties reservationProperties;
+
+    @AfterEach
+    public void cleanup() {
+        Bottle bottle = getBottle();
+
+        stockReservationService.release(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId());
+        stockReservationService.release(SECOND_HOLDER, BeverageType.BOTTLE, bottle.getId());
+    }
+
+    @Test
+    public void reserve_success() {
+        Bottle bottle = getBottle();
+
+        assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), bottle.getInStock() - 2));
+        assertTrue(stockReservationService.reserve(SECOND_HOLDER, BeverageType.BOTTLE, bottle.getId(), 2));
+
+        assertEquals(bottle.getInStock(), stockReservationService.getReservedQuantities(BeverageType.BOTTLE).get(bottle.getId()));
+        assertNull(stockReservationService.getReservedQuantities(BeverageType.CRATE).get(bottle.getId()));
+    }
+
+    @Test
+    public void reserve_insufficientStock() {
+        Bottle bottle = getBottle();
+
+        assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), bottle.getInStock() - 1));
+        assertFalse(stockReservationService.reserve(SECOND_HOLDER, BeverageType.BOTTLE, bottle.getId(), 2));
+
+        // a holder can always resize its own hold within the stock left by others
+        assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), 1));
+        assertTrue(stockReservationService.reserve(SECOND_HOLDER, BeverageType.BOTTLE, bottle.getId(), 2));
+
+        assertFalse(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void release_success() {
+        Bottle bottle = getBottle();
+
+        assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), bottle.getInStock()));
+
+        stockReservationService.release(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId());
+
+        assertNull(stockReservationService.getReservedQuantities(BeverageType.BOTTLE).get(bottle.getId()));
+        assertTrue(stockReservationService.reserve(SECOND_HOLDER, BeverageType.BOTTLE, bottle.getId(), bottle.getInStock()));
+    }
+
+    @Test
+    public void reserve_expired() {
+        Bottle bottle = getBottle();
+        int holdSeconds = reservationProperties.getHoldSeconds();
+
+        try {
+            reservationProperties.setHoldSeconds(0);
+
+            assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), bottle.getInStock()));
+        } finally {
+            reservationProperties.setHoldSeconds(holdSeconds);
+        }
+
+        assertNull(stockReservationService.getReservedQuantities(BeverageType.BOTTLE).get(bottle.getId()));
+        assertTrue(stockReservationService.reserve(SECOND_HOLDER, BeverageType.BOTTLE, bottle.getId(), bottle.getInStock()));
+    }
+
+    @Test
+    public void reserve_renewed() {
+        Bottle bottle = getBottle();
+
+        assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), 2));
+
+        long revision = stockReservationService.getRevision();
+
+        // renewing the hold keeps the reserved quantities, resizing it changes them
+        assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), 2));
+        assertEquals(revision, stockReservationService.getRevision());
+
+        assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), 3));
+        assertTrue(stockReservationService.getRevision() > revision);
+    }
+
+    @Test
+    public void expireHolds_success() {
+        Bottle bottle = getBottle();
+        int holdSeconds = reservationProperties.getHoldSeconds();
+
+        try {
+            reservationProperties.setHoldSeconds(0);
+
+            assertTrue(stockReservationService.reserve(FIRST_HOLDER, BeverageType.BOTTLE, bottle.getId(), 2));
+        } finally {
+            reservationProperties.setHoldSeconds(holdSeconds);
+        }
+
+        long revision = stockReservationService.getRevision();
+
+        stockReservationService.expireHolds();
+
+        assertTrue(stockReservationService.getRevision() > revision);
+        assertNull(stockReservationService.getReservedQuantities(BeverageType.BOTTLE).get(bottle.getId()));
+    }
+
+    private Bottle getBottle() {
+        return catalogSnapshotService.getSnapshot()
+                .getBottlesById()
+                .get(TestHelper.getBottle().getId());
+    }
+}
@@ -0,0 +1,154 @@
+package de.uniba.dsg.beverage_store.spring_boot.unit_test;
+
+import de.uniba.dsg.beverage_store.spring_boot.exception.InsufficientStockException;
+import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
+import de.uniba.dsg.beverage_store.spring_boot.model.BeverageType;
+import de.uniba.dsg.beverage_store.spring_boot.model.CartItem;
+import de.uniba.dsg.beverage_store.spring_boot.model.StockLevel;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Bottle;
+import de.uniba.dsg.beverage_store.spring_boot.model.db.Crate;
+import de.uniba.dsg.beverage_store.spring_boot.model.dto.StockAdjustmentDTO;
+import de.uniba.dsg.beverage_store.spring_boot.repository.BottleRepository;
+import de.uniba.dsg.beverage_store.spring_boot.repository.CrateRepository;
+import de.uniba.dsg.beverage_store.spring_boot.service.StockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class StockServiceTests {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private BottleRepository bottleRepository;
+
+    @Autowired
+    private CrateRepository crateRepository;
+
+    @Test
+    @Transactional
+    public void adjustStock_success() throws Exception {
+        Bottle bottle = getBottle("7Up");
+        Crate crate = getCrate("7Up Crate");
+
+        int bottleInStock = bottle.getInStock();
+        int crateInStock = crate.getInStock();
+
+        List<StockLevel> stockLevels = stockService.adjustStock(List.of(
+                new StockAdjustmentDTO(BeverageType.CRATE, crate.getId(), -1),
+                new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), 5),
+                new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), 3)
+        ));
+
+        assertEquals(2, stockLevels.size());
+
+        assertEquals(BeverageType.BOTTLE, stockLevels.get(0).getBeverageType());
+        assertEquals(bottle.getId(), stockLevels.get(0).getBeverageId());
+        assertEquals(bottle.getName(), stockLevels.get(0).getName());
+        assertEquals(bottleInStock + 8, stockLevels.get(0).getInStock());
+
+        assertEquals(BeverageType.CRATE, stockLevels.get(1).getBeverageType());
+        assertEquals(crate.getId(), stockLevels.get(1).getBeverageId());
+        assertEquals(crate.getName(), stockLevels.get(1).getName());
+        assertEquals(crateInStock - 1, stockLevels.get(1).getInStock());
+    }
+
+    @Test
+    public void adjustStock_notFound() {
+        Bottle bottle = getBottle("7Up");
+
+        int bottleInStock = bottle.getInStock();
+
+        assertThrows(NotFoundException.class, () -> stockService.adjustStock(List.of(
+                new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), 5),
+                new StockAdjustmentDTO(BeverageType.BOTTLE, Long.MAX_VALUE, 5)
+        )));
+
+        assertEquals(bottleInStock, getBottle("7Up").getInStock());
+    }
+
+    @Test
+    public void adjustStock_insufficientStock() {
+        Bottle bottle = getBottle("7Up");
+        Crate crate = getCrate("7Up Crate");
+
+        int bottleInStock = bottle.getInStock();
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class, () -> stockService.adjustStock(List.of(
+                new StockAdjustmentDTO(BeverageType.BOTTLE, bottle.getId(), 5),
+                new StockAdjustmentDTO(BeverageType.CRATE, crate.getId(), -(crate.getInStock() + 1))
+        )));
+
+        assertEquals(1, exception.getShortages().size());
+        assertEquals(crate.getId(), exception.getShortages().get(0).getBeverageId());
+        assertEquals(crate.getInStock() + 1, exception.getShortages().get(0).getRequestedQuantity());
+        assertEquals(crate.getInStock(), exception.getShortages().get(0).getInStock());
+
+        assertEquals(bottleInStock, getBottle("7Up").getInStock());
+    }
+
+    @Test
+    @Transactional
+    public void decreaseStock_success() throws Exception {
+        Bottle bottle = getBottle("7Up");
+
+        List<StockLevel> stockLevels = stockService.decreaseStock(List.of(
+                buildCartItem(BeverageType.BOTTLE, bottle.getId(), 1),
+                buildCartItem(BeverageType.BOTTLE, bottle.getId(), 2)
+        ));
+
+        assertEquals(1, stockLevels.size());
+        assertEquals(bottle.getInStock() - 3, stockLevels.get(0).getInStock());
+    }
+
+    @Test
+    public void decreaseStock_insufficientStock() {
+        Bottle bottle = getBottle("7Up");
+        Crate crate = getCrate("7Up Crate");
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class, () -> stockService.decreaseStock(List.of(
+                buildCartItem(BeverageType.CRATE, crate.getId(), crate.getInStock() + 1),
+                buildCartItem(BeverageType.BOTTLE, bottle.getId(), 1),
+                buildCartItem(BeverageType.BOTTLE, getBottle("Pepsi").getId(), Integer.MAX_VALUE / 2)
+        )));
+
+        assertEquals(2, exception.getShortages().size());
+        assertEquals(BeverageType.BOTTLE, exception.getShortages().get(0).getBeverageType());
+        assertEquals(BeverageType.CRATE, exception.getShortages().get(1).getBeverageType());
+
+        assertEquals(bottle.getInStock(), getBottle("7Up").getInStock());
+        assertEquals(crate.getInStock(), getCrate("7Up Crate").getInStock());
+    }
+
+    private CartItem buildCartItem(BeverageType beverageType, long beverageId, int quantity) {
+        CartItem cartItem = new CartItem();
+        cartItem.setBeverageType(beverageType);
+        cartItem.setBeverageId(beverageId);
+        cartItem.setQuantity(quantity);
+
+        return cartItem;
+    }
+
+    private Bottle getBottle(String name) {
+        return bottleRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Crate getCrate(String name) {
+        return crateRepository.findAll()
+                .stream()
+                .filter(x -> x.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
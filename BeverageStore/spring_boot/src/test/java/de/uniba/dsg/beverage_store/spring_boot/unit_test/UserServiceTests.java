@@ -7,6 +7,7 @@ import de.uniba.dsg.beverage_store.spring_boot.exception.NotFoundException;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.ApplicationUser;
 import de.uniba.dsg.beverage_store.spring_boot.model.db.Role;
 import de.uniba.dsg.beverage_store.spring_boot.model.dto.CustomerDTO;
+import de.uniba.dsg.beverage_store.spring_boot.model.projection.CustomerSummary;
 import de.uniba.dsg.beverage_store.spring_boot.repository.UserRepository;
 import de.uniba.dsg.beverage_store.spring_boot.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -137,8 +138,8 @@ public class UserServiceTests {
     public void getPagedCustomers_success() {
         int customerCount = userRepository.findAllByRole(Role.ROLE_CUSTOMER).size();
 
-        Page<ApplicationUser> firstPage = userService.getPagedCustomers(1, customerCount + 1);
-        Page<ApplicationUser> secondPage = userService.getPagedCustomers(2, customerCount + 1);
+        Page<CustomerSummary> firstPage = userService.getPagedCustomers(1, customerCount + 1);
+        Page<CustomerSummary> secondPage = userService.getPagedCustomers(2, customerCount + 1);
 
         assertEquals(1, firstPage.getTotalPages());
         assertEquals(customerCount, firstPage.stream().count());